@@ -0,0 +1,168 @@
+package com.sessionbuilder.core.it;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.sessionbuilder.core.backend.Topic;
+import com.sessionbuilder.core.utils.EmfFactory;
+import com.sessionbuilder.core.utils.SchemaMigrator;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+public class MigrationIT {
+	
+	// schema generato da hbm2ddl prima delle migrazioni: id IDENTITY e join table a bag senza chiave
+	private static final String[] LEGACY_SCHEMA = {
+		"create table StudySession (id bigint generated by default as identity, date date, duration integer not null, "
+			+ "isComplete boolean not null, note varchar(255), primary key (id))",
+		"create table Topic (id bigint generated by default as identity, description varchar(255), difficulty integer not null, "
+			+ "masteryLevel integer not null, name varchar(255), primary key (id))",
+		"create table Topic_StudySession (topic_id bigint not null, session_id bigint not null)",
+		"alter table if exists Topic_StudySession add constraint FKq9xwcdfsdc0gn4ck2n3hlfbd6 foreign key (session_id) references StudySession",
+		"alter table if exists Topic_StudySession add constraint FK8p7xe1w1c4ge3l0pm3akm8rtq foreign key (topic_id) references Topic"
+	};
+	
+	@SuppressWarnings("resource")
+	@ClassRule
+	public static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+		.withDatabaseName(System.getenv().getOrDefault("POSTGRES_DB", "test"))
+		.withUsername(System.getenv().getOrDefault("POSTGRES_USER", "test"))
+		.withPassword(System.getenv().getOrDefault("POSTGRES_PASSWORD", "test"));
+	
+	private Map<String, String> properties;
+	private EntityManagerFactory emf;
+	
+	@BeforeClass
+	public static void setUpContainer() {
+		postgres.start();
+	}
+	
+	@Before
+	public void setup() throws SQLException {
+		properties = new HashMap<>();
+		properties.put("jakarta.persistence.jdbc.driver", "org.postgresql.Driver");
+		properties.put("jakarta.persistence.jdbc.url", postgres.getJdbcUrl());
+		properties.put("jakarta.persistence.jdbc.user", postgres.getUsername());
+		properties.put("jakarta.persistence.jdbc.password", postgres.getPassword());
+		properties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+		execute("DROP SCHEMA public CASCADE", "CREATE SCHEMA public");
+	}
+	
+	@After
+	public void tearDown() {
+		if (emf != null && emf.isOpen()) emf.close();
+	}
+	
+	@Test
+	public void testFreshDatabaseMigratesToSchemaThatValidates() {
+		assertThat(SchemaMigrator.migrate(properties)).isEqualTo(7);
+		emf = createValidatingEmf();
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		em.persist(new Topic("Storia", "Medioevo", 2, new ArrayList<>()));
+		em.getTransaction().commit();
+		em.close();
+		assertThat(count("SELECT COUNT(*) FROM Topic")).isEqualTo(1L);
+	}
+	
+	@Test
+	public void testSecondMigrationIsNoOp() {
+		SchemaMigrator.migrate(properties);
+		assertThat(SchemaMigrator.migrate(properties)).isZero();
+	}
+	
+	@Test
+	public void testLegacySchemaIsBaselinedAndUpgraded() throws SQLException {
+		execute(LEGACY_SCHEMA);
+		execute(
+			"insert into Topic (name, description, difficulty, masteryLevel) values ('Storia', 'Medioevo', 2, 0), ('Fisica', 'Onde', 3, 4)",
+			"insert into StudySession (date, duration, note, isComplete) values (current_date + 1, 60, 'ripasso', false)",
+			"insert into Topic_StudySession (topic_id, session_id) values (1, 1), (1, 1), (2, 1), (1, 1)");
+		
+		assertThat(SchemaMigrator.migrate(properties)).isEqualTo(6);
+		
+		assertThat(queryLong("SELECT COUNT(*) FROM Topic_StudySession")).isEqualTo(2L);
+		assertThat(queryLong("SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'topic' AND column_name = 'id' AND is_identity = 'YES'")).isZero();
+		emf = createValidatingEmf();
+		EntityManager em = emf.createEntityManager();
+		em.getTransaction().begin();
+		Topic topic = new Topic("Chimica", "Legami", 1, new ArrayList<>());
+		em.persist(topic);
+		em.getTransaction().commit();
+		em.close();
+		assertThat(topic.getId()).isGreaterThan(2L);
+		execute("insert into Topic (name, description, difficulty, masteryLevel) values ('Latino', 'Declinazioni', 1, 0)");
+		assertThat(count("SELECT COUNT(*) FROM Topic")).isEqualTo(4L);
+		assertThat(queryLong("SELECT masterylevel FROM topic WHERE name = 'Fisica'")).isEqualTo(4L);
+		assertThat(queryLong("SELECT COUNT(DISTINCT uuid) FROM topic")).isEqualTo(4L);
+	}
+	
+	@Test
+	public void testLegacyDuplicatesAreMergedBeforeUniqueConstraints() throws SQLException {
+		execute(LEGACY_SCHEMA);
+		execute(
+			"insert into Topic (name, description, difficulty, masteryLevel) values "
+				+ "('Storia', 'Medioevo', 2, 3), ('Storia', 'Medioevo', 2, 7), ('Storia', null, 2, 0), ('Storia', null, 2, 0)",
+			"insert into StudySession (date, duration, note, isComplete) values "
+				+ "(current_date + 1, 60, 'ripasso', false), (current_date + 1, 60, 'ripasso', true), (current_date + 2, 30, 'esercizi', false)",
+			"insert into Topic_StudySession (topic_id, session_id) values (1, 1), (2, 1), (2, 2), (2, 3), (3, 3)");
+		
+		assertThat(SchemaMigrator.migrate(properties)).isEqualTo(6);
+		
+		assertThat(queryLong("SELECT COUNT(*) FROM topic WHERE name = 'Storia' AND description = 'Medioevo'")).isEqualTo(1L);
+		assertThat(queryLong("SELECT masterylevel FROM topic WHERE id = 1")).isEqualTo(7L);
+		assertThat(queryLong("SELECT COUNT(*) FROM topic WHERE description IS NULL")).isEqualTo(2L);
+		assertThat(queryLong("SELECT COUNT(*) FROM studysession")).isEqualTo(2L);
+		assertThat(queryLong("SELECT COUNT(*) FROM studysession WHERE id = 1 AND iscomplete")).isEqualTo(1L);
+		assertThat(queryLong("SELECT COUNT(*) FROM topic_studysession")).isEqualTo(3L);
+		assertThat(queryLong("SELECT COUNT(*) FROM topic_studysession WHERE topic_id = 1 AND session_id IN (1, 3)")).isEqualTo(2L);
+		assertThat(queryLong("SELECT COUNT(*) FROM topic_studysession WHERE topic_id = 3 AND session_id = 3")).isEqualTo(1L);
+	}
+	
+	private EntityManagerFactory createValidatingEmf() {
+		Map<String, String> validating = new HashMap<>(properties);
+		validating.put("hibernate.hbm2ddl.auto", "validate");
+		return EmfFactory.createEntityManagerFactory("sessionbuilder-test", validating);
+	}
+	
+	private long count(String jpql) {
+		EntityManager em = emf.createEntityManager();
+		try {
+			return em.createQuery(jpql, Long.class).getSingleResult();
+		} finally {
+			em.close();
+		}
+	}
+	
+	private long queryLong(String sql) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+			Statement statement = connection.createStatement();
+			ResultSet result = statement.executeQuery(sql)) {
+			result.next();
+			return result.getLong(1);
+		}
+	}
+	
+	private void execute(String... statements) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+			Statement statement = connection.createStatement()) {
+			for (String sql : statements) statement.execute(sql);
+		}
+	}
+}
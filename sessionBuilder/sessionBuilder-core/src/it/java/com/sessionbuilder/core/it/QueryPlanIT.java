@@ -0,0 +1,121 @@
+package com.sessionbuilder.core.it;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Singleton;
+import com.sessionbuilder.core.backend.StudySessionInterface;
+import com.sessionbuilder.core.backend.StudySessionRepository;
+import com.sessionbuilder.core.backend.StudySessionRepositoryInterface;
+import com.sessionbuilder.core.backend.StudySessionService;
+import com.sessionbuilder.core.backend.Topic;
+import com.sessionbuilder.core.backend.TopicRepository;
+import com.sessionbuilder.core.backend.TopicRepositoryInterface;
+import com.sessionbuilder.core.backend.TopicService;
+import com.sessionbuilder.core.backend.TopicServiceInterface;
+import com.sessionbuilder.core.backend.TransactionManager;
+import com.sessionbuilder.core.backend.TransactionManagerImpl;
+
+public class QueryPlanIT extends BaseBackendIntegrationTest {
+	
+	private static final int SEED_TOPICS = 2000;
+	private static final int SEED_SESSIONS = 5000;
+	private static final long SEED_TOPIC_OFFSET = 1_000_000L;
+	private static final long SEED_SESSION_OFFSET = 2_000_000L;
+	
+	private final LocalDate date = LocalDate.now().plusDays(1);
+	private long topicId;
+	private long sessionId;
+
+	@Override
+	protected AbstractModule getTestSpecificModule() {
+		return new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(StudySessionRepositoryInterface.class).to(StudySessionRepository.class).in(Singleton.class);
+				bind(TopicRepositoryInterface.class).to(TopicRepository.class).in(Singleton.class);
+				bind(TopicServiceInterface.class).to(TopicService.class).in(Singleton.class);
+				bind(TransactionManager.class).to(TransactionManagerImpl.class).in(Singleton.class);
+				bind(StudySessionInterface.class).to(StudySessionService.class).in(Singleton.class);
+			}
+		};
+	}
+
+	@Override
+	protected void onSetup() {
+		TopicServiceInterface topicService = injector.getInstance(TopicServiceInterface.class);
+		StudySessionInterface sessionService = injector.getInstance(StudySessionInterface.class);
+		Topic topic = topicService.createTopic("Storia", "Medioevo", 2, new ArrayList<>());
+		Topic other = topicService.createTopic("Arte", "Barocco", 3, new ArrayList<>());
+		topicId = topic.getId();
+		for (int i = 0; i < 20; i++) {
+			sessionId = sessionService.createSession(date.plusDays(i), 60, "nota " + i, List.of(topicId, other.getId())).getId();
+		}
+		// volumi realistici, così il planner sceglie gli indici senza dover disattivare il seqscan
+		transactionManager.doInTransaction(em -> {
+			em.createNativeQuery("INSERT INTO topic (id, version, uuid, name, description, difficulty, masterylevel)"
+				+ " SELECT " + SEED_TOPIC_OFFSET + " + g, 0, gen_random_uuid(), 'topic ' || g, 'seed', 1 + g % 5, 0"
+				+ " FROM generate_series(1, " + SEED_TOPICS + ") g").executeUpdate();
+			em.createNativeQuery("INSERT INTO studysession (id, version, uuid, date, duration, note, iscomplete)"
+				+ " SELECT " + SEED_SESSION_OFFSET + " + g, 0, gen_random_uuid(), DATE '" + date + "' + g % 365, 60, 'seed ' || g, false"
+				+ " FROM generate_series(1, " + SEED_SESSIONS + ") g").executeUpdate();
+			em.createNativeQuery("INSERT INTO topic_studysession (topic_id, session_id)"
+				+ " SELECT " + SEED_TOPIC_OFFSET + " + 1 + (g + k * 617) % " + SEED_TOPICS + ", " + SEED_SESSION_OFFSET + " + g"
+				+ " FROM generate_series(1, " + SEED_SESSIONS + ") g, generate_series(1, 3) k").executeUpdate();
+			return em.createNativeQuery("ANALYZE").executeUpdate();
+		});
+	}
+
+	@Test
+	public void testTopicDuplicateProbeUsesUniqueIndex() {
+		assertThat(explain("SELECT id FROM topic WHERE name = 'Storia' AND description = 'Medioevo' AND difficulty = 2"))
+			.contains("uk_topic_name_description_difficulty");
+	}
+
+	@Test
+	public void testSessionDuplicateProbeUsesUniqueIndex() {
+		assertThat(explain("SELECT id FROM studysession WHERE date = DATE '" + date + "' AND duration = 60 AND note = 'nota 0'"))
+			.contains("uk_studysession_date_duration_note");
+	}
+
+	@Test
+	public void testSessionsOfTopicUseJoinTableKey() {
+		assertIndexScan(explain("SELECT session_id FROM topic_studysession WHERE topic_id = " + topicId),
+			"topic_studysession_pkey", "topic_id");
+	}
+
+	@Test
+	public void testTopicsOfSessionUseReverseIndex() {
+		assertIndexScan(explain("SELECT topic_id FROM topic_studysession WHERE session_id = " + sessionId),
+			"idx_topic_studysession_session", "session_id");
+	}
+
+	@Test
+	public void testSessionKeysetPageUsesDateIdIndexWithoutSort() {
+		String plan = explain("SELECT id FROM studysession WHERE date > DATE '" + date + "' OR (date = DATE '" + date + "' AND id > 0)"
+			+ " ORDER BY date, id LIMIT 5");
+		assertThat(plan).contains("idx_studysession_date_id").doesNotContain("Sort");
+	}
+
+	private void assertIndexScan(String plan, String index, String leadingColumn) {
+		assertThat(plan)
+			.containsPattern("Index (Only )?Scan using " + index + " on ")
+			.containsPattern("Index Cond: \\(" + leadingColumn + " = ");
+	}
+
+	// il seqscan resta in gara: si esclude solo la variante bitmap, per leggere scansione e Index Cond sullo stesso nodo
+	private String explain(String sql) {
+		return transactionManager.doInTransaction(em -> {
+			em.createNativeQuery("SET LOCAL enable_bitmapscan = off").executeUpdate();
+			List<?> rows = em.createNativeQuery("EXPLAIN " + sql).getResultList();
+			return rows.stream().map(Object::toString).collect(Collectors.joining("\n"));
+		});
+	}
+}
@@ -0,0 +1,151 @@
+package com.sessionbuilder.core.it;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Singleton;
+import com.sessionbuilder.core.backend.RetryPolicy;
+import com.sessionbuilder.core.backend.StudySession;
+import com.sessionbuilder.core.backend.StudySessionInterface;
+import com.sessionbuilder.core.backend.StudySessionRepository;
+import com.sessionbuilder.core.backend.StudySessionRepositoryInterface;
+import com.sessionbuilder.core.backend.StudySessionService;
+import com.sessionbuilder.core.backend.Topic;
+import com.sessionbuilder.core.backend.TopicRepository;
+import com.sessionbuilder.core.backend.TopicRepositoryInterface;
+import com.sessionbuilder.core.backend.TopicService;
+import com.sessionbuilder.core.backend.TopicServiceInterface;
+import com.sessionbuilder.core.backend.TransactionManager;
+import com.sessionbuilder.core.backend.TransactionManagerImpl;
+
+public class StudySessionContentionIT extends BaseBackendIntegrationTest {
+	
+	private static final Logger logger = LogManager.getLogger(StudySessionContentionIT.class);
+	private static final int TOPICS = 4;
+	private static final int SESSIONS_PER_TOPIC = 25;
+	// the sessionbuilder-test unit pools 5 connections and fails fast when they run out
+	private static final int[] COMPLETERS = {1, 2, 4};
+	private static final int COMPLETIONS_PER_SESSION = 2;
+	
+	private StudySessionInterface sessionService;
+	private TopicServiceInterface topicService;
+
+	@Override
+	protected AbstractModule getTestSpecificModule() {
+		return new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(StudySessionRepositoryInterface.class).to(StudySessionRepository.class).in(Singleton.class);
+				bind(TopicRepositoryInterface.class).to(TopicRepository.class).in(Singleton.class);
+				bind(TopicServiceInterface.class).to(TopicService.class).in(Singleton.class);
+				bind(TransactionManager.class).to(TransactionManagerImpl.class).in(Singleton.class);
+				bind(StudySessionInterface.class).to(StudySessionService.class).in(Singleton.class);
+				bind(RetryPolicy.class).toInstance(new RetryPolicy(50, 5, 200, RetryPolicy.defaults().retryableSqlStates()));
+			}
+		};
+	}
+
+	@Override
+	protected void onSetup() {
+		sessionService = injector.getInstance(StudySessionInterface.class);
+		topicService = injector.getInstance(TopicServiceInterface.class);
+	}
+
+	@Test
+	public void testConcurrentCompletersAwardMasteryExactlyOnce() throws Exception {
+		Map<Integer, Long> throughput = new LinkedHashMap<>();
+		for (int completers : COMPLETERS) {
+			throughput.put(completers, completeConcurrently(completers));
+		}
+		long baseline = Math.max(1, throughput.get(COMPLETERS[0]));
+		for (Map.Entry<Integer, Long> level : throughput.entrySet()) {
+			logger.info("{} completers: {} completions/s, {}x the single completer",
+				level.getKey(), level.getValue(), String.format("%.2f", (double) level.getValue() / baseline));
+		}
+		assertThat(transactionManager.getExhaustedRetryCount()).isZero();
+	}
+	
+	private long completeConcurrently(int completers) throws Exception {
+		List<Long> topicIds = new ArrayList<>();
+		for (int t = 0; t < TOPICS; t++) {
+			topicIds.add(topicService.createTopic("Topic " + completers + "-" + t, "contention", 3, new ArrayList<>()).getId());
+		}
+		List<Long> sessionIds = new ArrayList<>();
+		for (int t = 0; t < TOPICS; t++) {
+			for (int s = 0; s < SESSIONS_PER_TOPIC; s++) {
+				List<Long> linked = List.of(topicIds.get(t), topicIds.get((t + 1) % TOPICS));
+				String note = "session " + completers + "-" + t + "-" + s;
+				sessionIds.add(sessionService.createSession(LocalDate.now().plusDays(1), 60, note, new ArrayList<>(linked)).getId());
+			}
+		}
+		
+		AtomicInteger completed = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Callable<Void>> attempts = new ArrayList<>();
+		for (int round = 0; round < COMPLETIONS_PER_SESSION; round++) {
+			for (Long sessionId : sessionIds) {
+				attempts.add(() -> {
+					start.await();
+					try {
+						sessionService.completeSession(sessionId);
+						completed.incrementAndGet();
+					} catch (IllegalArgumentException alreadyCompleted) {
+						assertThat(alreadyCompleted.getMessage()).isEqualTo("la sessione è già stata completata");
+						rejected.incrementAndGet();
+					}
+					return null;
+				});
+			}
+		}
+		
+		long retriesBefore = transactionManager.getRetryCount();
+		ExecutorService executor = Executors.newFixedThreadPool(completers);
+		List<Future<Void>> futures = new ArrayList<>();
+		for (Callable<Void> attempt : attempts) {
+			futures.add(executor.submit(attempt));
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Future<Void> future : futures) {
+			future.get(2, TimeUnit.MINUTES);
+		}
+		long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+		executor.shutdown();
+		long completionsPerSecond = completed.get() * 1000L / elapsedMillis;
+		
+		logger.info("{} completers, {} attempts in {} ms ({} completions/s), {} optimistic retries",
+			completers, attempts.size(), elapsedMillis, completionsPerSecond, transactionManager.getRetryCount() - retriesBefore);
+		
+		assertThat(completed.get()).isEqualTo(sessionIds.size());
+		assertThat(rejected.get()).isEqualTo(sessionIds.size() * (COMPLETIONS_PER_SESSION - 1));
+		int pointsPerSession = 8;
+		for (Long topicId : topicIds) {
+			Topic topic = topicService.getTopicById(topicId);
+			assertThat(topic.getMasteryLevel()).isEqualTo(2 * SESSIONS_PER_TOPIC * pointsPerSession);
+		}
+		for (Long sessionId : sessionIds) {
+			StudySession session = sessionService.getSessionById(sessionId);
+			assertThat(session.isComplete()).isTrue();
+			assertThat(session.getVersion()).isEqualTo(1);
+		}
+		return completionsPerSecond;
+	}
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import com.google.inject.AbstractModule;
 import com.google.inject.Singleton;
 import com.sessionbuilder.core.backend.StudySession;
@@ -106,4 +107,69 @@ public class StudySessionRepositoryIT extends BaseBackendIntegrationTest {
 		});
 		assertThat(e.getMessage()).isEqualTo("non esiste una session con tale id");
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testImportChunkWithDuplicateSessionFailureIt() {
+		Topic topic = new Topic("Corsa", "allena lo scatto", 1, new ArrayList<>());
+		transactionManager.doInTopicTransaction(repo -> {
+			repo.save(topic);
+			return null;
+		});
+		LocalDate date = LocalDate.now().plusDays(1);
+		transactionManager.doInSessionTransaction(repo -> {
+			repo.save(new StudySession(date, 60, "una nota", new ArrayList<>(List.of(topic))));
+			return null;
+		});
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> transactionManager.doInMultiRepositoryTransaction(context -> {
+			StudySessionRepositoryInterface repo = context.getSessionRepository();
+			StudySession fresh = new StudySession(date, 30, "nuova", new ArrayList<>());
+			StudySession duplicate = new StudySession(date, 60, "una nota", new ArrayList<>());
+			repo.save(fresh);
+			repo.save(duplicate);
+			repo.flush();
+			repo.saveTopicLinks(Map.of(fresh.getId(), List.of(topic.getId()), duplicate.getId(), List.of(topic.getId())));
+			return null;
+		}));
+		assertThat(e.getMessage()).isEqualTo("esiste già una session con questi valori");
+		List<StudySession> sessions = transactionManager.doInSessionTransaction(repo -> repo.findAll());
+		assertThat(sessions).hasSize(1);
+	}
+
+	@Test
+	public void testSaveTopicLinksAfterFlushLinksImportedSessionsIt() {
+		Topic topic = new Topic("Corsa", "allena lo scatto", 1, new ArrayList<>());
+		transactionManager.doInTopicTransaction(repo -> {
+			repo.save(topic);
+			return null;
+		});
+		StudySession session = new StudySession(LocalDate.now().plusDays(1), 30, "importata", new ArrayList<>());
+		transactionManager.doInSessionTransaction(repo -> {
+			repo.save(session);
+			repo.flush();
+			repo.saveTopicLinks(Map.of(session.getId(), List.of(topic.getId())));
+			return null;
+		});
+		StudySession linked = transactionManager.doInSessionTransaction(repo -> repo.findById(session.getId()));
+		assertThat(linked.getTopicList()).extracting(Topic::getId).containsExactly(topic.getId());
+	}
+
+	@Test
+	public void testSaveTopicLinksRefreshesCachedCollectionsAfterCommitIt() {
+		Topic topic = new Topic("Corsa", "allena lo scatto", 1, new ArrayList<>());
+		transactionManager.doInTopicTransaction(repo -> {
+			repo.save(topic);
+			return null;
+		});
+		Topic cached = transactionManager.doInTopicTransaction(repo -> repo.findById(topic.getId()));
+		assertThat(cached.getSessionList()).isEmpty();
+		StudySession session = new StudySession(LocalDate.now().plusDays(1), 30, "importata", new ArrayList<>());
+		transactionManager.doInSessionTransaction(repo -> {
+			repo.save(session);
+			repo.flush();
+			repo.saveTopicLinks(Map.of(session.getId(), List.of(topic.getId())));
+			return null;
+		});
+		Topic linked = transactionManager.doInTopicTransaction(repo -> repo.findById(topic.getId()));
+		assertThat(linked.getSessionList()).extracting(StudySession::getId).containsExactly(session.getId());
+	}
+}
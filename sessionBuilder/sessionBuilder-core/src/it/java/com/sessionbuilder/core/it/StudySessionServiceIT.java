@@ -126,7 +126,7 @@ public class StudySessionServiceIT extends BaseBackendIntegrationTest {
 		sessionService.removeTopic(sessionId, topic1Id);
 		StudySession sessionWithoutTopic = sessionService.getSessionById(sessionId);
 		assertThat(sessionWithoutTopic.getTopicList()).hasSize(1);
-		assertThat(sessionWithoutTopic.getTopicList().get(0).getName()).isEqualTo("Topic Due");
+		assertThat(sessionWithoutTopic.getTopicList().iterator().next().getName()).isEqualTo("Topic Due");
 	}
 
 	@Test
@@ -145,4 +145,19 @@ public class StudySessionServiceIT extends BaseBackendIntegrationTest {
 			() -> sessionService.getSessionById(sessionId));
 		assertThat(exception.getMessage()).isEqualTo("non esiste una session con tale id");
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testDeleteSessionsUnlinksTopicsIt() {
+		Topic topic = topicService.createTopic("Storia", "Rinascimento", 2, new ArrayList<>());
+		Topic other = topicService.createTopic("Arte", "Caravaggio", 3, new ArrayList<>());
+		StudySession first = sessionService.createSession(LocalDate.now().plusDays(1), 60, "prima", new ArrayList<>(List.of(topic.getId(), other.getId())));
+		StudySession second = sessionService.createSession(LocalDate.now().plusDays(2), 45, "seconda", new ArrayList<>(List.of(topic.getId())));
+		StudySession kept = sessionService.createSession(LocalDate.now().plusDays(3), 30, "terza", new ArrayList<>(List.of(topic.getId())));
+		int deleted = sessionService.deleteSessions(List.of(first.getId(), second.getId()));
+		assertThat(deleted).isEqualTo(2);
+		assertThat(topicService.getTopicById(topic.getId()).getSessionList()).extracting(StudySession::getId).containsExactly(kept.getId());
+		assertThat(topicService.getTopicById(other.getId()).getSessionList()).isEmpty();
+		topicService.deleteTopic(topic.getId());
+		assertThat(sessionService.getSessionById(kept.getId()).getTopicList()).isEmpty();
+	}
+}
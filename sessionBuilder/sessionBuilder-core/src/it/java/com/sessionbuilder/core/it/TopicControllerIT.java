@@ -80,7 +80,7 @@ public class TopicControllerIT extends BaseBackendIntegrationTest {
 
 	@Test
 	public void handleCreateTopicFailureIt() {
-		List<StudySession> list = new ArrayList<>();
+		List<Long> list = new ArrayList<>();
 		assertThrows(IllegalArgumentException.class, () ->
 			topicController.handleCreateTopic(null, "tavola periodica", 3, list));
 		verify(viewCallback, never()).onTopicAdded(any());
@@ -173,7 +173,7 @@ public class TopicControllerIT extends BaseBackendIntegrationTest {
 		assertThat(session.getId()).isPositive();
 		Topic topicWithAssociatedSessions = topicService.getTopicById(topic.getId());
 		assertThat(topicWithAssociatedSessions.getSessionList()).hasSize(1);
-		assertThat(topicWithAssociatedSessions.getSessionList().get(0).getDuration()).isEqualTo(60);
+		assertThat(topicWithAssociatedSessions.getSessionList().iterator().next().getDuration()).isEqualTo(60);
 		Integer time = topicController.handleTotalTime(topic.getId());
 		assertThat(time).isNotZero().isEqualTo(60);
 		verify(viewCallback).onTotalTimeCalculated(time);
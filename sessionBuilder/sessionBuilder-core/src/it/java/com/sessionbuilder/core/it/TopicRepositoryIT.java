@@ -12,6 +12,7 @@ import com.sessionbuilder.core.backend.TransactionManagerImpl;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.assertThrows;
 import java.util.ArrayList;
+import java.util.Map;
 
 public class TopicRepositoryIT extends BaseBackendIntegrationTest {
 
@@ -105,4 +106,31 @@ public class TopicRepositoryIT extends BaseBackendIntegrationTest {
 				}));
 		assertThat(exception.getMessage()).isEqualTo("il topic da rimuovere è null");
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testAwardMasteryUpdatesCachedTopicsIt() {
+		Topic first = new Topic("Scultura", "Vasi di ceramica", 4, new ArrayList<>());
+		Topic second = new Topic("Pittura", "Affreschi", 2, new ArrayList<>());
+		Topic third = new Topic("Musei", "Collezioni", 3, new ArrayList<>());
+		transactionManager.doInTopicTransaction(repo -> {
+			repo.save(first);
+			repo.save(second);
+			repo.save(third);
+			return null;
+		});
+		for (Topic topic : new Topic[] {first, second, third}) {
+			transactionManager.doInTopicTransaction(repo -> repo.findById(topic.getId()));
+		}
+		transactionManager.doInTopicTransaction(repo -> {
+			repo.awardMastery(Map.of(first.getId(), 8, second.getId(), 33, third.getId(), 8));
+			return null;
+		});
+		Topic awardedFirst = transactionManager.doInTopicTransaction(repo -> repo.findById(first.getId()));
+		Topic awardedSecond = transactionManager.doInTopicTransaction(repo -> repo.findById(second.getId()));
+		Topic awardedThird = transactionManager.doInTopicTransaction(repo -> repo.findById(third.getId()));
+		assertThat(awardedFirst.getMasteryLevel()).isEqualTo(8);
+		assertThat(awardedSecond.getMasteryLevel()).isEqualTo(33);
+		assertThat(awardedThird.getMasteryLevel()).isEqualTo(8);
+		assertThat(awardedSecond.getVersion()).isEqualTo(first.getVersion() + 1);
+	}
+}
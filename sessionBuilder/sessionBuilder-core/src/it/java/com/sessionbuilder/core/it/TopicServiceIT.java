@@ -75,7 +75,7 @@ public class TopicServiceIT extends BaseBackendIntegrationTest {
 		topicService.addSessionToTopic(topicId, sessionId);
 		Topic updatedTopic = topicService.getTopicById(topicId);
 		assertThat(updatedTopic.getSessionList()).hasSize(1);
-		assertThat(updatedTopic.getSessionList().get(0).getNote()).isEqualTo("una nota");
+		assertThat(updatedTopic.getSessionList().iterator().next().getNote()).isEqualTo("una nota");
 	}
 
 	@Test
@@ -97,7 +97,7 @@ public class TopicServiceIT extends BaseBackendIntegrationTest {
 		Topic updatedTopic2 = topicService.getTopicById(topic2Id);
 		assertThat(updatedTopic1.getSessionList()).isEmpty();
 		assertThat(updatedTopic2.getSessionList()).hasSize(1);
-		assertThat(updatedTopic2.getSessionList().get(0).getId()).isEqualTo(sessionId);
+		assertThat(updatedTopic2.getSessionList().iterator().next().getId()).isEqualTo(sessionId);
 	}
 
 	@Test
@@ -0,0 +1,6 @@
+package com.sessionbuilder.core.backend;
+
+public enum FetchPlan {
+	SUMMARY,
+	WITH_ASSOCIATIONS
+}
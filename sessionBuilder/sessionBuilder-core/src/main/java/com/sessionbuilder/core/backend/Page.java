@@ -0,0 +1,10 @@
+package com.sessionbuilder.core.backend;
+
+import java.util.List;
+
+public record Page<T>(List<T> content, boolean hasNext) {
+	
+	public T last() {
+		return content.isEmpty() ? null : content.get(content.size() - 1);
+	}
+}
@@ -0,0 +1,62 @@
+package com.sessionbuilder.core.backend;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.StaleStateException;
+
+import jakarta.persistence.OptimisticLockException;
+
+public record RetryPolicy(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis, Set<String> retryableSqlStates) {
+	
+	public static final String SERIALIZATION_FAILURE = "40001";
+	public static final String DEADLOCK_DETECTED = "40P01";
+	public static final int DEFAULT_MAX_ATTEMPTS = 3;
+	public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 50;
+	public static final long DEFAULT_MAX_BACKOFF_MILLIS = 1000;
+	
+	public RetryPolicy {
+		if(maxAttempts <= 0) throw new IllegalArgumentException("il numero massimo di tentativi deve essere positivo");
+		if(initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) throw new IllegalArgumentException("il backoff non è valido");
+		if(retryableSqlStates == null) throw new IllegalArgumentException("la lista degli SQLState è null");
+		retryableSqlStates = Set.copyOf(retryableSqlStates);
+	}
+	
+	public static RetryPolicy defaults() {
+		return new RetryPolicy(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS,
+			Set.of(SERIALIZATION_FAILURE, DEADLOCK_DETECTED));
+	}
+	
+	public static RetryPolicy none() {
+		return new RetryPolicy(1, 0, 0, Set.of());
+	}
+	
+	public boolean isRetryable(Throwable failure) {
+		if (isOptimisticLockFailure(failure)) {
+			return true;
+		}
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+					&& retryableSqlStates.contains(sqlException.getSQLState())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public static boolean isOptimisticLockFailure(Throwable failure) {
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	public long backoffMillis(int attempt) {
+		long ceiling = initialBackoffMillis << Math.min(attempt - 1, 20);
+		long bound = Math.min(maxBackoffMillis, ceiling);
+		return bound == 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1);
+	}
+}
@@ -0,0 +1,7 @@
+package com.sessionbuilder.core.backend;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record SessionSpec(LocalDate date, int duration, String note, List<Long> topicIds) {
+}
@@ -1,35 +1,63 @@
 package com.sessionbuilder.core.backend;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_studysession_date_duration_note", columnNames = {"date", "duration", "note"}),
+	indexes = @Index(name = "idx_studysession_date_id", columnList = "date, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "study-session")
 public class StudySession {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "studysession_seq")
+	@SequenceGenerator(name = "studysession_seq", sequenceName = "studysession_seq", allocationSize = 50)
 	private long id;
 	
+	@Version
+	private long version;
+	
+	@Column(nullable = false, updatable = false)
+	private UUID uuid;
+	
 	private LocalDate date;
 	private int duration;
 	private String note;
 	
-	@ManyToMany(mappedBy="sessionList",fetch = FetchType.EAGER)
-	private List<Topic> topicList = new ArrayList<>();
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "study-session-topics")
+	@ManyToMany(mappedBy="sessionList",fetch = FetchType.LAZY)
+	@OrderBy("id")
+	private Set<Topic> topicList = new LinkedHashSet<>();
 
 	private boolean isComplete;
 
-	public StudySession(LocalDate date, int duration, String note, List<Topic> topicList) {
+	public StudySession(LocalDate date, int duration, String note, Collection<Topic> topicList) {
 		if(date == null) throw new IllegalArgumentException("la date non può essere null");
 		if(date.isBefore(LocalDate.now())) throw new IllegalArgumentException("la date non può essere nel passato");
 		this.date = date;
@@ -39,11 +67,12 @@ public class StudySession {
 		this.note = note;
 		if(topicList == null) throw new IllegalArgumentException("deve esserci almeno un topic");
 		if(topicList.stream().anyMatch(Objects::isNull)) throw new IllegalArgumentException("almeno un Topic è null");
+		this.uuid = UUID.randomUUID();
 		for(Topic topic : topicList) {
 			topic.addSession(this);
 		}
 		this.isComplete = false;
-		this.topicList = topicList;
+		this.topicList = new LinkedHashSet<>(topicList);
 	}
 	
 	public StudySession() {}
@@ -56,7 +85,7 @@ public class StudySession {
 	public String getNote() {
 		return this.note;
 	}
-	public List<Topic> getTopicList() {
+	public Set<Topic> getTopicList() {
 		return this.topicList;
 	}
 	public boolean isComplete() {
@@ -72,6 +101,10 @@ public class StudySession {
 		this.id = id;
 	}
 	
+	public long getVersion() {
+		return version;
+	}
+	
 	public void setIsComplete(boolean value) {
 		this.isComplete = value;
 	}
@@ -80,59 +113,64 @@ public class StudySession {
 		if(topic == null) throw new IllegalArgumentException("null Topic");
 		if(this.isComplete()) throw new IllegalStateException("non si possono aggiungere topic alle sessioni completate");
 		this.getTopicList().add(topic);
-		if(!topic.getSessionList().contains(this)) {
-			topic.addSession(this);
-		}
+		topic.getSessionList().add(this);
 	}
 
 	public void removeTopic(Topic topic) {
 		if(topic == null) throw new IllegalArgumentException("null Topic");
 		if(this.getTopicList().size() == 1) throw new IllegalArgumentException("Una sessione deve avere almeno un Topic");
 		if(this.isComplete()) throw new IllegalStateException("non si possono rimuovere topic dalle sessioni completate");
-		boolean found = topicList.contains(topic);
-		if (!found) throw new IllegalArgumentException("il topic non è presente nella lista");
-		this.getTopicList().remove(topic);
-		if (topic.getSessionList().contains(this)) {
-			topic.removeSession(this);
-		}
+		if (!this.getTopicList().remove(topic)) throw new IllegalArgumentException("il topic non è presente nella lista");
+		topic.getSessionList().remove(this);
 	}
 
 	public void complete() {
 		if(this.isComplete) throw new IllegalArgumentException("la sessione è già stata completata");
 		for (Topic topic : topicList) {
-			int basePoints = 10;
-			if(this.duration >= 90) basePoints += 5;
-			if(topic.getDifficulty() == 5) basePoints += 5;
-			if(topic.getDifficulty() >= 3 && this.duration < 90) basePoints -= 2;
-			topic.increaseMasteryLevel(basePoints);
+			topic.increaseMasteryLevel(masteryPoints(this.duration, topic.getDifficulty()));
 		}
 		this.setIsComplete(true);
 	}
 	
+	static int masteryPoints(int duration, int difficulty) {
+		int basePoints = 10;
+		if(duration >= 90) basePoints += 5;
+		if(difficulty == 5) basePoints += 5;
+		if(difficulty >= 3 && duration < 90) basePoints -= 2;
+		return basePoints;
+	}
+	
+	@PrePersist
+	void assignUuid() {
+		if(this.uuid == null) this.uuid = UUID.randomUUID();
+	}
+	
 	@Override
 	public boolean equals(Object obj) {
 		if(this == obj) return true;
 		if(obj == null || getClass() != obj.getClass()) return false;
 		StudySession other = (StudySession) obj;
-		return this.id > 0 && Objects.equals(this.id, other.id);
+		return this.uuid != null && this.uuid.equals(other.uuid);
 	}
 	
 	@Override
 	public int hashCode() {
-		return Objects.hash(id);
+		return Objects.hashCode(uuid);
 	}
 	
 	public void setDuration(int duration) {
 		this.duration = duration;
 	}
 	
-	public void setTopics (List<Topic> topics) {
-		this.topicList = topics;
+	public void setTopics (Collection<Topic> topics) {
+		this.topicList = topics == null ? null : new LinkedHashSet<>(topics);
 	}
 	
 	@Override
 	public String toString() {
-		String topicNames = topicList.stream().map(Topic::getName).collect(Collectors.joining(", "));
+		String topicNames;
+		if(!Hibernate.isInitialized(topicList)) topicNames = "non caricati";
+		else topicNames = topicList == null ? "" : topicList.stream().map(Topic::getName).collect(Collectors.joining(", "));
 		String completedStatus = isComplete ? "Completed: true" : "Completed: false";
 		return "StudySession("+ date + ", "+ duration + ", " + note + ", " + completedStatus + ", topics{" + topicNames + "})";
 	}
@@ -1,6 +1,7 @@
 package com.sessionbuilder.core.backend;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import com.google.inject.Inject;
@@ -54,6 +55,17 @@ public class StudySessionController {
 		}
 	}
 	
+	public Page<StudySession> handleGetSessionsPage(LocalDate afterDate, long afterId, int pageSize) {
+		try {
+			return service.getSessionsPage(afterDate, afterId, pageSize, FetchPlan.WITH_ASSOCIATIONS);
+		} catch(Exception e) {
+			if(viewCallBack != null) {
+				viewCallBack.onSessionError("Errore nel caricamento delle session");
+			}
+			throw e;
+		}
+	}
+	
 
 	public void handleAddTopic(long sessionId, long topicId) {
 		try {
@@ -90,6 +102,19 @@ public class StudySessionController {
 	}
 		
 
+	public void handleCompleteSessions(Collection<Long> sessionIds) {
+		try {
+			List<StudySession> updatedSessions = service.completeSessions(sessionIds);
+			if(viewCallBack != null) {
+				updatedSessions.forEach(viewCallBack::onSessionUpdated);
+			}
+		}catch (Exception e){
+			if(viewCallBack != null) {
+				viewCallBack.onSessionError(STRING_ERROR + e.getMessage());
+			}
+		}
+	}
+
 	public void handleDeleteSession(long sessionId) {
 		try {
 			StudySession session = service.getSessionById(sessionId);
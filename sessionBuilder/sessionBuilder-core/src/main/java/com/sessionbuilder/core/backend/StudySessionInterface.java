@@ -1,14 +1,25 @@
 package com.sessionbuilder.core.backend;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface StudySessionInterface {
 	StudySession getSessionById(long id);
 	List<StudySession> getAllSessions();
+	List<StudySession> getAllSessions(FetchPlan plan);
+	Page<StudySession> getSessionsPage(LocalDate afterDate, long afterId, int pageSize, FetchPlan plan);
+	<R> R streamAllSessions(Function<Stream<StudySession>, R> reader);
+	<R> R streamAllSessions(int fetchSize, Function<Stream<StudySession>, R> reader);
 	StudySession createSession(LocalDate date, int duration, String note, List<Long> topicIds);
 	StudySession completeSession(long sessionId);
+	List<StudySession> completeSessions(Collection<Long> sessionIds);
 	void addTopic(long sessionId, long topicId);
 	void removeTopic(long sessionId, long topicId);
 	void deleteSession(long sessionId);
+	int deleteSessions(Collection<Long> sessionIds);
+	int bulkCreateSessions(Stream<SessionSpec> specs);
+	int bulkCreateSessions(Stream<SessionSpec> specs, int chunkSize);
 }
@@ -1,13 +1,32 @@
 package com.sessionbuilder.core.backend;
 
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.hibernate.jpa.HibernateHints;
+
 import com.google.inject.Inject;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
 
 public class StudySessionRepository implements StudySessionRepositoryInterface {
 
+	private static final String INSERT_TOPIC_LINK = "INSERT INTO Topic_StudySession (topic_id, session_id) VALUES (?, ?)";
+	private static final String TOPIC_SESSIONS_ROLE = Topic.class.getName() + ".sessionList";
+	private static final String SESSION_TOPICS_ROLE = StudySession.class.getName() + ".topicList";
+	
 	private TransactionManager tm;
 	
 	@Inject
@@ -18,15 +37,12 @@ public class StudySessionRepository implements StudySessionRepositoryInterface {
 	@Override
 	public StudySession findById(long id) {
 		EntityManager em = tm.getCurrentEntityManager();
-		try {
-			return em.createQuery(
-				"SELECT s FROM StudySession s LEFT JOIN FETCH s.topicList WHERE s.id = :id", 
-				StudySession.class)
-				.setParameter("id", id)
-				.getSingleResult();
-		} catch (NoResultException e) {
+		StudySession session = em.find(StudySession.class, id);
+		if (session == null) {
 			throw new IllegalArgumentException("non esiste una session con tale id");
 		}
+		Hibernate.initialize(session.getTopicList());
+		return session;
 	}
 	
 	@Override
@@ -47,14 +63,147 @@ public class StudySessionRepository implements StudySessionRepositoryInterface {
 	
 	@Override
 	public List<StudySession> findAll() {
+		return findAll(FetchPlan.SUMMARY);
+	}
+	
+	@Override
+	public List<StudySession> findAll(FetchPlan plan) {
 		EntityManager em = tm.getCurrentEntityManager();
+		String jpql = plan == FetchPlan.WITH_ASSOCIATIONS
+			? "SELECT s FROM StudySession s LEFT JOIN FETCH s.topicList"
+			: "SELECT s FROM StudySession s";
 		try {
-			return em.createQuery("SELECT s FROM StudySession s", StudySession.class).getResultList();
+			return em.createQuery(jpql, StudySession.class).getResultList();
 		} catch (Exception e) {
 			throw new IllegalArgumentException("Errore nell'estrazione delle session");
 		}
 	}
 	
+	@Override
+	public List<StudySession> findPageAfter(LocalDate afterDate, long afterId, int limit, FetchPlan plan) {
+		EntityManager em = tm.getCurrentEntityManager();
+		TypedQuery<StudySession> query;
+		if (afterDate == null) {
+			query = em.createQuery("SELECT s FROM StudySession s ORDER BY s.date, s.id", StudySession.class);
+		} else {
+			query = em.createQuery("SELECT s FROM StudySession s WHERE s.date > :afterDate OR (s.date = :afterDate AND s.id > :afterId) ORDER BY s.date, s.id",
+					StudySession.class)
+				.setParameter("afterDate", afterDate)
+				.setParameter("afterId", afterId);
+		}
+		List<StudySession> page = query.setMaxResults(limit).getResultList();
+		if (plan == FetchPlan.WITH_ASSOCIATIONS && !page.isEmpty()) {
+			em.createQuery("SELECT DISTINCT s FROM StudySession s LEFT JOIN FETCH s.topicList WHERE s.id IN :ids", StudySession.class)
+				.setParameter("ids", page.stream().map(StudySession::getId).toList())
+				.getResultList();
+		}
+		return page;
+	}
+	
+	@Override
+	public Stream<StudySession> streamAll(int fetchSize) {
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("SELECT s FROM StudySession s", StudySession.class)
+			.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+			.setHint(HibernateHints.HINT_READ_ONLY, true)
+			.getResultStream()
+			.map(session -> {
+				em.detach(session);
+				return session;
+			});
+	}
+	
+	@Override
+	public List<StudySession> findByNotesAndDates(Collection<String> notes, Collection<LocalDate> dates) {
+		if (notes.isEmpty() || dates.isEmpty()) return List.of();
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("SELECT s FROM StudySession s WHERE s.note IN :notes AND s.date IN :dates", StudySession.class)
+			.setParameter("notes", notes)
+			.setParameter("dates", dates)
+			.getResultList();
+	}
+	
+	@Override
+	public void saveTopicLinks(Map<Long, List<Long>> topicIdsBySession) {
+		if (topicIdsBySession.isEmpty()) return;
+		EntityManager em = tm.getCurrentEntityManager();
+		Session session = em.unwrap(Session.class);
+		session.doWork(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(INSERT_TOPIC_LINK)) {
+				for (Map.Entry<Long, List<Long>> entry : topicIdsBySession.entrySet()) {
+					for (Long topicId : entry.getValue()) {
+						statement.setLong(1, topicId);
+						statement.setLong(2, entry.getKey());
+						statement.addBatch();
+					}
+				}
+				statement.executeBatch();
+			}
+		});
+		// le righe scritte via JDBC sfuggono alla cache: le collezioni si invalidano solo dopo il commit,
+		// altrimenti un lettore concorrente potrebbe rimetterci lo stato precedente
+		Cache cache = session.getSessionFactory().getCache();
+		session.getTransaction().registerSynchronization(new Synchronization() {
+			@Override
+			public void beforeCompletion() {
+			}
+			
+			@Override
+			public void afterCompletion(int status) {
+				if (status != Status.STATUS_COMMITTED) return;
+				for (Map.Entry<Long, List<Long>> entry : topicIdsBySession.entrySet()) {
+					cache.evictCollectionData(SESSION_TOPICS_ROLE, entry.getKey());
+					for (Long topicId : entry.getValue()) {
+						cache.evictCollectionData(TOPIC_SESSIONS_ROLE, topicId);
+					}
+				}
+			}
+		});
+	}
+	
+	@Override
+	public int markComplete(long sessionId) {
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("UPDATE StudySession s SET s.isComplete = true, s.version = s.version + 1 WHERE s.id = :id AND s.isComplete = false")
+			.setParameter("id", sessionId)
+			.executeUpdate();
+	}
+	
+	@Override
+	public int markComplete(Collection<Long> sessionIds) {
+		if (sessionIds.isEmpty()) return 0;
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("UPDATE StudySession s SET s.isComplete = true, s.version = s.version + 1 WHERE s.id IN :ids AND s.isComplete = false")
+			.setParameter("ids", sessionIds)
+			.executeUpdate();
+	}
+	
+	@Override
+	public Map<Long, Integer> findMasteryAwards(Collection<Long> sessionIds) {
+		if (sessionIds.isEmpty()) return Map.of();
+		EntityManager em = tm.getCurrentEntityManager();
+		List<Object[]> rows = em.createQuery("SELECT t.id, t.difficulty, s.duration FROM StudySession s JOIN s.topicList t WHERE s.id IN :ids",
+				Object[].class)
+			.setParameter("ids", sessionIds)
+			.getResultList();
+		Map<Long, Integer> pointsByTopic = new TreeMap<>();
+		for (Object[] row : rows) {
+			int points = StudySession.masteryPoints((Integer) row[2], (Integer) row[1]);
+			pointsByTopic.merge((Long) row[0], points, Integer::sum);
+		}
+		return pointsByTopic;
+	}
+	
+	@Override
+	public List<StudySession> findByIds(Collection<Long> ids) {
+		if (ids.isEmpty()) return List.of();
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("SELECT DISTINCT s FROM StudySession s LEFT JOIN FETCH s.topicList WHERE s.id IN :ids ORDER BY s.date, s.id",
+				StudySession.class)
+			.setParameter("ids", ids)
+			.getResultList();
+	}
+	
 	@Override
 	public void save(StudySession session) {
 		EntityManager em = tm.getCurrentEntityManager();
@@ -64,6 +213,17 @@ public class StudySessionRepository implements StudySessionRepositoryInterface {
 		em.persist(session);
 	}
 	
+	@Override
+	public void flush() {
+		EntityManager em = tm.getCurrentEntityManager();
+		try {
+			em.flush();
+		} catch (ConstraintViolationException e) {
+			if (e.getKind() != ConstraintKind.UNIQUE) throw e;
+			throw new IllegalArgumentException("esiste già una session con questi valori");
+		}
+	}
+	
 	@Override
 	public void update(StudySession session) {
 		EntityManager em = tm.getCurrentEntityManager();
@@ -82,4 +242,13 @@ public class StudySessionRepository implements StudySessionRepositoryInterface {
 		}
 		em.remove(session);
 	}
+	
+	@Override
+	public int deleteByIds(Collection<Long> ids) {
+		if (ids.isEmpty()) return 0;
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("DELETE FROM StudySession s WHERE s.id IN :ids")
+			.setParameter("ids", ids)
+			.executeUpdate();
+	}
 }
\ No newline at end of file
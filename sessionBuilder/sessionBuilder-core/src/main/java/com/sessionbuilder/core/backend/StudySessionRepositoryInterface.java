@@ -1,7 +1,10 @@
 package com.sessionbuilder.core.backend;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface StudySessionRepositoryInterface {
 
@@ -10,5 +13,16 @@ public interface StudySessionRepositoryInterface {
 	void save(StudySession session);
 	void update(StudySession session);
 	void delete(long id);
+	int deleteByIds(Collection<Long> ids);
+	void flush();
 	List<StudySession> findAll();
+	List<StudySession> findAll(FetchPlan plan);
+	List<StudySession> findPageAfter(LocalDate afterDate, long afterId, int limit, FetchPlan plan);
+	Stream<StudySession> streamAll(int fetchSize);
+	List<StudySession> findByNotesAndDates(Collection<String> notes, Collection<LocalDate> dates);
+	void saveTopicLinks(Map<Long, List<Long>> topicIdsBySession);
+	int markComplete(long sessionId);
+	int markComplete(Collection<Long> sessionIds);
+	Map<Long, Integer> findMasteryAwards(Collection<Long> sessionIds);
+	List<StudySession> findByIds(Collection<Long> ids);
 }
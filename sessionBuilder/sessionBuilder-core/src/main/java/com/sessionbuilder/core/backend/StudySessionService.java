@@ -2,18 +2,32 @@ package com.sessionbuilder.core.backend;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import com.google.inject.Inject;
 
+
 public class StudySessionService implements StudySessionInterface {
 	
 	private static final String NULL_SESSION_MESSAGE = "la sessione passata è null";
+	private static final String COMPLETED_SESSION_MESSAGE = "la sessione è già stata completata";
+	static final int DEFAULT_CHUNK_SIZE = 1000;
+	static final int DEFAULT_FETCH_SIZE = 500;
+	
 	@Inject
 	private TransactionManager tm;
 
 	public StudySession getSessionById(long id) {
-		return tm.doInSessionTransaction(sessionRepository -> {
+		return tm.doInReadOnlySessionTransaction(sessionRepository -> {
 			StudySession session = sessionRepository.findById(id);
 			if(session == null) throw new IllegalArgumentException("non esiste una session con tale id");
 			return session;
@@ -22,14 +36,44 @@ public class StudySessionService implements StudySessionInterface {
 	
 	@Override
 	public List<StudySession> getAllSessions() {
-		return tm.doInSessionTransaction(sessionRepository -> {
+		return getAllSessions(FetchPlan.WITH_ASSOCIATIONS);
+	}
+	
+	@Override
+	public List<StudySession> getAllSessions(FetchPlan plan) {
+		return tm.doInReadOnlySessionTransaction(sessionRepository -> {
 			try {
-				return sessionRepository.findAll();
+				return sessionRepository.findAll(plan);
 			} catch(Exception e) {
 				throw new IllegalArgumentException("Errore durante il caricamento delle session");
 			}
 		});
 	}
+	
+	@Override
+	public Page<StudySession> getSessionsPage(LocalDate afterDate, long afterId, int pageSize, FetchPlan plan) {
+		if (pageSize <= 0) throw new IllegalArgumentException("la dimensione della pagina deve essere positiva");
+		return tm.doInReadOnlySessionTransaction(sessionRepository -> {
+			List<StudySession> sessions = sessionRepository.findPageAfter(afterDate, afterId, pageSize + 1, plan);
+			boolean hasNext = sessions.size() > pageSize;
+			return new Page<>(hasNext ? sessions.subList(0, pageSize) : sessions, hasNext);
+		});
+	}
+	
+	@Override
+	public <R> R streamAllSessions(Function<Stream<StudySession>, R> reader) {
+		return streamAllSessions(DEFAULT_FETCH_SIZE, reader);
+	}
+	
+	@Override
+	public <R> R streamAllSessions(int fetchSize, Function<Stream<StudySession>, R> reader) {
+		if (fetchSize <= 0) throw new IllegalArgumentException("la fetch size deve essere positiva");
+		return tm.doInReadOnlySessionTransaction(sessionRepository -> {
+			try (Stream<StudySession> rows = sessionRepository.streamAll(fetchSize)) {
+				return reader.apply(rows);
+			}
+		});
+	}
 
 	@Override
 	public StudySession createSession(LocalDate date, int duration, String note, List<Long> topicIds) {
@@ -49,6 +93,7 @@ public class StudySessionService implements StudySessionInterface {
 			}
 			StudySession session = new StudySession(date, duration, note, managedTopics);
 			context.getSessionRepository().save(session);
+			context.getSessionRepository().flush();
 			
 			return session;
 		});
@@ -57,11 +102,31 @@ public class StudySessionService implements StudySessionInterface {
 	@Override
 	public StudySession completeSession(long sessionId) {
 		return tm.doInMultiRepositoryTransaction(context ->{
-			StudySession session = context.getSessionRepository().findById(sessionId);
+			StudySessionRepositoryInterface sessionRepository = context.getSessionRepository();
+			StudySession session = sessionRepository.findById(sessionId);
 			if(session == null) throw new IllegalArgumentException(NULL_SESSION_MESSAGE);
-			session.complete();
-			context.getSessionRepository().update(session);
-			return session;
+			if(session.isComplete() || sessionRepository.markComplete(sessionId) == 0) {
+				throw new IllegalArgumentException(COMPLETED_SESSION_MESSAGE);
+			}
+			context.getTopicRepository().awardMastery(sessionId, session.getDuration());
+			tm.getCurrentEntityManager().clear();
+			return sessionRepository.findById(sessionId);
+		});
+	}
+	
+	@Override
+	public List<StudySession> completeSessions(Collection<Long> sessionIds) {
+		if (sessionIds == null) throw new IllegalArgumentException("la lista delle sessioni è null");
+		Set<Long> ids = new LinkedHashSet<>(sessionIds);
+		if (ids.isEmpty()) return List.of();
+		return tm.doInMultiRepositoryTransaction(context -> {
+			StudySessionRepositoryInterface sessionRepository = context.getSessionRepository();
+			if (sessionRepository.markComplete(ids) != ids.size()) {
+				throw new IllegalArgumentException("alcune sessioni non esistono o sono già state completate");
+			}
+			context.getTopicRepository().awardMastery(sessionRepository.findMasteryAwards(ids));
+			tm.getCurrentEntityManager().clear();
+			return sessionRepository.findByIds(ids);
 		});
 	}
 
@@ -95,16 +160,85 @@ public class StudySessionService implements StudySessionInterface {
 	
 	@Override
 	public void deleteSession(long sessionId) {
-		tm.doInMultiRepositoryTransaction(context -> {
-			StudySession session = context.getSessionRepository().findById(sessionId);
-			if(session == null) throw new IllegalArgumentException("la sessione da rimuovere è null");
-			List<Topic> topicsToRemoveFrom = new ArrayList<>(session.getTopicList());
-			for (Topic topic : topicsToRemoveFrom) {
-				topic.getSessionList().remove(session);
-				context.getTopicRepository().update(topic);
-			}
-			context.getSessionRepository().delete(sessionId);
+		tm.doInSessionTransaction(sessionRepository -> {
+			if(sessionRepository.deleteByIds(List.of(sessionId)) == 0) throw new IllegalArgumentException("la sessione da rimuovere è null");
 			return null;
 		});
 	}
+	
+	@Override
+	public int deleteSessions(Collection<Long> sessionIds) {
+		if (sessionIds == null) throw new IllegalArgumentException("la lista delle sessioni è null");
+		Set<Long> ids = new LinkedHashSet<>(sessionIds);
+		if (ids.isEmpty()) return 0;
+		return tm.doInSessionTransaction(sessionRepository -> {
+			int deleted = sessionRepository.deleteByIds(ids);
+			if (deleted != ids.size()) throw new IllegalArgumentException("alcune sessioni da rimuovere non esistono");
+			return deleted;
+		});
+	}
+	
+	@Override
+	public int bulkCreateSessions(Stream<SessionSpec> specs) {
+		return bulkCreateSessions(specs, DEFAULT_CHUNK_SIZE);
+	}
+	
+	@Override
+	public int bulkCreateSessions(Stream<SessionSpec> specs, int chunkSize) {
+		if (chunkSize <= 0) throw new IllegalArgumentException("la dimensione del chunk deve essere positiva");
+		int created = 0;
+		List<SessionSpec> chunk = new ArrayList<>(chunkSize);
+		Iterator<SessionSpec> iterator = specs.iterator();
+		while (iterator.hasNext()) {
+			chunk.add(iterator.next());
+			if (chunk.size() == chunkSize || !iterator.hasNext()) {
+				created += createSessionChunk(chunk);
+				chunk.clear();
+			}
+		}
+		return created;
+	}
+	
+	private int createSessionChunk(List<SessionSpec> chunk) {
+		return tm.doInMultiRepositoryTransaction(context -> {
+			StudySessionRepositoryInterface sessionRepository = context.getSessionRepository();
+			Set<Long> topicIds = new HashSet<>();
+			Set<String> notes = new HashSet<>();
+			Set<LocalDate> dates = new HashSet<>();
+			for (SessionSpec spec : chunk) {
+				if (spec.topicIds() == null) {
+					throw new IllegalArgumentException("la session deve avere almeno un topic");
+				}
+				topicIds.addAll(spec.topicIds());
+				notes.add(spec.note());
+				dates.add(spec.date());
+			}
+			Set<Long> existingTopicIds = context.getTopicRepository().findExistingIds(topicIds);
+			for (Long topicId : topicIds) {
+				if (!existingTopicIds.contains(topicId)) {
+					throw new IllegalArgumentException("non esiste un topic con id " + topicId);
+				}
+			}
+			
+			Set<SessionKey> knownSessions = new HashSet<>();
+			for (StudySession existing : sessionRepository.findByNotesAndDates(notes, dates)) {
+				knownSessions.add(new SessionKey(existing.getDate(), existing.getDuration(), existing.getNote()));
+			}
+			Map<Long, List<Long>> topicIdsBySession = new LinkedHashMap<>();
+			for (SessionSpec spec : chunk) {
+				if (knownSessions.add(new SessionKey(spec.date(), spec.duration(), spec.note()))) {
+					StudySession session = new StudySession(spec.date(), spec.duration(), spec.note(), new ArrayList<>());
+					sessionRepository.save(session);
+					topicIdsBySession.put(session.getId(), new ArrayList<>(new LinkedHashSet<>(spec.topicIds())));
+				}
+			}
+			sessionRepository.flush();
+			sessionRepository.saveTopicLinks(topicIdsBySession);
+			tm.getCurrentEntityManager().clear();
+			return topicIdsBySession.size();
+		});
+	}
+	
+	private record SessionKey(LocalDate date, int duration, String note) {
+	}
 }
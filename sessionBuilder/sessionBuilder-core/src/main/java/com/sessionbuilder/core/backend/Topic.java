@@ -1,47 +1,80 @@
 package com.sessionbuilder.core.backend;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_topic_name_description_difficulty", columnNames = {"name", "description", "difficulty"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "topic")
 public class Topic {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "topic_seq")
+	@SequenceGenerator(name = "topic_seq", sequenceName = "topic_seq", allocationSize = 50)
 	private long id;
 	
+	@Version
+	private long version;
+	
+	// chiave assegnata dal costruttore di dominio: non cambia col persist, quindi regge l'hash dei set di associazione;
+	// il costruttore vuoto usato da Hibernate non la genera, perché viene comunque letta dalla riga
+	@Column(nullable = false, updatable = false)
+	private UUID uuid;
+	
 	private String name;
 	private String description;
 	private int difficulty;
 
-	@ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+	@OptimisticLock(excluded = true)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "topic-sessions")
+	@ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
 	@JoinTable(
 			name = "Topic_StudySession",
 			joinColumns = @JoinColumn(name = "topic_id"),
-			inverseJoinColumns = @JoinColumn(name = "session_id")
+			inverseJoinColumns = @JoinColumn(name = "session_id"),
+			indexes = @Index(name = "idx_topic_studysession_session", columnList = "session_id")
 	)
-	private List<StudySession> sessionList = new ArrayList<>();
+	@OrderBy("id")
+	private Set<StudySession> sessionList = new LinkedHashSet<>();
 	
 	private int masteryLevel = 0;
 
-	public Topic(String name, String description, int difficulty, List<StudySession> sessionList) {
+	public Topic(String name, String description, int difficulty, Collection<StudySession> sessionList) {
 		if(name == null) throw new IllegalArgumentException("il nome non può essere null");
+		this.uuid = UUID.randomUUID();
 		this.name = name;
 		this.description = description;
 		if(difficulty <= 0 || difficulty > 5) throw new IllegalArgumentException("la difficulty deve essere positiva e minore di 5");
 		this.difficulty = difficulty;
-		this.sessionList = sessionList;
+		this.sessionList = sessionList == null ? new LinkedHashSet<>() : new LinkedHashSet<>(sessionList);
 	}
 	
 	public Topic() {}
@@ -53,6 +86,9 @@ public class Topic {
 	public long getId() {
 		return id; 
 	}
+	public long getVersion() {
+		return version;
+	}
 	public String getName() {
 		return this.name;
 	}
@@ -62,7 +98,7 @@ public class Topic {
 	public int getDifficulty() {
 		return this.difficulty;
 	}
-	public List<StudySession> getSessionList(){
+	public Set<StudySession> getSessionList(){
 		return this.sessionList;
 	}
 	public int getMasteryLevel() {
@@ -71,8 +107,8 @@ public class Topic {
 	
 	
 	
-	public void setSessions(List<StudySession> arrayList) {
-		this.sessionList = arrayList;
+	public void setSessions(Collection<StudySession> sessions) {
+		this.sessionList = sessions == null ? null : new LinkedHashSet<>(sessions);
 	}
 	public void setMasteryLevel(int level) {
 		this.masteryLevel = level;
@@ -81,18 +117,13 @@ public class Topic {
 	public void addSession(StudySession session) {
 		if(session == null) throw new IllegalArgumentException("la sessione non può essere nulla");
 		this.sessionList.add(session);
-		if(!session.getTopicList().contains(this)) {
-			session.getTopicList().add(this);
-		}
+		session.getTopicList().add(this);
 	}
 	
 	public void removeSession(StudySession session) {
 		if(session == null) throw new IllegalArgumentException("la sessione da rimuovere è null");
-		if(!this.sessionList.contains(session)) throw new IllegalArgumentException("sessione da rimuovere non trovata");
-		this.sessionList.remove(session);
-		if (session.getTopicList().contains(this)) {
-			session.getTopicList().remove(this);
-		}
+		if(!this.sessionList.remove(session)) throw new IllegalArgumentException("sessione da rimuovere non trovata");
+		session.getTopicList().remove(this);
 	}
 	
 	public int totalTime() {
@@ -119,22 +150,30 @@ public class Topic {
 		else this.masteryLevel -= points;
 	}
 	
+	@PrePersist
+	void assignUuid() {
+		if(this.uuid == null) this.uuid = UUID.randomUUID();
+	}
+	
 	@Override
 	public boolean equals(Object obj) {
 		if(this == obj) return true;
 		if(obj == null || getClass() != obj.getClass()) return false;
 		Topic other = (Topic) obj;
-		return this.id > 0 && Objects.equals(this.id, other.id) ;
+		return this.uuid != null && this.uuid.equals(other.uuid);
 	}
 	
 	@Override
 	public int hashCode() {
-		return Objects.hash(id);
+		return Objects.hashCode(uuid);
 	}
 	
 	@Override
 	public String toString() {
-		int sessionCount = sessionList != null ? sessionList.size() : 0;
+		// la collezione è LAZY: su un'entità staccata non si può contare senza LazyInitializationException
+		String sessionCount;
+		if(!Hibernate.isInitialized(sessionList)) sessionCount = "non caricate";
+		else sessionCount = String.valueOf(sessionList != null ? sessionList.size() : 0);
 		return "Topic( name: "+ name + ", description: "+ description + ", difficulty: " + difficulty + ", numSessions: " + sessionCount +")";
 	}
 
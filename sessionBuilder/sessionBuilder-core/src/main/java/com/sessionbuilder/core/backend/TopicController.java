@@ -1,6 +1,8 @@
 package com.sessionbuilder.core.backend;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import com.google.inject.Inject;
 
 public class TopicController {
@@ -39,10 +41,20 @@ public class TopicController {
 		}
 	}
 	
+	public Page<Topic> handleGetTopicsPage(long afterId, int pageSize) {
+		try {
+			return service.getTopicsPage(afterId, pageSize, FetchPlan.WITH_ASSOCIATIONS);
+		} catch(Exception e) {
+			if(viewCallback != null) {
+				viewCallback.onTopicError("Errore nel caricamento dei topic");
+			}
+			throw e;
+		}
+	}
+	
 	
-	public Topic handleCreateTopic(String name, String description, int difficulty, List<StudySession> sessionList) {
+	public Topic handleCreateTopic(String name, String description, int difficulty, List<Long> sessionIds) {
 		try {
-			List<Long> sessionIds = sessionList.stream().map(StudySession::getId).toList();
 			Topic topic = service.createTopic(name, description, difficulty, sessionIds);
 			if (viewCallback != null) {
 				viewCallback.onTopicAdded(topic);
@@ -122,6 +134,28 @@ public class TopicController {
 		}
 	}
 
+	public Map<Long, TopicStats> handleGetAllTopicStats() {
+		try {
+			return service.getTopicStats();
+		} catch(Exception e) {
+			if(viewCallback != null) {
+				viewCallback.onTopicError("Errore nel calcolo delle statistiche dei topic");
+			}
+			throw e;
+		}
+	}
+	
+	public Map<Long, TopicStats> handleGetTopicStats(Collection<Long> topicIds) {
+		try {
+			return service.getTopicStats(topicIds);
+		} catch(Exception e) {
+			if(viewCallback != null) {
+				viewCallback.onTopicError("Errore nel calcolo delle statistiche dei topic");
+			}
+			throw e;
+		}
+	}
+
 	public TopicViewCallback getViewCallback() {
 		return viewCallback;
 	}
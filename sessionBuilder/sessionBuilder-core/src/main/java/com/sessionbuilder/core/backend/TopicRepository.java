@@ -1,12 +1,34 @@
 package com.sessionbuilder.core.backend;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.hibernate.jpa.HibernateHints;
+
 import com.google.inject.Inject;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
+import jakarta.persistence.Query;
 
 public class TopicRepository implements TopicRepositoryInterface{
 
+	private static final String STATS_SELECT = "SELECT new com.sessionbuilder.core.backend.TopicStats("
+		+ "t.id, COALESCE(SUM(s.duration), 0), SUM(CASE WHEN s.isComplete = true THEN 1 ELSE 0 END), COUNT(s), t.masteryLevel) "
+		+ "FROM Topic t LEFT JOIN t.sessionList s";
+	private static final String STATS_GROUP_BY = " GROUP BY t.id, t.masteryLevel";
+	private static final String AWARD_MASTERY = "UPDATE Topic t SET t.masteryLevel = t.masteryLevel + CASE t.difficulty "
+		+ "WHEN 5 THEN :points5 WHEN 4 THEN :points4 WHEN 3 THEN :points3 WHEN 2 THEN :points2 ELSE :points1 END, "
+		+ "t.version = t.version + 1 "
+		+ "WHERE t.id IN (SELECT topic.id FROM StudySession s JOIN s.topicList topic WHERE s.id = :sessionId)";
+
 	private TransactionManager tm;
 	
 	@Inject
@@ -17,15 +39,12 @@ public class TopicRepository implements TopicRepositoryInterface{
 	@Override
 	public Topic findById(long id) {
 		EntityManager em = tm.getCurrentEntityManager();
-		try {
-			return em.createQuery(
-				"SELECT t FROM Topic t LEFT JOIN FETCH t.sessionList WHERE t.id = :id", 
-				Topic.class)
-				.setParameter("id", id)
-				.getSingleResult();
-		} catch (NoResultException e) {
+		Topic topic = em.find(Topic.class, id);
+		if (topic == null) {
 			throw new IllegalArgumentException("non esiste un topic con tale id");
 		}
+		Hibernate.initialize(topic.getSessionList());
+		return topic;
 	}
 	
 	@Override
@@ -48,14 +67,127 @@ public class TopicRepository implements TopicRepositoryInterface{
 	
 	@Override
 	public List<Topic> findAll() {
+		return findAll(FetchPlan.SUMMARY);
+	}
+	
+	@Override
+	public List<Topic> findAll(FetchPlan plan) {
 		EntityManager em = tm.getCurrentEntityManager();
+		String jpql = plan == FetchPlan.WITH_ASSOCIATIONS
+			? "SELECT t FROM Topic t LEFT JOIN FETCH t.sessionList"
+			: "SELECT t FROM Topic t";
 		try {
-			return em.createQuery("SELECT t FROM Topic t", Topic.class).getResultList();
+			return em.createQuery(jpql, Topic.class).getResultList();
 		} catch(Exception e) {
 			throw new IllegalArgumentException("erorre nell'estrazione dei topic");
 		}
 	}
 
+	@Override
+	public List<Topic> findPageAfter(long afterId, int limit, FetchPlan plan) {
+		EntityManager em = tm.getCurrentEntityManager();
+		List<Topic> page = em.createQuery("SELECT t FROM Topic t WHERE t.id > :afterId ORDER BY t.id", Topic.class)
+			.setParameter("afterId", afterId)
+			.setMaxResults(limit)
+			.getResultList();
+		if (plan == FetchPlan.WITH_ASSOCIATIONS && !page.isEmpty()) {
+			em.createQuery("SELECT DISTINCT t FROM Topic t LEFT JOIN FETCH t.sessionList WHERE t.id IN :ids", Topic.class)
+				.setParameter("ids", page.stream().map(Topic::getId).toList())
+				.getResultList();
+		}
+		return page;
+	}
+
+	@Override
+	public Stream<Topic> streamAll(int fetchSize) {
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("SELECT t FROM Topic t", Topic.class)
+			.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+			.setHint(HibernateHints.HINT_READ_ONLY, true)
+			.getResultStream()
+			.map(topic -> {
+				em.detach(topic);
+				return topic;
+			});
+	}
+
+	@Override
+	public TopicStats findStats(long topicId) {
+		EntityManager em = tm.getCurrentEntityManager();
+		List<TopicStats> stats = em.createQuery(STATS_SELECT + " WHERE t.id = :id" + STATS_GROUP_BY, TopicStats.class)
+			.setParameter("id", topicId)
+			.getResultList();
+		return stats.isEmpty() ? null : stats.get(0);
+	}
+	
+	@Override
+	public List<TopicStats> findStats(Collection<Long> topicIds) {
+		if (topicIds.isEmpty()) return List.of();
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery(STATS_SELECT + " WHERE t.id IN :ids" + STATS_GROUP_BY + " ORDER BY t.id", TopicStats.class)
+			.setParameter("ids", topicIds)
+			.getResultList();
+	}
+	
+	@Override
+	public List<TopicStats> findAllStats() {
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery(STATS_SELECT + STATS_GROUP_BY + " ORDER BY t.id", TopicStats.class)
+			.getResultList();
+	}
+
+	@Override
+	public List<Topic> findByNames(Collection<String> names) {
+		if (names.isEmpty()) return List.of();
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("SELECT t FROM Topic t WHERE t.name IN :names", Topic.class)
+			.setParameter("names", names)
+			.getResultList();
+	}
+	
+	@Override
+	public Set<Long> findExistingIds(Collection<Long> ids) {
+		if (ids.isEmpty()) return Set.of();
+		EntityManager em = tm.getCurrentEntityManager();
+		return new HashSet<>(em.createQuery("SELECT t.id FROM Topic t WHERE t.id IN :ids", Long.class)
+			.setParameter("ids", ids)
+			.getResultList());
+	}
+
+	@Override
+	public int awardMastery(long sessionId, int duration) {
+		EntityManager em = tm.getCurrentEntityManager();
+		Query query = em.createQuery(AWARD_MASTERY).setParameter("sessionId", sessionId);
+		for (int difficulty = 1; difficulty <= 5; difficulty++) {
+			query.setParameter("points" + difficulty, StudySession.masteryPoints(duration, difficulty));
+		}
+		return query.executeUpdate();
+	}
+	
+	@Override
+	public void awardMastery(Map<Long, Integer> pointsByTopic) {
+		if (pointsByTopic.isEmpty()) return;
+		Map<Integer, List<Long>> topicsByPoints = new TreeMap<>();
+		for (Map.Entry<Long, Integer> entry : new TreeMap<>(pointsByTopic).entrySet()) {
+			topicsByPoints.computeIfAbsent(entry.getValue(), points -> new ArrayList<>()).add(entry.getKey());
+		}
+		// un solo UPDATE HQL: è Hibernate a invalidare la regione di Topic al commit
+		StringBuilder hql = new StringBuilder("UPDATE Topic t SET t.masteryLevel = t.masteryLevel + CASE");
+		for (int branch = 0; branch < topicsByPoints.size(); branch++) {
+			hql.append(" WHEN t.id IN :ids").append(branch).append(" THEN :points").append(branch);
+		}
+		hql.append(" ELSE 0 END, t.version = t.version + 1 WHERE t.id IN :ids");
+		EntityManager em = tm.getCurrentEntityManager();
+		Query query = em.createQuery(hql.toString()).setParameter("ids", pointsByTopic.keySet());
+		int branch = 0;
+		for (Map.Entry<Integer, List<Long>> entry : topicsByPoints.entrySet()) {
+			query.setParameter("ids" + branch, entry.getValue());
+			query.setParameter("points" + branch, entry.getKey());
+			branch++;
+		}
+		query.executeUpdate();
+	}
+
 	@Override
 	public void save(Topic topic) {
 		EntityManager em = tm.getCurrentEntityManager();
@@ -65,6 +197,17 @@ public class TopicRepository implements TopicRepositoryInterface{
 		em.persist(topic);
 	}
 
+	@Override
+	public void flush() {
+		EntityManager em = tm.getCurrentEntityManager();
+		try {
+			em.flush();
+		} catch (ConstraintViolationException e) {
+			if (e.getKind() != ConstraintKind.UNIQUE) throw e;
+			throw new IllegalArgumentException("Esiste già un topic con questi valori");
+		}
+	}
+
 	@Override
 	public void update(Topic topic) {
 		EntityManager em = tm.getCurrentEntityManager();
@@ -83,4 +226,13 @@ public class TopicRepository implements TopicRepositoryInterface{
 		}
 		em.remove(result);
 	}
+	
+	@Override
+	public int deleteByIds(Collection<Long> ids) {
+		if (ids.isEmpty()) return 0;
+		EntityManager em = tm.getCurrentEntityManager();
+		return em.createQuery("DELETE FROM Topic t WHERE t.id IN :ids")
+			.setParameter("ids", ids)
+			.executeUpdate();
+	}
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.sessionbuilder.core.backend;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface TopicRepositoryInterface {
 	
@@ -8,6 +12,18 @@ public interface TopicRepositoryInterface {
 	void save(Topic topic);
 	void update(Topic topic);
 	void delete(long id);
+	int deleteByIds(Collection<Long> ids);
+	void flush();
 	Topic findByNameDescriptionAndDifficulty(String name, String description, int difficulty);
 	List<Topic> findAll();
+	List<Topic> findAll(FetchPlan plan);
+	List<Topic> findPageAfter(long afterId, int limit, FetchPlan plan);
+	Stream<Topic> streamAll(int fetchSize);
+	TopicStats findStats(long topicId);
+	List<TopicStats> findStats(Collection<Long> topicIds);
+	List<TopicStats> findAllStats();
+	List<Topic> findByNames(Collection<String> names);
+	Set<Long> findExistingIds(Collection<Long> ids);
+	int awardMastery(long sessionId, int duration);
+	void awardMastery(Map<Long, Integer> pointsByTopic);
 }
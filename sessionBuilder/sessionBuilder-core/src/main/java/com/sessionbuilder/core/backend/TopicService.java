@@ -2,7 +2,16 @@ package com.sessionbuilder.core.backend;
 
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import com.google.inject.Inject;
 
@@ -12,6 +21,8 @@ public class TopicService implements TopicServiceInterface {
 	private TransactionManager tm;
 	
 	private static final String TOPIC_EXCEPTION_MESSAGE = "il topic passato è null";
+	static final int DEFAULT_CHUNK_SIZE = 1000;
+	static final int DEFAULT_FETCH_SIZE = 500;
 
 	@Override
 	public Topic createTopic(String name, String description, int difficulty, List<Long> sessionIds) {
@@ -30,13 +41,14 @@ public class TopicService implements TopicServiceInterface {
 	            throw new IllegalArgumentException("Esiste già un topic con questi valori");
 	        
 	        topicRepo.save(newTopic);
+	        topicRepo.flush();
 	        return newTopic;
 	    });
 	}
 
 	@Override
 	public Topic getTopicById(long topicId) {
-		return tm.doInTopicTransaction(repository -> {
+		return tm.doInReadOnlyTopicTransaction(repository -> {
 			Topic topic = repository.findById(topicId);
 			if(topic == null) throw new IllegalArgumentException("il topic cercato non esiste");
 			return topic;
@@ -45,14 +57,44 @@ public class TopicService implements TopicServiceInterface {
 	
 	@Override
 	public List<Topic> getAllTopics() {
-		return tm.doInTopicTransaction(repository -> {
+		return getAllTopics(FetchPlan.WITH_ASSOCIATIONS);
+	}
+	
+	@Override
+	public List<Topic> getAllTopics(FetchPlan plan) {
+		return tm.doInReadOnlyTopicTransaction(repository -> {
 			try {
-				return repository.findAll();
+				return repository.findAll(plan);
 			} catch (Exception e) {
 				throw new IllegalArgumentException("Errore durante il caricamento dei topic");
 			}
 		 });
 	}
+	
+	@Override
+	public Page<Topic> getTopicsPage(long afterId, int pageSize, FetchPlan plan) {
+		if (pageSize <= 0) throw new IllegalArgumentException("la dimensione della pagina deve essere positiva");
+		return tm.doInReadOnlyTopicTransaction(repository -> {
+			List<Topic> topics = repository.findPageAfter(afterId, pageSize + 1, plan);
+			boolean hasNext = topics.size() > pageSize;
+			return new Page<>(hasNext ? topics.subList(0, pageSize) : topics, hasNext);
+		});
+	}
+	
+	@Override
+	public <R> R streamAllTopics(Function<Stream<Topic>, R> reader) {
+		return streamAllTopics(DEFAULT_FETCH_SIZE, reader);
+	}
+	
+	@Override
+	public <R> R streamAllTopics(int fetchSize, Function<Stream<Topic>, R> reader) {
+		if (fetchSize <= 0) throw new IllegalArgumentException("la fetch size deve essere positiva");
+		return tm.doInReadOnlyTopicTransaction(repository -> {
+			try (Stream<Topic> rows = repository.streamAll(fetchSize)) {
+				return reader.apply(rows);
+			}
+		});
+	}
 
 
 	@Override
@@ -85,33 +127,103 @@ public class TopicService implements TopicServiceInterface {
 	@Override
 	public void deleteTopic(long topicId) {
 		tm.doInTopicTransaction(repository -> {
-			Topic topic = repository.findById(topicId);
-			if(topic == null) throw new IllegalArgumentException(TOPIC_EXCEPTION_MESSAGE);
-			repository.delete(topicId);
+			if(repository.deleteByIds(List.of(topicId)) == 0) throw new IllegalArgumentException(TOPIC_EXCEPTION_MESSAGE);
 			return null;
 		});
 	}
+	
+	@Override
+	public int deleteTopics(Collection<Long> topicIds) {
+		if(topicIds == null) throw new IllegalArgumentException("la lista dei topic è null");
+		Set<Long> ids = new LinkedHashSet<>(topicIds);
+		if(ids.isEmpty()) return 0;
+		return tm.doInTopicTransaction(repository -> {
+			int deleted = repository.deleteByIds(ids);
+			if(deleted != ids.size()) throw new IllegalArgumentException("alcuni topic da rimuovere non esistono");
+			return deleted;
+		});
+	}
 
 
 	@Override
 	public int calculateTotalTime(long topicId) {
-		return tm.doInTopicTransaction(repository -> {
-			Topic topic = repository.findById(topicId);
-			if(topic == null) throw new IllegalArgumentException(TOPIC_EXCEPTION_MESSAGE);
-			return topic.totalTime();
+		return tm.doInReadOnlyTopicTransaction(repository -> {
+			TopicStats stats = repository.findStats(topicId);
+			if(stats == null) throw new IllegalArgumentException(TOPIC_EXCEPTION_MESSAGE);
+			return (int) stats.totalTime();
 		});
 	}
 
 	@Override
 	public int calculatePercentageOfCompletion(long topicId) {
-		return tm.doInTopicTransaction(repository -> {
-			Topic topic = repository.findById(topicId);
-			if(topic == null) throw new IllegalArgumentException(TOPIC_EXCEPTION_MESSAGE);
-			return topic.percentageOfCompletion();
+		return tm.doInReadOnlyTopicTransaction(repository -> {
+			TopicStats stats = repository.findStats(topicId);
+			if(stats == null) throw new IllegalArgumentException(TOPIC_EXCEPTION_MESSAGE);
+			return stats.percentageOfCompletion();
 		});	
 	}
-
 	
+	@Override
+	public Map<Long, TopicStats> getTopicStats() {
+		return tm.doInReadOnlyTopicTransaction(repository -> indexStats(repository.findAllStats()));
+	}
 	
-
+	@Override
+	public Map<Long, TopicStats> getTopicStats(Collection<Long> topicIds) {
+		if(topicIds == null) throw new IllegalArgumentException("la lista degli id dei topic è null");
+		return tm.doInReadOnlyTopicTransaction(repository -> indexStats(repository.findStats(topicIds)));
+	}
+	
+	private Map<Long, TopicStats> indexStats(List<TopicStats> stats) {
+		Map<Long, TopicStats> statsByTopic = new LinkedHashMap<>();
+		for (TopicStats topicStats : stats) {
+			statsByTopic.put(topicStats.topicId(), topicStats);
+		}
+		return statsByTopic;
+	}
+	
+	@Override
+	public int bulkCreateTopics(Stream<TopicSpec> specs) {
+		return bulkCreateTopics(specs, DEFAULT_CHUNK_SIZE);
+	}
+	
+	@Override
+	public int bulkCreateTopics(Stream<TopicSpec> specs, int chunkSize) {
+		if (chunkSize <= 0) throw new IllegalArgumentException("la dimensione del chunk deve essere positiva");
+		int created = 0;
+		List<TopicSpec> chunk = new ArrayList<>(chunkSize);
+		Iterator<TopicSpec> iterator = specs.iterator();
+		while (iterator.hasNext()) {
+			chunk.add(iterator.next());
+			if (chunk.size() == chunkSize || !iterator.hasNext()) {
+				created += createTopicChunk(chunk);
+				chunk.clear();
+			}
+		}
+		return created;
+	}
+	
+	private int createTopicChunk(List<TopicSpec> chunk) {
+		return tm.doInTopicTransaction(repository -> {
+			Set<String> names = new HashSet<>();
+			for (TopicSpec spec : chunk) {
+				names.add(spec.name());
+			}
+			Set<TopicSpec> knownTopics = new HashSet<>();
+			for (Topic existing : repository.findByNames(names)) {
+				knownTopics.add(new TopicSpec(existing.getName(), existing.getDescription(), existing.getDifficulty()));
+			}
+			int created = 0;
+			for (TopicSpec spec : chunk) {
+				// il vincolo unique considera distinte le description null
+				if (spec.description() == null || knownTopics.add(spec)) {
+					repository.save(new Topic(spec.name(), spec.description(), spec.difficulty(), new ArrayList<>()));
+					created++;
+				}
+			}
+			repository.flush();
+			tm.getCurrentEntityManager().clear();
+			return created;
+		});
+	}
 }
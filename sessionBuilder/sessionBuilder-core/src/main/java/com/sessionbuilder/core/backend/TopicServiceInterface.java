@@ -1,15 +1,28 @@
 package com.sessionbuilder.core.backend;
 
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface TopicServiceInterface {
 	Topic createTopic(String name, String description, int difficulty, List<Long> sessionIds);
 	Topic getTopicById(long id);
 	List<Topic> getAllTopics();
+	List<Topic> getAllTopics(FetchPlan plan);
+	Page<Topic> getTopicsPage(long afterId, int pageSize, FetchPlan plan);
+	<R> R streamAllTopics(Function<Stream<Topic>, R> reader);
+	<R> R streamAllTopics(int fetchSize, Function<Stream<Topic>, R> reader);
 	void addSessionToTopic(long topicId, long sessionId);
 	void deleteTopic(long topicId);
+	int deleteTopics(Collection<Long> topicIds);
 	void removeSessionFromTopic(long topicId, long sessionId);
 	int calculateTotalTime(long topicId);
 	int calculatePercentageOfCompletion(long topicId);
+	Map<Long, TopicStats> getTopicStats();
+	Map<Long, TopicStats> getTopicStats(Collection<Long> topicIds);
+	int bulkCreateTopics(Stream<TopicSpec> specs);
+	int bulkCreateTopics(Stream<TopicSpec> specs, int chunkSize);
 }
@@ -0,0 +1,4 @@
+package com.sessionbuilder.core.backend;
+
+public record TopicSpec(String name, String description, int difficulty) {
+}
@@ -0,0 +1,9 @@
+package com.sessionbuilder.core.backend;
+
+public record TopicStats(long topicId, long totalTime, long completedSessions, long sessionCount, int masteryLevel) {
+	
+	public int percentageOfCompletion() {
+		if(sessionCount == 0) return 0;
+		return Math.round((float) completedSessions / sessionCount * 100);
+	}
+}
@@ -7,6 +7,12 @@ public interface TransactionManager{
 	<T> T doInSessionTransaction(StudySessionTransactionCode<T> code);
 	<T> T doInTopicTransaction(TopicTransactionCode<T> code);
 	<T> T doInMultiRepositoryTransaction(MultiRepositoryTransactionCode<T> code);
+	<T> T doInReadOnlyTransaction(TransactionCode<T> code);
+	<T> T doInReadOnlySessionTransaction(StudySessionTransactionCode<T> code);
+	<T> T doInReadOnlyTopicTransaction(TopicTransactionCode<T> code);
+	<T> T doInReadOnlyMultiRepositoryTransaction(MultiRepositoryTransactionCode<T> code);
 	EntityManager getCurrentEntityManager();
 	public ThreadLocal<EntityManager> getEmHolder();
+	long getRetryCount();
+	long getExhaustedRetryCount();
 }
@@ -4,22 +4,40 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
 import com.google.inject.Inject;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
 public class TransactionManagerImpl implements TransactionManager {
 
 	private static final ThreadLocal<EntityManager> emHolder = new ThreadLocal<>();
+	static final String POSTGRESQL_PRODUCT_NAME = "PostgreSQL";
+	static final String CONCURRENT_UPDATE_MESSAGE = "i dati sono stati modificati da un'altra operazione, riprovare";
 	private EntityManagerFactory emf;
 	private TopicRepositoryInterface topicRepository;
 	private StudySessionRepositoryInterface sessionRepository;
+	private RetryPolicy retryPolicy;
+	private final AtomicLong retryCount = new AtomicLong();
+	private final AtomicLong exhaustedRetryCount = new AtomicLong();
 
-	@Inject
 	public TransactionManagerImpl(EntityManagerFactory emf,
 			TopicRepositoryInterface topicRepository,
 			StudySessionRepositoryInterface sessionRepository) {
+		this(emf, topicRepository, sessionRepository, RetryPolicy.defaults());
+	}
+
+	@Inject
+	public TransactionManagerImpl(EntityManagerFactory emf,
+			TopicRepositoryInterface topicRepository,
+			StudySessionRepositoryInterface sessionRepository,
+			RetryPolicy retryPolicy) {
 		this.emf = emf;
 		this.topicRepository = topicRepository;
 		this.sessionRepository = sessionRepository;
+		this.retryPolicy = retryPolicy;
 	}
 	
 	@Override
@@ -36,16 +54,63 @@ public class TransactionManagerImpl implements TransactionManager {
 		return emHolder;
 	}
 
+	@Override
+	public long getRetryCount() {
+		return retryCount.get();
+	}
+
+	@Override
+	public long getExhaustedRetryCount() {
+		return exhaustedRetryCount.get();
+	}
+
 	private <T> T executeInTransaction(Supplier<T> supplier) {
+		return executeInTransaction(supplier, false);
+	}
+
+	private <T> T executeInTransaction(Supplier<T> supplier, boolean readOnly) {
 		if (emHolder.get() != null) {
 			return supplier.get();
 		}
 		
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return executeInNewTransaction(supplier, readOnly);
+			} catch (RuntimeException e) {
+				if (!retryPolicy.isRetryable(e)) {
+					throw e;
+				}
+				if (attempt >= retryPolicy.maxAttempts()) {
+					exhaustedRetryCount.incrementAndGet();
+					if (RetryPolicy.isOptimisticLockFailure(e)) {
+						throw new IllegalStateException(CONCURRENT_UPDATE_MESSAGE, e);
+					}
+					throw e;
+				}
+				retryCount.incrementAndGet();
+				backOff(attempt, e);
+			}
+		}
+	}
+
+	private void backOff(int attempt, RuntimeException failure) {
+		try {
+			Thread.sleep(retryPolicy.backoffMillis(attempt));
+		} catch (InterruptedException interrupted) {
+			Thread.currentThread().interrupt();
+			throw failure;
+		}
+	}
+
+	private <T> T executeInNewTransaction(Supplier<T> supplier, boolean readOnly) {
 		EntityManager em = emf.createEntityManager();
 		emHolder.set(em);
 		EntityTransaction transaction = em.getTransaction();
 		try {
 			transaction.begin();
+			if (readOnly) {
+				markReadOnly(em);
+			}
 			T result = supplier.get();
 			transaction.commit();
 			return result;
@@ -60,6 +125,19 @@ public class TransactionManagerImpl implements TransactionManager {
 		}
 	}
 
+	private void markReadOnly(EntityManager em) {
+		Session session = em.unwrap(Session.class);
+		session.setDefaultReadOnly(true);
+		session.setHibernateFlushMode(FlushMode.MANUAL);
+		session.doWork(connection -> {
+			if (POSTGRESQL_PRODUCT_NAME.equals(connection.getMetaData().getDatabaseProductName())) {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("SET TRANSACTION READ ONLY");
+				}
+			}
+		});
+	}
+
 	@Override
 	public <T> T doInTransaction(TransactionCode<T> code) {
 		return executeInTransaction(() -> code.apply(getCurrentEntityManager()));
@@ -77,18 +155,39 @@ public class TransactionManagerImpl implements TransactionManager {
 
 	@Override
 	public <T> T doInMultiRepositoryTransaction(MultiRepositoryTransactionCode<T> code) {
-		return executeInTransaction(() -> {
-			RepositoryContext context = new RepositoryContext() {
-				@Override
-				public TopicRepositoryInterface getTopicRepository() {
-					return topicRepository;
-				}
-				@Override
-				public StudySessionRepositoryInterface getSessionRepository() {
-					return sessionRepository;
-				}
-			};
-			return code.apply(context);
-		});
+		return executeInTransaction(() -> code.apply(repositoryContext()));
+	}
+
+	@Override
+	public <T> T doInReadOnlyTransaction(TransactionCode<T> code) {
+		return executeInTransaction(() -> code.apply(getCurrentEntityManager()), true);
+	}
+
+	@Override
+	public <T> T doInReadOnlyTopicTransaction(TopicTransactionCode<T> code) {
+		return executeInTransaction(() -> code.apply(topicRepository), true);
+	}
+
+	@Override
+	public <T> T doInReadOnlySessionTransaction(StudySessionTransactionCode<T> code) {
+		return executeInTransaction(() -> code.apply(sessionRepository), true);
+	}
+
+	@Override
+	public <T> T doInReadOnlyMultiRepositoryTransaction(MultiRepositoryTransactionCode<T> code) {
+		return executeInTransaction(() -> code.apply(repositoryContext()), true);
+	}
+
+	private RepositoryContext repositoryContext() {
+		return new RepositoryContext() {
+			@Override
+			public TopicRepositoryInterface getTopicRepository() {
+				return topicRepository;
+			}
+			@Override
+			public StudySessionRepositoryInterface getSessionRepository() {
+				return sessionRepository;
+			}
+		};
 	}
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.sessionbuilder.core.utils;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
+import com.sessionbuilder.core.backend.RetryPolicy;
 import com.sessionbuilder.core.backend.StudySessionInterface;
 import com.sessionbuilder.core.backend.StudySessionRepository;
 import com.sessionbuilder.core.backend.StudySessionRepositoryInterface;
@@ -16,21 +18,51 @@ import com.sessionbuilder.core.backend.TransactionManagerImpl;
 
 import jakarta.persistence.EntityManagerFactory;
 import java.util.Map;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
 
 public class AppModule extends AbstractModule {
 
+	public enum Stage { MIGRATIONS, PERSISTENCE }
+
 	private final String persistenceUnit;
 	private final Map<String, String> dbProperties;
+	private final ConnectionPoolSettings poolSettings;
+	private final RetryPolicy retryPolicy;
+	private Consumer<Stage> stageListener = stage -> {};
+	private boolean migrateSchema = true;
 
 	public AppModule(String persistenceUnit, Map<String, String> dbProperties) {
+		this(persistenceUnit, dbProperties, null);
+	}
+
+	public AppModule(String persistenceUnit, Map<String, String> dbProperties, ConnectionPoolSettings poolSettings) {
+		this(persistenceUnit, dbProperties, poolSettings, RetryPolicy.defaults());
+	}
+
+	public AppModule(String persistenceUnit, Map<String, String> dbProperties, ConnectionPoolSettings poolSettings, RetryPolicy retryPolicy) {
 		this.persistenceUnit = persistenceUnit;
 		this.dbProperties = dbProperties;
+		this.poolSettings = poolSettings;
+		this.retryPolicy = retryPolicy;
+	}
+
+	public AppModule onStage(Consumer<Stage> listener) {
+		this.stageListener = listener;
+		return this;
+	}
+
+	// le unità che generano lo schema con hbm2ddl (create, create-drop, update) non devono passare da Flyway
+	public AppModule migrateSchema(boolean migrate) {
+		this.migrateSchema = migrate;
+		return this;
 	}
 
 	@Override
 	public void configure() {
 		bind(StudySessionRepositoryInterface.class).to(StudySessionRepository.class).in(Singleton.class);
 		bind(TopicRepositoryInterface.class).to(TopicRepository.class).in(Singleton.class);
+		bind(RetryPolicy.class).toInstance(retryPolicy);
 		bind(TransactionManager.class).to(TransactionManagerImpl.class).in(Singleton.class);
 		bind(TopicServiceInterface.class).to(TopicService.class).in(Singleton.class);
 		bind(StudySessionInterface.class).to(StudySessionService.class).in(Singleton.class);
@@ -38,7 +70,28 @@ public class AppModule extends AbstractModule {
 
 	@Provides
 	@Singleton
-	EntityManagerFactory provideEntityManagerFactory() {
-		return EmfFactory.createEntityManagerFactory(this.persistenceUnit, this.dbProperties);
+	EntityManagerFactory provideEntityManagerFactory(Provider<DataSource> dataSource) {
+		if(this.poolSettings == null) {
+			if(this.migrateSchema) {
+				stageListener.accept(Stage.MIGRATIONS);
+				SchemaMigrator.migrate(this.dbProperties);
+			}
+			stageListener.accept(Stage.PERSISTENCE);
+			return EmfFactory.createEntityManagerFactory(this.persistenceUnit, this.dbProperties);
+		}
+		DataSource pooledDataSource = dataSource.get();
+		if(this.migrateSchema) {
+			stageListener.accept(Stage.MIGRATIONS);
+			SchemaMigrator.migrate(pooledDataSource);
+		}
+		stageListener.accept(Stage.PERSISTENCE);
+		return EmfFactory.createEntityManagerFactory(this.persistenceUnit, this.dbProperties, pooledDataSource);
+	}
+
+	@Provides
+	@Singleton
+	DataSource provideDataSource() {
+		if(this.poolSettings == null) throw new IllegalStateException("nessuna configurazione del pool di connessioni");
+		return DataSourceFactory.createDataSource(this.dbProperties, this.poolSettings);
 	}
 }
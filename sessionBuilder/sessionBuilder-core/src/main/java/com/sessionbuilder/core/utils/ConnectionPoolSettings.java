@@ -0,0 +1,29 @@
+package com.sessionbuilder.core.utils;
+
+public record ConnectionPoolSettings(
+	int maximumPoolSize,
+	int minimumIdle,
+	long idleTimeoutMillis,
+	long leakDetectionThresholdMillis,
+	int preparedStatementCacheSize
+) {
+	
+	public static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+	public static final int DEFAULT_MINIMUM_IDLE = 2;
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 600_000;
+	public static final long DEFAULT_LEAK_DETECTION_THRESHOLD_MILLIS = 0;
+	public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 256;
+	
+	public ConnectionPoolSettings {
+		if(maximumPoolSize <= 0) throw new IllegalArgumentException("la dimensione del pool deve essere positiva");
+		if(minimumIdle < 0 || minimumIdle > maximumPoolSize) throw new IllegalArgumentException("il numero minimo di connessioni inattive non è valido");
+		if(idleTimeoutMillis < 0) throw new IllegalArgumentException("il timeout di inattività non può essere negativo");
+		if(leakDetectionThresholdMillis < 0) throw new IllegalArgumentException("la soglia di leak detection non può essere negativa");
+		if(preparedStatementCacheSize < 0) throw new IllegalArgumentException("la cache dei prepared statement non può essere negativa");
+	}
+	
+	public static ConnectionPoolSettings defaults() {
+		return new ConnectionPoolSettings(DEFAULT_MAXIMUM_POOL_SIZE, DEFAULT_MINIMUM_IDLE, DEFAULT_IDLE_TIMEOUT_MILLIS,
+			DEFAULT_LEAK_DETECTION_THRESHOLD_MILLIS, DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
+	}
+}
@@ -0,0 +1,42 @@
+package com.sessionbuilder.core.utils;
+
+import java.util.Map;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+public class DataSourceFactory {
+	
+	static final String POOL_NAME = "sessionbuilder-pool";
+	static final String JDBC_DRIVER = "jakarta.persistence.jdbc.driver";
+	static final String JDBC_URL = "jakarta.persistence.jdbc.url";
+	static final String JDBC_USER = "jakarta.persistence.jdbc.user";
+	static final String JDBC_PASSWORD = "jakarta.persistence.jdbc.password";
+	
+	private DataSourceFactory() {}
+	
+	public static HikariDataSource createDataSource(Map<String, String> properties, ConnectionPoolSettings settings) {
+		return new HikariDataSource(createConfig(properties, settings));
+	}
+	
+	public static HikariConfig createConfig(Map<String, String> properties, ConnectionPoolSettings settings) {
+		String jdbcUrl = properties.get(JDBC_URL);
+		if(jdbcUrl == null) throw new IllegalArgumentException("l'url jdbc è null");
+		HikariConfig config = new HikariConfig();
+		config.setPoolName(POOL_NAME);
+		config.setJdbcUrl(jdbcUrl);
+		config.setUsername(properties.get(JDBC_USER));
+		config.setPassword(properties.get(JDBC_PASSWORD));
+		String driver = properties.get(JDBC_DRIVER);
+		if(driver != null) config.setDriverClassName(driver);
+		config.setAutoCommit(false);
+		config.setMaximumPoolSize(settings.maximumPoolSize());
+		config.setMinimumIdle(settings.minimumIdle());
+		config.setIdleTimeout(settings.idleTimeoutMillis());
+		config.setLeakDetectionThreshold(settings.leakDetectionThresholdMillis());
+		if(jdbcUrl.startsWith("jdbc:postgresql:")) {
+			config.addDataSourceProperty("preparedStatementCacheQueries", settings.preparedStatementCacheSize());
+		}
+		return config;
+	}
+}
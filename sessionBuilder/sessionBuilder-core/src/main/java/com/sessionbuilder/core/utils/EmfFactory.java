@@ -1,5 +1,8 @@
 package com.sessionbuilder.core.utils;
+import java.util.HashMap;
 import java.util.Map;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 
@@ -11,4 +14,17 @@ public class EmfFactory {
 	) {
 		return Persistence.createEntityManagerFactory(persistenceUnit, properties);
 	}
-}
\ No newline at end of file
+	
+	public static EntityManagerFactory createEntityManagerFactory(
+		String persistenceUnit,
+		Map<String,String> properties,
+		DataSource dataSource
+	) {
+		Map<String,Object> settings = new HashMap<>(properties);
+		settings.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+		settings.put(AvailableSettings.JAKARTA_JDBC_USER, null);
+		settings.put(AvailableSettings.JAKARTA_JDBC_PASSWORD, null);
+		settings.put(AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT, "true");
+		return Persistence.createEntityManagerFactory(persistenceUnit, settings);
+	}
+}
@@ -0,0 +1,37 @@
+package com.sessionbuilder.core.utils;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+
+public class SchemaMigrator {
+	
+	static final String LOCATION = "classpath:db/migration";
+	static final String BASELINE_VERSION = "1";
+	
+	private SchemaMigrator() {}
+	
+	public static int migrate(DataSource dataSource) {
+		return configure().dataSource(dataSource).load().migrate().migrationsExecuted;
+	}
+	
+	public static int migrate(Map<String, String> properties) {
+		return configure(properties).load().migrate().migrationsExecuted;
+	}
+	
+	public static FluentConfiguration configure(Map<String, String> properties) {
+		String jdbcUrl = properties.get(DataSourceFactory.JDBC_URL);
+		if(jdbcUrl == null) throw new IllegalArgumentException("l'url jdbc è null");
+		return configure().dataSource(jdbcUrl, properties.get(DataSourceFactory.JDBC_USER), properties.get(DataSourceFactory.JDBC_PASSWORD));
+	}
+	
+	static FluentConfiguration configure() {
+		return Flyway.configure(SchemaMigrator.class.getClassLoader())
+			.locations(LOCATION)
+			.baselineOnMigrate(true)
+			.baselineVersion(BASELINE_VERSION);
+	}
+}
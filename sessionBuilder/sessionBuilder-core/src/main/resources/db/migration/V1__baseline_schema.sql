@@ -0,0 +1,29 @@
+-- Schema as hbm2ddl created it before migrations were introduced: IDENTITY
+-- ids and a bag-mapped join table. Flyway runs this script only on an empty
+-- database; databases created by hbm2ddl are baselined at version 1 and
+-- continue from V2.
+
+CREATE TABLE topic (
+	id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+	name VARCHAR(255),
+	description VARCHAR(255),
+	difficulty INTEGER NOT NULL,
+	masterylevel INTEGER NOT NULL,
+	PRIMARY KEY (id)
+);
+
+CREATE TABLE studysession (
+	id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+	date DATE,
+	duration INTEGER NOT NULL,
+	note VARCHAR(255),
+	iscomplete BOOLEAN NOT NULL,
+	PRIMARY KEY (id)
+);
+
+CREATE TABLE topic_studysession (
+	topic_id BIGINT NOT NULL,
+	session_id BIGINT NOT NULL,
+	CONSTRAINT fk_topic_studysession_topic FOREIGN KEY (topic_id) REFERENCES topic (id),
+	CONSTRAINT fk_topic_studysession_session FOREIGN KEY (session_id) REFERENCES studysession (id)
+);
@@ -0,0 +1,18 @@
+-- Topic and StudySession ids move from IDENTITY columns to pooled sequences
+-- (allocationSize = 50 on the entities), so Hibernate can batch inserts.
+-- Every statement is safe to re-run on databases where hbm2ddl already
+-- created the sequences.
+
+CREATE SEQUENCE IF NOT EXISTS topic_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS studysession_seq START WITH 1 INCREMENT BY 50;
+
+-- the first block handed out by the pooled optimizer starts right after the current max id
+SELECT setval('topic_seq', COALESCE((SELECT MAX(id) FROM topic), 0) + 50, false);
+SELECT setval('studysession_seq', COALESCE((SELECT MAX(id) FROM studysession), 0) + 50, false);
+
+ALTER TABLE topic ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE studysession ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- plain SQL inserts keep working: each nextval lands on a block boundary that Hibernate never hands out
+ALTER TABLE topic ALTER COLUMN id SET DEFAULT nextval('topic_seq');
+ALTER TABLE studysession ALTER COLUMN id SET DEFAULT nextval('studysession_seq');
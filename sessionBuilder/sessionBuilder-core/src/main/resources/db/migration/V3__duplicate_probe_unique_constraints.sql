@@ -0,0 +1,66 @@
+-- The duplicate checks in createTopic/createSession are plain queries; these
+-- constraints keep them correct when two writers race.
+-- Rows that would violate them are merged first into the one with the lowest
+-- id: links move to the survivor, which keeps the highest mastery level and
+-- stays complete if any duplicate was. Rows with a NULL in the key are left
+-- alone, since the constraints treat NULLs as distinct.
+-- Databases where hbm2ddl already created the constraints are left as they are.
+
+CREATE TEMPORARY TABLE topic_duplicate AS
+	SELECT id, survivor FROM (
+		SELECT id, MIN(id) OVER (PARTITION BY name, description, difficulty) AS survivor
+		FROM topic
+		WHERE name IS NOT NULL AND description IS NOT NULL
+	) candidates
+	WHERE id <> survivor;
+
+UPDATE topic t SET masterylevel = merged.masterylevel
+	FROM (
+		SELECT d.survivor, MAX(dup.masterylevel) AS masterylevel
+		FROM topic_duplicate d JOIN topic dup ON dup.id = d.id
+		GROUP BY d.survivor
+	) merged
+	WHERE t.id = merged.survivor AND t.masterylevel < merged.masterylevel;
+
+INSERT INTO topic_studysession (topic_id, session_id)
+	SELECT DISTINCT d.survivor, l.session_id
+	FROM topic_studysession l JOIN topic_duplicate d ON l.topic_id = d.id
+	WHERE NOT EXISTS (SELECT 1 FROM topic_studysession e WHERE e.topic_id = d.survivor AND e.session_id = l.session_id);
+
+DELETE FROM topic_studysession l USING topic_duplicate d WHERE l.topic_id = d.id;
+DELETE FROM topic t USING topic_duplicate d WHERE t.id = d.id;
+
+CREATE TEMPORARY TABLE session_duplicate AS
+	SELECT id, survivor FROM (
+		SELECT id, MIN(id) OVER (PARTITION BY date, duration, note) AS survivor
+		FROM studysession
+		WHERE date IS NOT NULL AND note IS NOT NULL
+	) candidates
+	WHERE id <> survivor;
+
+UPDATE studysession s SET iscomplete = true
+	FROM session_duplicate d JOIN studysession dup ON dup.id = d.id
+	WHERE s.id = d.survivor AND dup.iscomplete AND NOT s.iscomplete;
+
+INSERT INTO topic_studysession (topic_id, session_id)
+	SELECT DISTINCT l.topic_id, d.survivor
+	FROM topic_studysession l JOIN session_duplicate d ON l.session_id = d.id
+	WHERE NOT EXISTS (SELECT 1 FROM topic_studysession e WHERE e.topic_id = l.topic_id AND e.session_id = d.survivor);
+
+DELETE FROM topic_studysession l USING session_duplicate d WHERE l.session_id = d.id;
+DELETE FROM studysession s USING session_duplicate d WHERE s.id = d.id;
+
+DROP TABLE topic_duplicate;
+DROP TABLE session_duplicate;
+
+DO $$
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_topic_name_description_difficulty') THEN
+		ALTER TABLE topic
+			ADD CONSTRAINT uk_topic_name_description_difficulty UNIQUE (name, description, difficulty);
+	END IF;
+	IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_studysession_date_duration_note') THEN
+		ALTER TABLE studysession
+			ADD CONSTRAINT uk_studysession_date_duration_note UNIQUE (date, duration, note);
+	END IF;
+END $$;
@@ -0,0 +1,6 @@
+-- Topic and StudySession carry a @Version column for optimistic locking.
+-- Existing rows start at version 0; hbm2ddl=update would add the columns as
+-- nullable, which the primitive version fields cannot load.
+
+ALTER TABLE topic ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE studysession ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
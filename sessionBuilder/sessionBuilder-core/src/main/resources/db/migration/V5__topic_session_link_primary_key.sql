@@ -0,0 +1,18 @@
+-- Topic.sessionList and StudySession.topicList are mapped as sets, so a
+-- (topic, session) pair may appear only once in the join table. The old bag
+-- mapping allowed duplicates: keep one row per pair, then add the key that
+-- hbm2ddl generates for set-valued join tables, owner column first.
+
+DELETE FROM topic_studysession a
+	USING topic_studysession b
+	WHERE a.ctid < b.ctid
+		AND a.topic_id = b.topic_id
+		AND a.session_id = b.session_id;
+
+DO $$
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'topic_studysession'::regclass AND contype = 'p') THEN
+		ALTER TABLE topic_studysession
+			ADD CONSTRAINT topic_studysession_pkey PRIMARY KEY (topic_id, session_id);
+	END IF;
+END $$;
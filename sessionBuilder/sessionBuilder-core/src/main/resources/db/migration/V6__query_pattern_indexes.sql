@@ -0,0 +1,8 @@
+-- Indexes for the access paths not already covered by the unique
+-- duplicate-probe constraints (V3) and the join-table primary key (V5).
+-- The key (topic_id, session_id) serves lookups by topic, so loading the
+-- topics of a session needs its own index on session_id. Keyset pagination of
+-- sessions seeks and orders by (date, id).
+
+CREATE INDEX IF NOT EXISTS idx_topic_studysession_session ON topic_studysession (session_id);
+CREATE INDEX IF NOT EXISTS idx_studysession_date_id ON studysession (date, id);
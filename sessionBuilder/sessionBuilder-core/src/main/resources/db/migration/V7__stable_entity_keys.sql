@@ -0,0 +1,7 @@
+-- Topic and StudySession hash and compare on a key assigned when the entity
+-- is created, so association sets keep working when persist assigns the id.
+-- Existing rows get a random key; plain SQL inserts keep working through the
+-- column default.
+
+ALTER TABLE topic ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE studysession ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
@@ -2,13 +2,20 @@ package com.sessionbuilder.core.backend;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import javax.sql.DataSource;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -18,9 +25,14 @@ import org.mockito.junit.MockitoJUnitRunner;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.ProvisionException;
 import com.google.inject.util.Modules;
 import com.sessionbuilder.core.utils.AppModule;
+import com.sessionbuilder.core.utils.ConnectionPoolSettings;
+import com.sessionbuilder.core.utils.DataSourceFactory;
 import com.sessionbuilder.core.utils.EmfFactory;
+import com.sessionbuilder.core.utils.SchemaMigrator;
+import com.zaxxer.hikari.HikariDataSource;
 import jakarta.persistence.EntityManagerFactory;
 
 
@@ -125,7 +137,8 @@ public class AppModuleTest {
 		String expectedPersistenceUnit = "my-persistence-unit";
 		Map<String, String> expectedProperties = Collections.singletonMap("key", "value");
 
-		try (MockedStatic<EmfFactory> mockedEmfFactory = mockStatic(EmfFactory.class)) {
+		try (MockedStatic<EmfFactory> mockedEmfFactory = mockStatic(EmfFactory.class);
+			MockedStatic<SchemaMigrator> mockedMigrator = mockStatic(SchemaMigrator.class)) {
             mockedEmfFactory
                 .when(() -> EmfFactory.createEntityManagerFactory(eq(expectedPersistenceUnit), anyMap()))
                 .thenReturn(mockEmf);
@@ -137,9 +150,118 @@ public class AppModuleTest {
 			EntityManagerFactory emfInstance2 = injector.getInstance(EntityManagerFactory.class);
 			
 			mockedEmfFactory.verify(() -> EmfFactory.createEntityManagerFactory(eq(expectedPersistenceUnit), eq(expectedProperties)), times(1));
+			mockedMigrator.verify(() -> SchemaMigrator.migrate(expectedProperties), times(1));
 
 			assertNotNull(emfInstance1);
 			assertSame("L'EntityManagerFactory dovrebbe essere un singleton", emfInstance1, emfInstance2);
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testProvideEntityManagerFactoryWithPoolSettingsUsesPooledDataSource() {
+		String expectedPersistenceUnit = "my-persistence-unit";
+		Map<String, String> expectedProperties = Collections.singletonMap("jakarta.persistence.jdbc.url", "jdbc:postgresql://localhost/test");
+		ConnectionPoolSettings poolSettings = ConnectionPoolSettings.defaults();
+		HikariDataSource dataSource = mock(HikariDataSource.class);
+
+		try (MockedStatic<EmfFactory> mockedEmfFactory = mockStatic(EmfFactory.class);
+			MockedStatic<DataSourceFactory> mockedDataSourceFactory = mockStatic(DataSourceFactory.class);
+			MockedStatic<SchemaMigrator> mockedMigrator = mockStatic(SchemaMigrator.class)) {
+			mockedDataSourceFactory
+				.when(() -> DataSourceFactory.createDataSource(expectedProperties, poolSettings))
+				.thenReturn(dataSource);
+			mockedEmfFactory
+				.when(() -> EmfFactory.createEntityManagerFactory(expectedPersistenceUnit, expectedProperties, dataSource))
+				.thenReturn(mockEmf);
+
+			Injector injector = Guice.createInjector(new AppModule(expectedPersistenceUnit, expectedProperties, poolSettings));
+
+			EntityManagerFactory emfInstance1 = injector.getInstance(EntityManagerFactory.class);
+			EntityManagerFactory emfInstance2 = injector.getInstance(EntityManagerFactory.class);
+
+			assertSame(mockEmf, emfInstance1);
+			assertSame("L'EntityManagerFactory dovrebbe essere un singleton", emfInstance1, emfInstance2);
+			assertSame("Il DataSource dovrebbe essere un singleton", dataSource, injector.getInstance(DataSource.class));
+			mockedDataSourceFactory.verify(() -> DataSourceFactory.createDataSource(expectedProperties, poolSettings), times(1));
+			mockedEmfFactory.verify(() -> EmfFactory.createEntityManagerFactory(eq(expectedPersistenceUnit), anyMap()), never());
+			mockedMigrator.verify(() -> SchemaMigrator.migrate(dataSource), times(1));
+			mockedMigrator.verify(() -> SchemaMigrator.migrate(anyMap()), never());
+		}
+	}
+
+	@Test
+	public void testMigrationsRunBeforeEntityManagerFactoryIsBuilt() {
+		Map<String, String> properties = Collections.singletonMap("jakarta.persistence.jdbc.url", "jdbc:postgresql://localhost/test");
+		List<String> calls = new ArrayList<>();
+		try (MockedStatic<EmfFactory> mockedEmfFactory = mockStatic(EmfFactory.class);
+			MockedStatic<SchemaMigrator> mockedMigrator = mockStatic(SchemaMigrator.class)) {
+			mockedMigrator.when(() -> SchemaMigrator.migrate(properties)).thenAnswer(answer -> {
+				calls.add("migrate");
+				return 6;
+			});
+			mockedEmfFactory.when(() -> EmfFactory.createEntityManagerFactory("my-persistence-unit", properties)).thenAnswer(answer -> {
+				calls.add("emf");
+				return mockEmf;
+			});
+			Injector injector = Guice.createInjector(new AppModule("my-persistence-unit", properties));
+			injector.getInstance(EntityManagerFactory.class);
+			assertThat(calls).containsExactly("migrate", "emf");
+		}
+	}
+
+	@Test
+	public void testStagesAreReportedAroundMigrations() {
+		Map<String, String> properties = Collections.singletonMap("jakarta.persistence.jdbc.url", "jdbc:postgresql://localhost/test");
+		List<String> calls = new ArrayList<>();
+		try (MockedStatic<EmfFactory> mockedEmfFactory = mockStatic(EmfFactory.class);
+			MockedStatic<SchemaMigrator> mockedMigrator = mockStatic(SchemaMigrator.class)) {
+			mockedMigrator.when(() -> SchemaMigrator.migrate(properties)).thenAnswer(answer -> {
+				calls.add("migrate");
+				return 6;
+			});
+			mockedEmfFactory.when(() -> EmfFactory.createEntityManagerFactory("my-persistence-unit", properties)).thenAnswer(answer -> {
+				calls.add("emf");
+				return mockEmf;
+			});
+			AppModule module = new AppModule("my-persistence-unit", properties).onStage(stage -> calls.add(stage.name()));
+			Guice.createInjector(module).getInstance(EntityManagerFactory.class);
+			assertThat(calls).containsExactly("MIGRATIONS", "migrate", "PERSISTENCE", "emf");
+		}
+	}
+
+	@Test
+	public void testMigrationsCanBeTurnedOffForUnitsGeneratingTheirSchema() {
+		Map<String, String> properties = Collections.singletonMap("jakarta.persistence.jdbc.url", "jdbc:postgresql://localhost/test");
+		List<String> stages = new ArrayList<>();
+		try (MockedStatic<EmfFactory> mockedEmfFactory = mockStatic(EmfFactory.class);
+			MockedStatic<SchemaMigrator> mockedMigrator = mockStatic(SchemaMigrator.class)) {
+			mockedEmfFactory.when(() -> EmfFactory.createEntityManagerFactory("sessionbuilder-test", properties)).thenReturn(mockEmf);
+			AppModule module = new AppModule("sessionbuilder-test", properties)
+				.migrateSchema(false)
+				.onStage(stage -> stages.add(stage.name()));
+			assertSame(mockEmf, Guice.createInjector(module).getInstance(EntityManagerFactory.class));
+			mockedMigrator.verify(() -> SchemaMigrator.migrate(anyMap()), never());
+			assertThat(stages).containsExactly("PERSISTENCE");
+		}
+	}
+
+	@Test
+	public void testFailedMigrationPreventsEntityManagerFactory() {
+		Map<String, String> properties = Collections.singletonMap("jakarta.persistence.jdbc.url", "jdbc:postgresql://localhost/test");
+		try (MockedStatic<EmfFactory> mockedEmfFactory = mockStatic(EmfFactory.class);
+			MockedStatic<SchemaMigrator> mockedMigrator = mockStatic(SchemaMigrator.class)) {
+			mockedMigrator.when(() -> SchemaMigrator.migrate(properties)).thenThrow(new IllegalStateException("migrazione fallita"));
+			Injector injector = Guice.createInjector(new AppModule("my-persistence-unit", properties));
+			ProvisionException e = assertThrows(ProvisionException.class, () -> injector.getInstance(EntityManagerFactory.class));
+			assertThat(e.getCause()).hasMessage("migrazione fallita");
+			mockedEmfFactory.verify(() -> EmfFactory.createEntityManagerFactory(eq("my-persistence-unit"), anyMap()), never());
+		}
+	}
+
+	@Test
+	public void testDataSourceIsNotAvailableWithoutPoolSettings() {
+		Injector injector = Guice.createInjector(new AppModule("test-unit", Collections.emptyMap()));
+		ProvisionException e = assertThrows(ProvisionException.class, () -> injector.getInstance(DataSource.class));
+		assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+	}
+}
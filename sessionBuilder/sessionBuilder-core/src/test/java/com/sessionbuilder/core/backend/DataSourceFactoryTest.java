@@ -0,0 +1,91 @@
+package com.sessionbuilder.core.backend;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.assertThrows;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sessionbuilder.core.utils.ConnectionPoolSettings;
+import com.sessionbuilder.core.utils.DataSourceFactory;
+import com.zaxxer.hikari.HikariConfig;
+
+public class DataSourceFactoryTest {
+	
+	private Map<String, String> properties;
+	private ConnectionPoolSettings settings;
+	
+	@Before
+	public void setup() {
+		properties = new HashMap<>();
+		properties.put("jakarta.persistence.jdbc.driver", "org.postgresql.Driver");
+		properties.put("jakarta.persistence.jdbc.url", "jdbc:postgresql://localhost:5432/test");
+		properties.put("jakarta.persistence.jdbc.user", "user");
+		properties.put("jakarta.persistence.jdbc.password", "secret");
+		settings = new ConnectionPoolSettings(8, 1, 30_000, 5_000, 128);
+	}
+	
+	@Test
+	public void testCreateConfigUsesJdbcPropertiesAndPoolSettings() {
+		HikariConfig config = DataSourceFactory.createConfig(properties, settings);
+		assertThat(config.getJdbcUrl()).isEqualTo("jdbc:postgresql://localhost:5432/test");
+		assertThat(config.getDriverClassName()).isEqualTo("org.postgresql.Driver");
+		assertThat(config.getUsername()).isEqualTo("user");
+		assertThat(config.getPassword()).isEqualTo("secret");
+		assertThat(config.getMaximumPoolSize()).isEqualTo(8);
+		assertThat(config.getMinimumIdle()).isEqualTo(1);
+		assertThat(config.getIdleTimeout()).isEqualTo(30_000);
+		assertThat(config.getLeakDetectionThreshold()).isEqualTo(5_000);
+		assertThat(config.isAutoCommit()).isFalse();
+		assertThat(config.getDataSourceProperties()).containsEntry("preparedStatementCacheQueries", 128);
+	}
+	
+	@Test
+	public void testCreateConfigDoesNotPassPostgresPropertiesToOtherDrivers() {
+		properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:test");
+		properties.remove("jakarta.persistence.jdbc.driver");
+		HikariConfig config = DataSourceFactory.createConfig(properties, settings);
+		assertThat(config.getDriverClassName()).isNull();
+		assertThat(config.getDataSourceProperties()).isEmpty();
+	}
+	
+	@Test
+	public void testCreateConfigWithoutJdbcUrlShouldThrow() {
+		properties.remove("jakarta.persistence.jdbc.url");
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> DataSourceFactory.createConfig(properties, settings));
+		assertThat(e.getMessage()).isEqualTo("l'url jdbc è null");
+	}
+	
+	@Test
+	public void testPoolSettingsDefaults() {
+		ConnectionPoolSettings defaults = ConnectionPoolSettings.defaults();
+		assertThat(defaults.maximumPoolSize()).isEqualTo(ConnectionPoolSettings.DEFAULT_MAXIMUM_POOL_SIZE);
+		assertThat(defaults.minimumIdle()).isEqualTo(ConnectionPoolSettings.DEFAULT_MINIMUM_IDLE);
+		assertThat(defaults.preparedStatementCacheSize()).isEqualTo(ConnectionPoolSettings.DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
+	}
+	
+	@Test
+	public void testPoolSettingsWithInvalidValuesShouldThrow() {
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(0, 0, 0, 0, 0)).getMessage())
+			.isEqualTo("la dimensione del pool deve essere positiva");
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(2, 3, 0, 0, 0)).getMessage())
+			.isEqualTo("il numero minimo di connessioni inattive non è valido");
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(2, 1, -1, 0, 0)).getMessage())
+			.isEqualTo("il timeout di inattività non può essere negativo");
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(2, 1, 0, -1, 0)).getMessage())
+			.isEqualTo("la soglia di leak detection non può essere negativa");
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new ConnectionPoolSettings(2, 1, 0, 0, -1)).getMessage())
+			.isEqualTo("la cache dei prepared statement non può essere negativa");
+	}
+	
+	@Test
+	public void testPrivateConstructorCoverage() throws Exception {
+		Constructor<DataSourceFactory> constructor = DataSourceFactory.class.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		assertThat(constructor.newInstance()).isNotNull();
+	}
+}
@@ -2,6 +2,9 @@ package com.sessionbuilder.core.backend;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -9,10 +12,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.sql.DataSource;
+
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
 import jakarta.persistence.PersistenceException;
 
+import org.hibernate.cfg.AvailableSettings;
 import org.junit.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -79,6 +85,28 @@ public class EmfFactoryTest {
 		}
 	}
 	
+	@Test
+	public void testCreateEntityManagerFactoryWithDataSourcePassesItToThePersistenceProvider() {
+		Map<String, String> properties = Collections.singletonMap("hibernate.hbm2ddl.auto", "none");
+		DataSource dataSource = Mockito.mock(DataSource.class);
+
+		try (MockedStatic<Persistence> mockedPersistence = Mockito.mockStatic(Persistence.class)) {
+			EntityManagerFactory mockEmf = Mockito.mock(EntityManagerFactory.class);
+			mockedPersistence.when(() -> Persistence.createEntityManagerFactory(eq(TEST_PERSISTENCE_UNIT), anyMap()))
+				.thenReturn(mockEmf);
+
+			EntityManagerFactory result = EmfFactory.createEntityManagerFactory(TEST_PERSISTENCE_UNIT, properties, dataSource);
+
+			assertThat(result).isEqualTo(mockEmf);
+			mockedPersistence.verify(() -> Persistence.createEntityManagerFactory(eq(TEST_PERSISTENCE_UNIT), argThat((Map<String, Object> settings) ->
+				settings.get(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE) == dataSource
+				&& "true".equals(settings.get(AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT))
+				&& settings.containsKey(AvailableSettings.JAKARTA_JDBC_USER) && settings.get(AvailableSettings.JAKARTA_JDBC_USER) == null
+				&& settings.containsKey(AvailableSettings.JAKARTA_JDBC_PASSWORD) && settings.get(AvailableSettings.JAKARTA_JDBC_PASSWORD) == null
+				&& "none".equals(settings.get("hibernate.hbm2ddl.auto")))));
+		}
+	}
+	
 	@Test
 	public void testPrivateConstructorCoverage() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
 		Constructor<EmfFactory> constructor = EmfFactory.class.getDeclaredConstructor();
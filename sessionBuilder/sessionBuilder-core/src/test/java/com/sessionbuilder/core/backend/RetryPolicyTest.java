@@ -0,0 +1,67 @@
+package com.sessionbuilder.core.backend;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.assertThrows;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.junit.Test;
+
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.RollbackException;
+
+public class RetryPolicyTest {
+	
+	@Test
+	public void testSerializationFailureAndDeadlockAreRetryableThroughTheCauseChain() {
+		RetryPolicy policy = RetryPolicy.defaults();
+		SQLException serialization = new SQLException("could not serialize access", RetryPolicy.SERIALIZATION_FAILURE);
+		SQLException deadlock = new SQLException("deadlock detected", RetryPolicy.DEADLOCK_DETECTED);
+		assertThat(policy.isRetryable(new PersistenceException(new LockAcquisitionException("lock", serialization, "update")))).isTrue();
+		assertThat(policy.isRetryable(new PersistenceException(deadlock))).isTrue();
+	}
+	
+	@Test
+	public void testOtherFailuresAreNotRetryable() {
+		RetryPolicy policy = RetryPolicy.defaults();
+		assertThat(policy.isRetryable(new PersistenceException(new SQLException("duplicate key", "23505")))).isFalse();
+		assertThat(policy.isRetryable(new IllegalArgumentException("il topic passato è null"))).isFalse();
+		assertThat(policy.isRetryable(new PersistenceException(new SQLException("no state")))).isFalse();
+	}
+	
+	@Test
+	public void testOptimisticLockFailuresAreAlwaysRetryable() {
+		RetryPolicy policy = new RetryPolicy(3, 0, 0, Set.of());
+		assertThat(policy.isRetryable(new RollbackException(new OptimisticLockException("stale topic")))).isTrue();
+		assertThat(policy.isRetryable(new StaleObjectStateException(Topic.class.getName(), 1L))).isTrue();
+		assertThat(RetryPolicy.isOptimisticLockFailure(new PersistenceException(new SQLException("deadlock", RetryPolicy.DEADLOCK_DETECTED)))).isFalse();
+	}
+	
+	@Test
+	public void testBackoffIsJitteredWithinTheExponentialCeiling() {
+		RetryPolicy policy = new RetryPolicy(5, 10, 25, Set.of());
+		for (int i = 0; i < 100; i++) {
+			assertThat(policy.backoffMillis(1)).isBetween(0L, 10L);
+			assertThat(policy.backoffMillis(2)).isBetween(0L, 20L);
+			assertThat(policy.backoffMillis(3)).isBetween(0L, 25L);
+			assertThat(policy.backoffMillis(40)).isBetween(0L, 25L);
+		}
+		assertThat(RetryPolicy.none().backoffMillis(1)).isZero();
+	}
+	
+	@Test
+	public void testInvalidPolicyFailure() {
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, 0, 0, Set.of())).getMessage())
+			.isEqualTo("il numero massimo di tentativi deve essere positivo");
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(1, 10, 5, Set.of())).getMessage())
+			.isEqualTo("il backoff non è valido");
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(1, -1, 5, Set.of())).getMessage())
+			.isEqualTo("il backoff non è valido");
+		assertThat(assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(1, 0, 0, null)).getMessage())
+			.isEqualTo("la lista degli SQLState è null");
+	}
+}
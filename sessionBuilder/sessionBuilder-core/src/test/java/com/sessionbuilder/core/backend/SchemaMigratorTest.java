@@ -0,0 +1,57 @@
+package com.sessionbuilder.core.backend;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sessionbuilder.core.utils.SchemaMigrator;
+
+public class SchemaMigratorTest {
+	
+	private Map<String, String> properties;
+	
+	@Before
+	public void setup() {
+		properties = new HashMap<>();
+		properties.put("jakarta.persistence.jdbc.url", "jdbc:postgresql://localhost:5432/test");
+		properties.put("jakarta.persistence.jdbc.user", "user");
+		properties.put("jakarta.persistence.jdbc.password", "secret");
+	}
+	
+	@Test
+	public void testConfigureUsesJdbcProperties() {
+		FluentConfiguration config = SchemaMigrator.configure(properties);
+		assertThat(config.getUrl()).isEqualTo("jdbc:postgresql://localhost:5432/test");
+		assertThat(config.getUser()).isEqualTo("user");
+		assertThat(config.getPassword()).isEqualTo("secret");
+	}
+	
+	@Test
+	public void testConfigureReadsClasspathMigrationsAndBaselinesExistingSchemas() {
+		FluentConfiguration config = SchemaMigrator.configure(properties);
+		assertThat(config.getLocations()).extracting(Object::toString).containsExactly("classpath:db/migration");
+		assertThat(config.isBaselineOnMigrate()).isTrue();
+		assertThat(config.getBaselineVersion()).isEqualTo(MigrationVersion.fromVersion("1"));
+	}
+	
+	@Test
+	public void testConfigureWithoutJdbcUrlFailure() {
+		properties.remove("jakarta.persistence.jdbc.url");
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> SchemaMigrator.configure(properties));
+		assertThat(e.getMessage()).isEqualTo("l'url jdbc è null");
+	}
+	
+	@Test
+	public void testMigrationScriptsAreVersionedFromTheBaseline() {
+		assertThat(getClass().getClassLoader().getResource("db/migration/V1__baseline_schema.sql")).isNotNull();
+		assertThat(getClass().getClassLoader().getResource("db/migration/V6__query_pattern_indexes.sql")).isNotNull();
+		assertThat(getClass().getClassLoader().getResource("db/migration/V7__stable_entity_keys.sql")).isNotNull();
+	}
+}
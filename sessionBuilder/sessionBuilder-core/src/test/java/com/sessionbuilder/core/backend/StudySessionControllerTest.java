@@ -150,6 +150,23 @@ public class StudySessionControllerTest {
 		verify(service).getAllSessions();
 	}
 	
+	@Test
+	public void testHandleGetSessionsPageLoadsAssociations() {
+		LocalDate afterDate = LocalDate.now();
+		Page<StudySession> page = new Page<>(List.of(session), false);
+		when(service.getSessionsPage(afterDate, 5L, 20, FetchPlan.WITH_ASSOCIATIONS)).thenReturn(page);
+		assertThat(sessionController.handleGetSessionsPage(afterDate, 5L, 20)).isEqualTo(page);
+	}
+	
+	@Test
+	public void testHandleGetSessionsPageWithException() {
+		RuntimeException exception = new RuntimeException("pagina di sessioni non estratta");
+		when(service.getSessionsPage(null, 0L, 20, FetchPlan.WITH_ASSOCIATIONS)).thenThrow(exception);
+		RuntimeException thrown = assertThrows(RuntimeException.class, () -> sessionController.handleGetSessionsPage(null, 0L, 20));
+		verify(viewCallback).onSessionError("Errore nel caricamento delle session");
+		assertThat(thrown).isEqualTo(exception);
+	}
+	
 	@Test
 	public void testHandleGetAllSessionsWithExceptions() {
 	RuntimeException exception = new RuntimeException("lista di sessioni non estratta");
@@ -310,5 +327,22 @@ public class StudySessionControllerTest {
 	verify(service).getSessionById(ids1);
 	verify(service, never()).deleteSession(ids1);
 	}
-
+	
+	@Test
+	public void testHandleCompleteSessionsNotifiesEveryUpdatedSession() {
+		StudySession other = new StudySession(date.plusDays(1), duration, note, new ArrayList<>(List.of(topic)));
+		when(service.completeSessions(List.of(ids1, 5L))).thenReturn(List.of(session, other));
+		sessionController.handleCompleteSessions(List.of(ids1, 5L));
+		verify(viewCallback).onSessionUpdated(session);
+		verify(viewCallback).onSessionUpdated(other);
+		verify(viewCallback, never()).onSessionError(org.mockito.ArgumentMatchers.anyString());
+	}
+	
+	@Test
+	public void testHandleCompleteSessionsWithException() {
+		when(service.completeSessions(List.of(ids1))).thenThrow(new RuntimeException("Complete sessions failed"));
+		sessionController.handleCompleteSessions(List.of(ids1));
+		verify(viewCallback).onSessionError("Error: Complete sessions failed");
+		verify(viewCallback, never()).onSessionUpdated(session);
+	}
 }
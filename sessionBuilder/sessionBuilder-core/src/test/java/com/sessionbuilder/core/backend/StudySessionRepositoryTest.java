@@ -4,15 +4,32 @@ import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.jdbc.Work;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.hibernate.jpa.HibernateHints;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,8 +44,10 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
 
 @RunWith(MockitoJUnitRunner.class)
 public class StudySessionRepositoryTest {
@@ -65,24 +84,16 @@ public class StudySessionRepositoryTest {
 	
 	@Test
 	public void testfindByIdSuccess() {
-		String jpql = "SELECT s FROM StudySession s LEFT JOIN FETCH s.topicList WHERE s.id = :id";
-		when(em.createQuery(jpql, StudySession.class)).thenReturn(typedQuery);
-		when(typedQuery.setParameter("id", id)).thenReturn(typedQuery);
-		when(typedQuery.getSingleResult()).thenReturn(session);
+		when(em.find(StudySession.class, id)).thenReturn(session);
 		StudySession result = sessionRepository.findById(id);
-		InOrder inOrder = Mockito.inOrder(em, typedQuery);
-		inOrder.verify(em).createQuery(jpql, StudySession.class);
-		inOrder.verify(typedQuery).setParameter("id", id);
-		inOrder.verify(typedQuery).getSingleResult();
+		verify(em).find(StudySession.class, id);
+		verify(em, never()).createQuery(anyString(), any());
 		assertThat(result).isEqualTo(session);
 	}
 
 	@Test
 	public void testFindByIdFailure() {
-		String jpql = "SELECT s FROM StudySession s LEFT JOIN FETCH s.topicList WHERE s.id = :id";
-		when(em.createQuery(jpql, StudySession.class)).thenReturn(typedQuery);
-		when(typedQuery.setParameter("id", id)).thenReturn(typedQuery);
-		when(typedQuery.getSingleResult()).thenThrow(new NoResultException());
+		when(em.find(StudySession.class, id)).thenReturn(null);
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> sessionRepository.findById(id));
 		assertThat(e.getMessage()).isEqualTo("non esiste una session con tale id");
 	}
@@ -109,6 +120,7 @@ public class StudySessionRepositoryTest {
 		assertThat(capturedNames).containsExactlyInAnyOrder("date", "duration", "note");
 		assertThat(capturedValues).containsExactlyInAnyOrder(date, duration, note);
 		verify(typedQuery, times(3)).setParameter(anyString(), any());
+		verify(typedQuery, never()).setHint(anyString(), any());
 	}
 
 
@@ -154,6 +166,59 @@ public class StudySessionRepositoryTest {
 		assertThat(result).isEqualTo(allSessions);
 	}
 	
+	@Test
+	public void testFindAllWithAssociationsFetchesTopicsInTheSameQuery() {
+		StudySession sessionA = new StudySession();
+		List<StudySession> allSessions = new ArrayList<>(List.of(sessionA));
+		String jpql = "SELECT s FROM StudySession s LEFT JOIN FETCH s.topicList";
+		when(em.createQuery(jpql, StudySession.class)).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(allSessions);
+		List<StudySession> result = sessionRepository.findAll(FetchPlan.WITH_ASSOCIATIONS);
+		verify(em).createQuery(jpql, StudySession.class);
+		assertThat(result).isEqualTo(allSessions);
+	}
+	
+	@Test
+	public void testFindPageAfterFirstPageOrdersByDateAndId() {
+		String jpql = "SELECT s FROM StudySession s ORDER BY s.date, s.id";
+		when(em.createQuery(jpql, StudySession.class)).thenReturn(typedQuery);
+		when(typedQuery.setMaxResults(3)).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(List.of(session));
+		List<StudySession> result = sessionRepository.findPageAfter(null, 0L, 3, FetchPlan.SUMMARY);
+		assertThat(result).containsExactly(session);
+		verify(typedQuery, never()).setParameter(anyString(), any());
+	}
+	
+	@Test
+	public void testFindPageAfterSeeksOnDateAndId() {
+		LocalDate date = LocalDate.now().plusDays(1);
+		String jpql = "SELECT s FROM StudySession s WHERE s.date > :afterDate OR (s.date = :afterDate AND s.id > :afterId) ORDER BY s.date, s.id";
+		String fetchJpql = "SELECT DISTINCT s FROM StudySession s LEFT JOIN FETCH s.topicList WHERE s.id IN :ids";
+		when(em.createQuery(jpql, StudySession.class)).thenReturn(typedQuery);
+		when(em.createQuery(fetchJpql, StudySession.class)).thenReturn(typedQuery);
+		when(typedQuery.setParameter(anyString(), any())).thenReturn(typedQuery);
+		when(typedQuery.setMaxResults(3)).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(List.of(session));
+		List<StudySession> result = sessionRepository.findPageAfter(date, 7L, 3, FetchPlan.WITH_ASSOCIATIONS);
+		assertThat(result).containsExactly(session);
+		verify(typedQuery).setParameter("afterDate", date);
+		verify(typedQuery).setParameter("afterId", 7L);
+		verify(typedQuery).setParameter("ids", List.of(id));
+	}
+	
+	@Test
+	public void testStreamAllUsesFetchSizeAndDetachesConsumedRows() {
+		String jpql = "SELECT s FROM StudySession s";
+		when(em.createQuery(jpql, StudySession.class)).thenReturn(typedQuery);
+		when(typedQuery.setHint(anyString(), any())).thenReturn(typedQuery);
+		when(typedQuery.getResultStream()).thenReturn(Stream.of(session));
+		List<StudySession> result = sessionRepository.streamAll(100).toList();
+		assertThat(result).containsExactly(session);
+		verify(typedQuery).setHint(HibernateHints.HINT_FETCH_SIZE, 100);
+		verify(typedQuery).setHint(HibernateHints.HINT_READ_ONLY, true);
+		verify(em).detach(session);
+	}
+	
 	@Test
 	public void testFindAllFailure() {
 		String jpql = "SELECT s FROM StudySession s";
@@ -178,6 +243,20 @@ public class StudySessionRepositoryTest {
 		assertThat(e.getMessage()).isEqualTo("la sessione da persistere è null");
 	}
 	
+	@Test
+	public void testFlushSuccess() {
+		sessionRepository.flush();
+		verify(em).flush();
+	}
+	
+	@Test
+	public void testFlushTranslatesUniqueViolationIntoDuplicateError() {
+		Mockito.doThrow(new ConstraintViolationException("duplicate", new SQLException(), ConstraintKind.UNIQUE, "uk_studysession_date_duration_note"))
+			.when(em).flush();
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> sessionRepository.flush());
+		assertThat(e.getMessage()).isEqualTo("esiste già una session con questi valori");
+	}
+	
 	@Test
 	public void testUpdateSuccess() {
 		sessionRepository.update(session);
@@ -205,6 +284,160 @@ public class StudySessionRepositoryTest {
 		assertThat(e.getMessage()).isEqualTo("la sessione da rimuovere non esiste");
 	}
 	
+	@Test
+	public void testFindByNotesAndDatesUsesSingleInQuery() {
+		LocalDate date = LocalDate.now().plusDays(1);
+		Set<String> notes = Set.of("una nota", "altra nota");
+		Set<LocalDate> dates = Set.of(date);
+		String jpql = "SELECT s FROM StudySession s WHERE s.note IN :notes AND s.date IN :dates";
+		when(em.createQuery(jpql, StudySession.class)).thenReturn(typedQuery);
+		when(typedQuery.setParameter(anyString(), any())).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(List.of(session));
+		List<StudySession> result = sessionRepository.findByNotesAndDates(notes, dates);
+		assertThat(result).containsExactly(session);
+		verify(typedQuery).setParameter("notes", notes);
+		verify(typedQuery).setParameter("dates", dates);
+	}
 	
-
+	@Test
+	public void testFindByNotesAndDatesWithEmptyKeysSkipsQuery() {
+		List<StudySession> result = sessionRepository.findByNotesAndDates(Set.of(), Set.of(LocalDate.now()));
+		assertThat(result).isEmpty();
+		verify(em, never()).createQuery(anyString(), any());
+	}
+	
+	@Test
+	public void testSaveTopicLinksBatchesJoinTableInserts() throws Exception {
+		Cache cache = Mockito.mock(Cache.class);
+		PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+		Synchronization synchronization = saveLinks(cache, statement);
+		InOrder inOrder = Mockito.inOrder(statement);
+		inOrder.verify(statement, times(3)).addBatch();
+		inOrder.verify(statement).executeBatch();
+		verify(em, never()).flush();
+		verify(statement, times(2)).setLong(1, 3L);
+		verify(statement).setLong(1, 4L);
+		verify(statement, times(2)).setLong(2, 10L);
+		verify(statement).setLong(2, 11L);
+		verify(statement).close();
+		verifyNoInteractions(cache);
+		synchronization.afterCompletion(Status.STATUS_COMMITTED);
+		verify(cache).evictCollectionData("com.sessionbuilder.core.backend.StudySession.topicList", 10L);
+		verify(cache).evictCollectionData("com.sessionbuilder.core.backend.StudySession.topicList", 11L);
+		verify(cache, times(2)).evictCollectionData("com.sessionbuilder.core.backend.Topic.sessionList", 3L);
+		verify(cache).evictCollectionData("com.sessionbuilder.core.backend.Topic.sessionList", 4L);
+	}
+	
+	@Test
+	public void testSaveTopicLinksKeepsCachedCollectionsOnRollback() throws Exception {
+		Cache cache = Mockito.mock(Cache.class);
+		Synchronization synchronization = saveLinks(cache, Mockito.mock(PreparedStatement.class));
+		synchronization.afterCompletion(Status.STATUS_ROLLEDBACK);
+		verifyNoInteractions(cache);
+	}
+	
+	private Synchronization saveLinks(Cache cache, PreparedStatement statement) throws Exception {
+		Session hibernateSession = Mockito.mock(Session.class);
+		SessionFactory sessionFactory = Mockito.mock(SessionFactory.class);
+		Transaction transaction = Mockito.mock(Transaction.class);
+		Connection connection = Mockito.mock(Connection.class);
+		when(em.unwrap(Session.class)).thenReturn(hibernateSession);
+		when(hibernateSession.getSessionFactory()).thenReturn(sessionFactory);
+		when(hibernateSession.getTransaction()).thenReturn(transaction);
+		when(sessionFactory.getCache()).thenReturn(cache);
+		when(connection.prepareStatement("INSERT INTO Topic_StudySession (topic_id, session_id) VALUES (?, ?)")).thenReturn(statement);
+		Mockito.doAnswer(answer -> {
+			Work work = answer.getArgument(0);
+			work.execute(connection);
+			return null;
+		}).when(hibernateSession).doWork(any());
+		Map<Long, List<Long>> links = new LinkedHashMap<>();
+		links.put(10L, List.of(3L, 4L));
+		links.put(11L, List.of(3L));
+		sessionRepository.saveTopicLinks(links);
+		ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+		verify(transaction).registerSynchronization(synchronization.capture());
+		return synchronization.getValue();
+	}
+	
+	@Test
+	public void testSaveTopicLinksWithNothingToLinkSkipsJdbc() {
+		sessionRepository.saveTopicLinks(Map.of());
+		verify(em, never()).unwrap(Session.class);
+	}
+	
+	@Test
+	public void testMarkCompleteIsConditionalOnIsComplete() {
+		Query query = Mockito.mock(Query.class);
+		ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+		when(em.createQuery(jpql.capture())).thenReturn(query);
+		when(query.setParameter("id", id)).thenReturn(query);
+		when(query.executeUpdate()).thenReturn(1);
+		int result = sessionRepository.markComplete(id);
+		assertThat(result).isEqualTo(1);
+		assertThat(jpql.getValue()).contains("s.isComplete = false").contains("s.version = s.version + 1");
+	}
+	
+	@Test
+	public void testMarkCompleteManySessionsUsesSingleStatement() {
+		Query query = Mockito.mock(Query.class);
+		List<Long> ids = List.of(1L, 2L);
+		when(em.createQuery(anyString())).thenReturn(query);
+		when(query.setParameter("ids", ids)).thenReturn(query);
+		when(query.executeUpdate()).thenReturn(2);
+		assertThat(sessionRepository.markComplete(ids)).isEqualTo(2);
+		verify(query, times(1)).executeUpdate();
+	}
+	
+	@Test
+	public void testFindMasteryAwardsAggregatesPointsPerTopic() {
+		@SuppressWarnings("unchecked")
+		TypedQuery<Object[]> rowsQuery = Mockito.mock(TypedQuery.class);
+		List<Long> ids = List.of(1L, 2L);
+		when(em.createQuery(anyString(), Mockito.eq(Object[].class))).thenReturn(rowsQuery);
+		when(rowsQuery.setParameter("ids", ids)).thenReturn(rowsQuery);
+		when(rowsQuery.getResultList()).thenReturn(List.of(
+			new Object[] {3L, 5, 90},
+			new Object[] {3L, 5, 60},
+			new Object[] {4L, 2, 60}));
+		Map<Long, Integer> result = sessionRepository.findMasteryAwards(ids);
+		assertThat(result).containsExactly(Map.entry(3L, 33), Map.entry(4L, 10));
+	}
+	
+	@Test
+	public void testManySessionsQueriesWithEmptyIdsSkipQuery() {
+		assertThat(sessionRepository.markComplete(List.of())).isZero();
+		assertThat(sessionRepository.findMasteryAwards(List.of())).isEmpty();
+		assertThat(sessionRepository.findByIds(List.of())).isEmpty();
+		verify(em, never()).createQuery(anyString());
+		verify(em, never()).createQuery(anyString(), any());
+	}
+	
+	@Test
+	public void testFindByIdsFetchesTopics() {
+		List<Long> ids = List.of(1L);
+		when(em.createQuery(anyString(), Mockito.eq(StudySession.class))).thenReturn(typedQuery);
+		when(typedQuery.setParameter("ids", ids)).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(List.of(session));
+		assertThat(sessionRepository.findByIds(ids)).containsExactly(session);
+		verify(em).createQuery(Mockito.contains("LEFT JOIN FETCH s.topicList"), Mockito.eq(StudySession.class));
+	}
+	
+	@Test
+	public void testDeleteByIdsUsesSingleBulkDelete() {
+		Query query = Mockito.mock(Query.class);
+		List<Long> ids = List.of(1L, 2L);
+		when(em.createQuery("DELETE FROM StudySession s WHERE s.id IN :ids")).thenReturn(query);
+		when(query.setParameter("ids", ids)).thenReturn(query);
+		when(query.executeUpdate()).thenReturn(2);
+		assertThat(sessionRepository.deleteByIds(ids)).isEqualTo(2);
+		verify(em, never()).find(any(), any());
+		verify(em, never()).remove(any());
+	}
+	
+	@Test
+	public void testDeleteByIdsWithEmptyIdsSkipsQuery() {
+		assertThat(sessionRepository.deleteByIds(List.of())).isZero();
+		verify(em, never()).createQuery(anyString());
+	}
 }
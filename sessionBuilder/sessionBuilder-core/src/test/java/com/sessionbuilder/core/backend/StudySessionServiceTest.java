@@ -3,6 +3,7 @@ package com.sessionbuilder.core.backend;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -10,16 +11,24 @@ import static org.mockito.Mockito.when;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import jakarta.persistence.EntityManager;
+
 
 
 @RunWith(MockitoJUnitRunner.class)
@@ -34,6 +43,9 @@ public class StudySessionServiceTest {
 	@Mock
 	private TransactionManager tm;
 	
+	@Mock
+	private EntityManager em;
+	
 	@InjectMocks
 	private StudySessionService service;
 	
@@ -56,7 +68,7 @@ public class StudySessionServiceTest {
 	@Before
 	public void setup() {
 		closeable = MockitoAnnotations.openMocks(this);
-		when(tm.doInSessionTransaction(any())).thenAnswer(answer -> {
+		when(tm.doInReadOnlySessionTransaction(any())).thenAnswer(answer -> {
 			StudySessionTransactionCode<?> code = answer.getArgument(0);
 			return code.apply(sessionRepository);
 		});
@@ -100,6 +112,8 @@ public class StudySessionServiceTest {
 		when(sessionRepository.findById(ids1)).thenReturn(session1);
 		StudySession result = service.getSessionById(ids1);
 		assertThat(result).isEqualTo(session1);
+		verify(tm).doInReadOnlySessionTransaction(any());
+		verify(tm, never()).doInSessionTransaction(any());
 	}
 	
 	@Test
@@ -112,25 +126,74 @@ public class StudySessionServiceTest {
 	@Test
 	public void testGetAllSessionSuccess() {
 		List<StudySession> allSessions = new ArrayList<>(List.of(session1, fullSession));
-		when(sessionRepository.findAll()).thenReturn(allSessions);
+		when(sessionRepository.findAll(FetchPlan.WITH_ASSOCIATIONS)).thenReturn(allSessions);
 		List<StudySession> result = service.getAllSessions();
 		assertThat(result).isEqualTo(allSessions);
-		verify(sessionRepository).findAll();
+		verify(sessionRepository).findAll(FetchPlan.WITH_ASSOCIATIONS);
+	}
+	
+	@Test
+	public void testGetAllSessionsWithSummaryPlanSuccess() {
+		List<StudySession> allSessions = new ArrayList<>(List.of(session1, fullSession));
+		when(sessionRepository.findAll(FetchPlan.SUMMARY)).thenReturn(allSessions);
+		List<StudySession> result = service.getAllSessions(FetchPlan.SUMMARY);
+		assertThat(result).isEqualTo(allSessions);
+		verify(sessionRepository).findAll(FetchPlan.SUMMARY);
 	}
 	
 	@Test
 	public void testGetAllSessionFailure() {
-		when(sessionRepository.findAll()).thenThrow(new IllegalArgumentException());
+		when(sessionRepository.findAll(FetchPlan.WITH_ASSOCIATIONS)).thenThrow(new IllegalArgumentException());
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.getAllSessions());
 		assertThat(e.getMessage()).isEqualTo("Errore durante il caricamento delle session");
 	}
 	
+	@Test
+	public void testGetSessionsPageRequestsOneExtraRowToDetectNextPage() {
+		when(sessionRepository.findPageAfter(null, 0L, 3, FetchPlan.SUMMARY)).thenReturn(List.of(session1, fullSession, new StudySession()));
+		Page<StudySession> page = service.getSessionsPage(null, 0L, 2, FetchPlan.SUMMARY);
+		assertThat(page.content()).containsExactly(session1, fullSession);
+		assertThat(page.hasNext()).isTrue();
+		assertThat(page.last()).isEqualTo(fullSession);
+	}
+	
+	@Test
+	public void testGetSessionsPageLastPage() {
+		when(sessionRepository.findPageAfter(date, ids1, 3, FetchPlan.WITH_ASSOCIATIONS)).thenReturn(List.of(fullSession));
+		Page<StudySession> page = service.getSessionsPage(date, ids1, 2, FetchPlan.WITH_ASSOCIATIONS);
+		assertThat(page.content()).containsExactly(fullSession);
+		assertThat(page.hasNext()).isFalse();
+	}
+	
+	@Test
+	public void testGetSessionsPageWithNonPositiveSizeFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.getSessionsPage(null, 0L, -1, FetchPlan.SUMMARY));
+		assertThat(e.getMessage()).isEqualTo("la dimensione della pagina deve essere positiva");
+	}
+	
+	@Test
+	public void testStreamAllSessionsPassesFetchSizeAndClosesCursor() {
+		boolean[] closed = {false};
+		when(sessionRepository.streamAll(50)).thenReturn(Stream.of(session1, fullSession).onClose(() -> closed[0] = true));
+		int totalDuration = service.streamAllSessions(50, sessions -> sessions.mapToInt(StudySession::getDuration).sum());
+		assertThat(totalDuration).isEqualTo(session1.getDuration() + fullSession.getDuration());
+		assertThat(closed[0]).isTrue();
+	}
+	
+	@Test
+	public void testStreamAllSessionsWithNonPositiveFetchSizeFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.streamAllSessions(-5, Stream::count));
+		assertThat(e.getMessage()).isEqualTo("la fetch size deve essere positiva");
+	}
+	
 	@Test
 	public void testCreateSessionSuccess() {
 		when(topicRepository.findById(idt1)).thenReturn(topic1);
 		when(topicRepository.findById(idt2)).thenReturn(topic2);
 		StudySession session = service.createSession(date, duration, note, topicIds);
-		verify(sessionRepository,times(1)).save(session);
+		InOrder inOrder = Mockito.inOrder(sessionRepository);
+		inOrder.verify(sessionRepository).save(session);
+		inOrder.verify(sessionRepository).flush();
 		assertThat(session).isNotNull();
 		assertThat(session.getDate()).isEqualTo(date);
 		assertThat(session.getDuration()).isEqualTo(duration);
@@ -162,12 +225,23 @@ public class StudySessionServiceTest {
 	
 	@Test
 	public void testCompleteSessionSuccess() {
-		when(sessionRepository.findById(ids2)).thenReturn(fullSession);
+		StudySession completed = new StudySession(fullSession.getDate(), 60, "una nota", new ArrayList<>(List.of(topic1, topic2)));
+		completed.setId(ids2);
+		completed.setIsComplete(true);
+		when(sessionRepository.findById(ids2)).thenReturn(fullSession, completed);
+		when(sessionRepository.markComplete(ids2)).thenReturn(1);
+		when(tm.getCurrentEntityManager()).thenReturn(em);
 		StudySession result = service.completeSession(ids2);
-		verify(sessionRepository, times(1)).update(fullSession);
-		assertThat(result).isEqualTo(fullSession);
-		assertThat(fullSession.isComplete()).isTrue();
+		InOrder inOrder = Mockito.inOrder(sessionRepository, topicRepository, em);
+		inOrder.verify(sessionRepository).markComplete(ids2);
+		inOrder.verify(topicRepository).awardMastery(ids2, 60);
+		inOrder.verify(em).clear();
+		inOrder.verify(sessionRepository).findById(ids2);
+		verify(sessionRepository, never()).update(any(StudySession.class));
+		verify(topicRepository, never()).update(any(Topic.class));
+		assertThat(result).isSameAs(completed);
 		assertThat(result.isComplete()).isTrue();
+		assertThat(topic1.getMasteryLevel()).isZero();
 	}
 	
 	@Test
@@ -176,6 +250,17 @@ public class StudySessionServiceTest {
 		fullSession.setIsComplete(true);
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.completeSession(ids2));
 		assertThat(e.getMessage()).isEqualTo("la sessione è già stata completata");
+		verify(sessionRepository, never()).markComplete(ids2);
+		verify(topicRepository, never()).awardMastery(ids2, 60);
+	}
+	
+	@Test
+	public void testCompleteSessionConcurrentlyCompletedFailure() {
+		when(sessionRepository.findById(ids2)).thenReturn(fullSession);
+		when(sessionRepository.markComplete(ids2)).thenReturn(0);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.completeSession(ids2));
+		assertThat(e.getMessage()).isEqualTo("la sessione è già stata completata");
+		verify(topicRepository, never()).awardMastery(ids2, 60);
 	}
 	
 	@Test
@@ -234,28 +319,64 @@ public class StudySessionServiceTest {
 	
 	@Test
 	public void testDeleteSessionSuccess() {
-		when(sessionRepository.findById(ids2)).thenReturn(fullSession);
+		stubSessionTransaction();
+		when(sessionRepository.deleteByIds(List.of(ids2))).thenReturn(1);
 		service.deleteSession(ids2);
-		verify(sessionRepository, times(1)).delete(ids2);
+		verify(sessionRepository, never()).findById(ids2);
+		verify(sessionRepository, never()).delete(ids2);
 	}
 	
 	@Test
 	public void testDeleteNullSessionFailure() {
+		stubSessionTransaction();
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.deleteSession(10L));
 		assertThat(e.getMessage()).isEqualTo("la sessione da rimuovere è null");
 		verify(sessionRepository, times(0)).delete(10L);
 	}
 	
 	@Test
-	public void testDeleteSessionVerifyTopicRemoveSessionCall() {
-		StudySession sessionWithTwoTopics = new StudySession(LocalDate.now().plusDays(1), 60, "una nota", 
-			new ArrayList<>(List.of(topic1, topic2)));
-		sessionWithTwoTopics.setId(3L);
-		when(sessionRepository.findById(3L)).thenReturn(sessionWithTwoTopics);
+	public void testDeleteSessionDoesNotTouchTopics() {
+		stubSessionTransaction();
+		when(sessionRepository.deleteByIds(List.of(3L))).thenReturn(1);
 		service.deleteSession(3L);
-		assertThat(topic1.getSessionList()).doesNotContain(sessionWithTwoTopics);
-		verify(sessionRepository, times(1)).delete(3L);
-		verify(topicRepository, times(2)).update(any(Topic.class));
+		verify(tm, never()).doInMultiRepositoryTransaction(any());
+		verify(topicRepository, never()).update(any(Topic.class));
+	}
+	
+	@Test
+	public void testDeleteSessionsSuccess() {
+		stubSessionTransaction();
+		when(sessionRepository.deleteByIds(Set.of(ids1, ids2))).thenReturn(2);
+		int result = service.deleteSessions(List.of(ids1, ids2, ids2));
+		assertThat(result).isEqualTo(2);
+		verify(tm, times(1)).doInSessionTransaction(any());
+	}
+	
+	@Test
+	public void testDeleteSessionsWithMissingSessionFailure() {
+		stubSessionTransaction();
+		when(sessionRepository.deleteByIds(Set.of(ids1, 10L))).thenReturn(1);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.deleteSessions(List.of(ids1, 10L)));
+		assertThat(e.getMessage()).isEqualTo("alcune sessioni da rimuovere non esistono");
+	}
+	
+	@Test
+	public void testDeleteSessionsWithEmptyIdsSkipsTransaction() {
+		assertThat(service.deleteSessions(List.of())).isZero();
+		verify(tm, never()).doInSessionTransaction(any());
+	}
+	
+	@Test
+	public void testDeleteSessionsWithNullIdsFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.deleteSessions(null));
+		assertThat(e.getMessage()).isEqualTo("la lista delle sessioni è null");
+	}
+	
+	private void stubSessionTransaction() {
+		when(tm.doInSessionTransaction(any())).thenAnswer(answer -> {
+			StudySessionTransactionCode<?> code = answer.getArgument(0);
+			return code.apply(sessionRepository);
+		});
 	}
 	
 	@Test
@@ -272,8 +393,124 @@ public class StudySessionServiceTest {
 			new ArrayList<>(List.of(topic1)));
 		singleTopicSession.setId(3L);
 		when(sessionRepository.findById(3L)).thenReturn(singleTopicSession);
-		StudySession result = service.completeSession(3L);
-		verify(sessionRepository, times(1)).update(singleTopicSession);
-		assertThat(result.isComplete()).isTrue();
+		when(sessionRepository.markComplete(3L)).thenReturn(1);
+		when(tm.getCurrentEntityManager()).thenReturn(em);
+		service.completeSession(3L);
+		verify(topicRepository, times(1)).awardMastery(3L, 60);
+		verify(sessionRepository, never()).update(singleTopicSession);
+	}
+	
+	@Test
+	public void testBulkCreateSessionsCommitsOneTransactionPerChunk() {
+		when(tm.getCurrentEntityManager()).thenReturn(em);
+		when(topicRepository.findExistingIds(any())).thenReturn(Set.of(idt1, idt2));
+		long[] nextId = {100L};
+		Mockito.doAnswer(invocation -> {
+			invocation.<StudySession>getArgument(0).setId(nextId[0]++);
+			return null;
+		}).when(sessionRepository).save(any(StudySession.class));
+		Stream<SessionSpec> specs = Stream.of(
+			new SessionSpec(date, 30, "prima", List.of(idt1)),
+			new SessionSpec(date, 45, "seconda", List.of(idt1, idt2)),
+			new SessionSpec(date, 60, "terza", List.of(idt2, idt2)));
+		int created = service.bulkCreateSessions(specs, 2);
+		assertThat(created).isEqualTo(3);
+		verify(tm, times(2)).doInMultiRepositoryTransaction(any());
+		verify(sessionRepository, times(3)).save(any(StudySession.class));
+		verify(em, times(2)).clear();
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<Long, List<Long>>> links = ArgumentCaptor.forClass(Map.class);
+		InOrder inOrder = Mockito.inOrder(sessionRepository);
+		for (int chunk = 0; chunk < 2; chunk++) {
+			inOrder.verify(sessionRepository).flush();
+			inOrder.verify(sessionRepository).saveTopicLinks(links.capture());
+		}
+		assertThat(links.getAllValues().get(0)).containsExactly(
+			Map.entry(100L, List.of(idt1)), Map.entry(101L, List.of(idt1, idt2)));
+		assertThat(links.getAllValues().get(1)).containsExactly(Map.entry(102L, List.of(idt2)));
+	}
+	
+	@Test
+	public void testBulkCreateSessionsSkipsDuplicates() {
+		when(tm.getCurrentEntityManager()).thenReturn(em);
+		when(topicRepository.findExistingIds(any())).thenReturn(Set.of(idt1));
+		when(sessionRepository.findByNotesAndDates(any(), any())).thenReturn(List.of(fullSession));
+		Stream<SessionSpec> specs = Stream.of(
+			new SessionSpec(fullSession.getDate(), fullSession.getDuration(), fullSession.getNote(), List.of(idt1)),
+			new SessionSpec(date, 30, "nuova", List.of(idt1)),
+			new SessionSpec(date, 30, "nuova", List.of(idt1)));
+		int created = service.bulkCreateSessions(specs);
+		assertThat(created).isEqualTo(1);
+		verify(sessionRepository, times(1)).findByNotesAndDates(Set.of("una nota", "nuova"), Set.of(date));
+		verify(sessionRepository, times(1)).save(any(StudySession.class));
+	}
+	
+	@Test
+	public void testBulkCreateSessionsWithUnknownTopicFailure() {
+		when(topicRepository.findExistingIds(any())).thenReturn(Set.of(idt1));
+		Stream<SessionSpec> specs = Stream.of(new SessionSpec(date, 30, "prima", List.of(idt1, idt2)));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.bulkCreateSessions(specs));
+		assertThat(e.getMessage()).isEqualTo("non esiste un topic con id " + idt2);
+		verify(sessionRepository, never()).save(any(StudySession.class));
+	}
+	
+	@Test
+	public void testBulkCreateSessionsWithoutTopicsFailure() {
+		Stream<SessionSpec> specs = Stream.of(new SessionSpec(date, 30, "prima", null));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.bulkCreateSessions(specs));
+		assertThat(e.getMessage()).isEqualTo("la session deve avere almeno un topic");
+	}
+	
+	@Test
+	public void testBulkCreateSessionsWithNonPositiveChunkSizeFailure() {
+		Stream<SessionSpec> specs = Stream.empty();
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.bulkCreateSessions(specs, 0));
+		assertThat(e.getMessage()).isEqualTo("la dimensione del chunk deve essere positiva");
+	}
+	
+	@Test
+	public void testBulkCreateSessionsWithEmptyStreamOpensNoTransaction() {
+		int created = service.bulkCreateSessions(Stream.empty());
+		assertThat(created).isZero();
+		verify(tm, never()).doInMultiRepositoryTransaction(any());
+	}
+	
+	@Test
+	public void testCompleteSessionsUsesOneTransactionAndAggregatedAwards() {
+		Set<Long> ids = Set.of(ids1, ids2);
+		Map<Long, Integer> awards = Map.of(idt1, 20, idt2, 8);
+		when(sessionRepository.markComplete(ids)).thenReturn(2);
+		when(sessionRepository.findMasteryAwards(ids)).thenReturn(awards);
+		when(sessionRepository.findByIds(ids)).thenReturn(List.of(session1, fullSession));
+		when(tm.getCurrentEntityManager()).thenReturn(em);
+		List<StudySession> result = service.completeSessions(List.of(ids1, ids2, ids1));
+		InOrder inOrder = Mockito.inOrder(sessionRepository, topicRepository, em);
+		inOrder.verify(sessionRepository).markComplete(ids);
+		inOrder.verify(topicRepository).awardMastery(awards);
+		inOrder.verify(em).clear();
+		inOrder.verify(sessionRepository).findByIds(ids);
+		verify(tm, times(1)).doInMultiRepositoryTransaction(any());
+		assertThat(result).containsExactly(session1, fullSession);
+	}
+	
+	@Test
+	public void testCompleteSessionsWithAlreadyCompletedSessionFailure() {
+		Set<Long> ids = Set.of(ids1, ids2);
+		when(sessionRepository.markComplete(ids)).thenReturn(1);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.completeSessions(List.of(ids1, ids2)));
+		assertThat(e.getMessage()).isEqualTo("alcune sessioni non esistono o sono già state completate");
+		verify(topicRepository, never()).awardMastery(Mockito.<Map<Long, Integer>>any());
+	}
+	
+	@Test
+	public void testCompleteSessionsWithEmptyIdsSkipsTransaction() {
+		assertThat(service.completeSessions(List.of())).isEmpty();
+		verify(tm, never()).doInMultiRepositoryTransaction(any());
+	}
+	
+	@Test
+	public void testCompleteSessionsWithNullIdsFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.completeSessions(null));
+		assertThat(e.getMessage()).isEqualTo("la lista delle sessioni è null");
 	}
-}
\ No newline at end of file
+}
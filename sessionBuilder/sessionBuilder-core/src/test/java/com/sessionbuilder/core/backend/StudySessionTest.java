@@ -2,10 +2,12 @@ package com.sessionbuilder.core.backend;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.assertThrows;
+import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.collection.spi.PersistentSet;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -395,12 +397,14 @@ public class StudySessionTest {
 	}
 
 	@Test
-	public void testEqualsWithSameId() {
+	public void testEqualsIsKeptWhenIdIsAssigned() {
 		StudySession session1 = new StudySession(date, 60, note, topics);
+		StudySession before = session1;
 		session1.setId(1L);
+		assertThat(session1.equals(before)).isTrue();
 		StudySession session2 = new StudySession(date.plusDays(1), 30, "another note", topics);
 		session2.setId(1L);
-		assertThat(session1.equals(session2)).isTrue();
+		assertThat(session1.equals(session2)).isFalse();
 	}
 
 	@Test
@@ -422,12 +426,24 @@ public class StudySessionTest {
 	}
 
 	@Test
-	public void testHashCodeForEqualObjects() {
+	public void testEmptyConstructorLeavesKeyToPersist() {
+		StudySession loaded1 = new StudySession();
+		StudySession loaded2 = new StudySession();
+		assertThat(loaded1.equals(loaded2)).isFalse();
+		assertThat(loaded1.equals(loaded1)).isTrue();
+		loaded1.assignUuid();
+		int persistedHashCode = loaded1.hashCode();
+		loaded1.assignUuid();
+		assertThat(loaded1.hashCode()).isEqualTo(persistedHashCode);
+		assertThat(loaded1.equals(loaded2)).isFalse();
+	}
+	
+	@Test
+	public void testHashCodeDoesNotChangeWhenIdIsAssigned() {
 		StudySession session1 = new StudySession(date, 60, note, topics);
+		int transientHashCode = session1.hashCode();
 		session1.setId(1L);
-		StudySession session2 = new StudySession(date.plusDays(1), 30, "another note", topics);
-		session2.setId(1L);
-		assertThat(session1).hasSameHashCodeAs(session2);
+		assertThat(session1.hashCode()).isEqualTo(transientHashCode);
 	}
 
 	@Test
@@ -449,6 +465,15 @@ public class StudySessionTest {
 	assertThat(other.toString()).contains("Completed: true");
 	}
 	
+	@Test
+	public void testToStringOfDetachedSessionWithUnloadedTopics() throws Exception {
+		StudySession session = new StudySession(date, 60, note, new ArrayList<>());
+		Field topicList = StudySession.class.getDeclaredField("topicList");
+		topicList.setAccessible(true);
+		topicList.set(session, new PersistentSet<Topic>());
+		assertThat(session.toString()).contains("topics{non caricati}");
+	}
+	
 	@Test
 	public void testSetDuration() {
 		StudySession other = new StudySession(LocalDate.now().plusDays(1), 60, "Test note", new ArrayList<>());
@@ -456,4 +481,18 @@ public class StudySessionTest {
 		other.setDuration(90);
 		assertThat(other.getDuration()).isEqualTo(90);
 	}
+	
+	@Test
+	public void testRemoveTopicLinkedBeforeIdsWereAssigned() {
+		Topic first = new Topic("Storia", "Medioevo", 2, new ArrayList<>());
+		Topic second = new Topic("Arte", "Barocco", 3, new ArrayList<>());
+		StudySession studySession = new StudySession(date, 60, note, new ArrayList<>(List.of(first, second)));
+		first.setId(10L);
+		second.setId(11L);
+		studySession.setId(12L);
+		studySession.removeTopic(second);
+		assertThat(studySession.getTopicList()).containsExactly(first);
+		assertThat(second.getSessionList()).isEmpty();
+		assertThat(first.getSessionList()).containsExactly(studySession);
+	}
 }
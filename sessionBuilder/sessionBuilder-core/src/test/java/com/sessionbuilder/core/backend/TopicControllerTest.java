@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.assertThrows;
 
@@ -137,6 +138,22 @@ public class TopicControllerTest {
 		assertThat(thrown).isEqualTo(exception);
 	}
 	
+	@Test
+	public void testHandleGetTopicsPageLoadsAssociations() {
+		Page<Topic> page = new Page<>(List.of(topic), true);
+		when(service.getTopicsPage(5L, 20, FetchPlan.WITH_ASSOCIATIONS)).thenReturn(page);
+		assertThat(topicController.handleGetTopicsPage(5L, 20)).isEqualTo(page);
+	}
+	
+	@Test
+	public void testHandleGetTopicsPageWithException() {
+		RuntimeException exception = new RuntimeException("pagina di topic non estratta");
+		when(service.getTopicsPage(0L, 20, FetchPlan.WITH_ASSOCIATIONS)).thenThrow(exception);
+		RuntimeException thrown = assertThrows(RuntimeException.class, () -> topicController.handleGetTopicsPage(0L, 20));
+		verify(viewCallback).onTopicError("Errore nel caricamento dei topic");
+		assertThat(thrown).isEqualTo(exception);
+	}
+	
 	@Test
 	public void testHandleCreateTopicSuccess() {
 		when(service.createTopic(name, description, difficulty, new ArrayList<>())).thenReturn(topic);
@@ -149,7 +166,7 @@ public class TopicControllerTest {
 	@Test
 	public void testHandleCreateTopicWithException() {
 		RuntimeException exception = new RuntimeException("Creation failed");
-		List<StudySession> sessionList = new ArrayList<>();
+		List<Long> sessionList = new ArrayList<>();
 		when(service.createTopic(name, description, difficulty, new ArrayList<>())).thenThrow(exception);
 		RuntimeException thrown = assertThrows(RuntimeException.class, () -> {
 			topicController.handleCreateTopic(name, description, difficulty, sessionList);
@@ -175,7 +192,7 @@ public class TopicControllerTest {
 	topicController.setViewCallback(null);
 	RuntimeException exception = new RuntimeException("Creation failed");
 	when(service.createTopic(name, description, difficulty, new ArrayList<>())).thenThrow(exception);
-	List<StudySession> sessionList = new ArrayList<>();
+	List<Long> sessionList = new ArrayList<>();
 	RuntimeException thrown = assertThrows(RuntimeException.class, () -> {
 	topicController.handleCreateTopic(name, description, difficulty, sessionList);
 	});
@@ -335,6 +352,40 @@ public class TopicControllerTest {
 		verify(service).calculatePercentageOfCompletion(idt1);
 	}
 	
+	@Test
+	public void testHandleGetAllTopicStats() {
+		Map<Long, TopicStats> stats = Map.of(idt1, new TopicStats(idt1, 90, 1, 2, 3));
+		when(service.getTopicStats()).thenReturn(stats);
+		Map<Long, TopicStats> result = topicController.handleGetAllTopicStats();
+		assertThat(result).isEqualTo(stats);
+	}
+	
+	@Test
+	public void testHandleGetAllTopicStatsWithException() {
+		RuntimeException exception = new RuntimeException("query failed");
+		when(service.getTopicStats()).thenThrow(exception);
+		RuntimeException thrown = assertThrows(RuntimeException.class, () -> topicController.handleGetAllTopicStats());
+		verify(viewCallback).onTopicError("Errore nel calcolo delle statistiche dei topic");
+		assertThat(thrown).isEqualTo(exception);
+	}
+	
+	@Test
+	public void testHandleGetTopicStats() {
+		Map<Long, TopicStats> stats = Map.of(idt1, new TopicStats(idt1, 90, 1, 2, 3));
+		when(service.getTopicStats(List.of(idt1))).thenReturn(stats);
+		Map<Long, TopicStats> result = topicController.handleGetTopicStats(List.of(idt1));
+		assertThat(result).isEqualTo(stats);
+	}
+	
+	@Test
+	public void testHandleGetTopicStatsWithNullCallbackAndException() {
+		topicController.setViewCallback(null);
+		RuntimeException exception = new RuntimeException("query failed");
+		when(service.getTopicStats(List.of(idt1))).thenThrow(exception);
+		RuntimeException thrown = assertThrows(RuntimeException.class, () -> topicController.handleGetTopicStats(List.of(idt1)));
+		assertThat(thrown).isEqualTo(exception);
+	}
+	
 	@Test
 	public void testDeleteTopic() {
 		when(service.getTopicById(idt1)).thenReturn(topic);
@@ -4,14 +4,23 @@ import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.hibernate.jpa.HibernateHints;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -26,7 +35,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
 
@@ -64,25 +73,17 @@ public class TopicRepositoryTest {
 	}
 	
 	@Test
-	public void testFindByIdSuccess() {
-		String jpql = "SELECT t FROM Topic t LEFT JOIN FETCH t.sessionList WHERE t.id = :id";
-		when(em.createQuery(jpql, Topic.class)).thenReturn(typedQuery);
-		when(typedQuery.setParameter("id", id)).thenReturn(typedQuery);
-		when(typedQuery.getSingleResult()).thenReturn(topic);
+	public void testFindByIdGoesThroughThePersistenceContextAndSecondLevelCache() {
+		when(em.find(Topic.class, id)).thenReturn(topic);
 		Topic result = topicRepository.findById(id);
-		InOrder inOrder = Mockito.inOrder(em, typedQuery);
-		inOrder.verify(em).createQuery(jpql, Topic.class);
-		inOrder.verify(typedQuery).setParameter("id", id);
-		inOrder.verify(typedQuery).getSingleResult();
+		verify(em).find(Topic.class, id);
+		verify(em, never()).createQuery(anyString(), any());
 		assertThat(result).isEqualTo(topic);
 	}
 
 	@Test
 	public void testFindByIdFailure() {
-		String jpql = "SELECT t FROM Topic t LEFT JOIN FETCH t.sessionList WHERE t.id = :id";
-		when(em.createQuery(jpql, Topic.class)).thenReturn(typedQuery);
-		when(typedQuery.setParameter("id", id)).thenReturn(typedQuery);
-		when(typedQuery.getSingleResult()).thenThrow(new NoResultException());
+		when(em.find(Topic.class, id)).thenReturn(null);
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> topicRepository.findById(id));
 		assertThat(e.getMessage()).isEqualTo("non esiste un topic con tale id");
 	}
@@ -114,6 +115,7 @@ public class TopicRepositoryTest {
 		assertThat(capturedNames.get(2)).isEqualTo("difficulty");
 		assertThat(capturedValues.get(2)).isEqualTo(difficulty);
 		assertThat(result).isEqualTo(expectedTopic);
+		verify(typedQuery, never()).setHint(anyString(), any());
 	}
 
 
@@ -160,6 +162,116 @@ public class TopicRepositoryTest {
 		assertThat(result).isEqualTo(allTopics);
 	}
 	
+	@Test
+	public void testFindAllWithAssociationsFetchesSessionsInTheSameQuery() {
+		Topic topicA = new Topic();
+		List<Topic> allTopics = new ArrayList<>(List.of(topicA));
+		String jpql = "SELECT t FROM Topic t LEFT JOIN FETCH t.sessionList";
+		when(em.createQuery(jpql, Topic.class)).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(allTopics);
+		List<Topic> result = topicRepository.findAll(FetchPlan.WITH_ASSOCIATIONS);
+		verify(em).createQuery(jpql, Topic.class);
+		assertThat(result).isEqualTo(allTopics);
+	}
+	
+	@Test
+	public void testFindPageAfterSeeksOnIdWithLimit() {
+		String jpql = "SELECT t FROM Topic t WHERE t.id > :afterId ORDER BY t.id";
+		when(em.createQuery(jpql, Topic.class)).thenReturn(typedQuery);
+		when(typedQuery.setParameter("afterId", 10L)).thenReturn(typedQuery);
+		when(typedQuery.setMaxResults(5)).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(List.of(topic));
+		List<Topic> result = topicRepository.findPageAfter(10L, 5, FetchPlan.SUMMARY);
+		assertThat(result).containsExactly(topic);
+		verify(em, times(1)).createQuery(anyString(), any());
+	}
+	
+	@Test
+	public void testFindPageAfterWithAssociationsFetchesSessionsOfThePageOnly() {
+		topic.setId(11L);
+		String jpql = "SELECT t FROM Topic t WHERE t.id > :afterId ORDER BY t.id";
+		String fetchJpql = "SELECT DISTINCT t FROM Topic t LEFT JOIN FETCH t.sessionList WHERE t.id IN :ids";
+		when(em.createQuery(jpql, Topic.class)).thenReturn(typedQuery);
+		when(em.createQuery(fetchJpql, Topic.class)).thenReturn(typedQuery);
+		when(typedQuery.setParameter(anyString(), any())).thenReturn(typedQuery);
+		when(typedQuery.setMaxResults(5)).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(List.of(topic));
+		List<Topic> result = topicRepository.findPageAfter(10L, 5, FetchPlan.WITH_ASSOCIATIONS);
+		assertThat(result).containsExactly(topic);
+		verify(typedQuery).setParameter("ids", List.of(11L));
+	}
+	
+	@Test
+	public void testStreamAllUsesFetchSizeAndDetachesConsumedRows() {
+		String jpql = "SELECT t FROM Topic t";
+		when(em.createQuery(jpql, Topic.class)).thenReturn(typedQuery);
+		when(typedQuery.setHint(anyString(), any())).thenReturn(typedQuery);
+		when(typedQuery.getResultStream()).thenReturn(Stream.of(topic));
+		List<Topic> result = topicRepository.streamAll(100).toList();
+		assertThat(result).containsExactly(topic);
+		verify(typedQuery).setHint(HibernateHints.HINT_FETCH_SIZE, 100);
+		verify(typedQuery).setHint(HibernateHints.HINT_READ_ONLY, true);
+		verify(em).detach(topic);
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testFindStatsAggregatesInTheDatabase() {
+		TypedQuery<TopicStats> statsQuery = Mockito.mock(TypedQuery.class);
+		TopicStats stats = new TopicStats(1L, 150, 1, 2, 3);
+		String jpql = "SELECT new com.sessionbuilder.core.backend.TopicStats("
+			+ "t.id, COALESCE(SUM(s.duration), 0), SUM(CASE WHEN s.isComplete = true THEN 1 ELSE 0 END), COUNT(s), t.masteryLevel) "
+			+ "FROM Topic t LEFT JOIN t.sessionList s WHERE t.id = :id GROUP BY t.id, t.masteryLevel";
+		when(em.createQuery(jpql, TopicStats.class)).thenReturn(statsQuery);
+		when(statsQuery.setParameter("id", 1L)).thenReturn(statsQuery);
+		when(statsQuery.getResultList()).thenReturn(List.of(stats));
+		assertThat(topicRepository.findStats(1L)).isEqualTo(stats);
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testFindStatsOfMissingTopicReturnsNull() {
+		TypedQuery<TopicStats> statsQuery = Mockito.mock(TypedQuery.class);
+		when(em.createQuery(anyString(), Mockito.eq(TopicStats.class))).thenReturn(statsQuery);
+		when(statsQuery.setParameter("id", 1L)).thenReturn(statsQuery);
+		when(statsQuery.getResultList()).thenReturn(List.of());
+		assertThat(topicRepository.findStats(1L)).isNull();
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testFindStatsForManyTopicsUsesOneGroupByQuery() {
+		TypedQuery<TopicStats> statsQuery = Mockito.mock(TypedQuery.class);
+		List<Long> ids = List.of(1L, 2L);
+		List<TopicStats> stats = List.of(new TopicStats(1L, 90, 0, 1, 0), new TopicStats(2L, 0, 0, 0, 0));
+		String jpql = "SELECT new com.sessionbuilder.core.backend.TopicStats("
+			+ "t.id, COALESCE(SUM(s.duration), 0), SUM(CASE WHEN s.isComplete = true THEN 1 ELSE 0 END), COUNT(s), t.masteryLevel) "
+			+ "FROM Topic t LEFT JOIN t.sessionList s WHERE t.id IN :ids GROUP BY t.id, t.masteryLevel ORDER BY t.id";
+		when(em.createQuery(jpql, TopicStats.class)).thenReturn(statsQuery);
+		when(statsQuery.setParameter("ids", ids)).thenReturn(statsQuery);
+		when(statsQuery.getResultList()).thenReturn(stats);
+		assertThat(topicRepository.findStats(ids)).isEqualTo(stats);
+	}
+	
+	@Test
+	public void testFindStatsWithNoIdsSkipsQuery() {
+		assertThat(topicRepository.findStats(List.<Long>of())).isEmpty();
+		verify(em, never()).createQuery(anyString(), any());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testFindAllStats() {
+		TypedQuery<TopicStats> statsQuery = Mockito.mock(TypedQuery.class);
+		List<TopicStats> stats = List.of(new TopicStats(1L, 90, 0, 1, 0));
+		String jpql = "SELECT new com.sessionbuilder.core.backend.TopicStats("
+			+ "t.id, COALESCE(SUM(s.duration), 0), SUM(CASE WHEN s.isComplete = true THEN 1 ELSE 0 END), COUNT(s), t.masteryLevel) "
+			+ "FROM Topic t LEFT JOIN t.sessionList s GROUP BY t.id, t.masteryLevel ORDER BY t.id";
+		when(em.createQuery(jpql, TopicStats.class)).thenReturn(statsQuery);
+		when(statsQuery.getResultList()).thenReturn(stats);
+		assertThat(topicRepository.findAllStats()).isEqualTo(stats);
+	}
+	
 	@Test
 	public void testFindAllFailure() {
 		String jpql = "SELECT t FROM Topic t";
@@ -181,6 +293,22 @@ public class TopicRepositoryTest {
 		assertThat(e.getMessage()).isEqualTo("il topic da persistere è null");
 	}
 	
+	@Test
+	public void testFlushTranslatesUniqueViolationIntoDuplicateError() {
+		Mockito.doThrow(new ConstraintViolationException("duplicate", new SQLException(), ConstraintKind.UNIQUE, "uk_topic_name_description_difficulty"))
+			.when(em).flush();
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> topicRepository.flush());
+		assertThat(e.getMessage()).isEqualTo("Esiste già un topic con questi valori");
+	}
+	
+	@Test
+	public void testFlushPropagatesOtherConstraintViolations() {
+		ConstraintViolationException violation = new ConstraintViolationException("fk", new SQLException(), ConstraintKind.FOREIGN_KEY, "fk_session");
+		Mockito.doThrow(violation).when(em).flush();
+		ConstraintViolationException e = assertThrows(ConstraintViolationException.class, () -> topicRepository.flush());
+		assertThat(e).isSameAs(violation);
+	}
+	
 	@Test
 	public void testUpdateSuccess() {
 		topicRepository.update(topic);
@@ -207,5 +335,103 @@ public class TopicRepositoryTest {
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> topicRepository.delete(id));
 		assertThat(e.getMessage()).isEqualTo("il topic da rimuovere è null");
 	}
-
+	
+	@Test
+	public void testFindByNamesUsesSingleInQuery() {
+		Set<String> names = Set.of("Biografie", "Cucina");
+		String jpql = "SELECT t FROM Topic t WHERE t.name IN :names";
+		when(em.createQuery(jpql, Topic.class)).thenReturn(typedQuery);
+		when(typedQuery.setParameter("names", names)).thenReturn(typedQuery);
+		when(typedQuery.getResultList()).thenReturn(List.of(topic));
+		List<Topic> result = topicRepository.findByNames(names);
+		assertThat(result).containsExactly(topic);
+	}
+	
+	@Test
+	public void testFindByNamesWithNoNamesSkipsQuery() {
+		assertThat(topicRepository.findByNames(List.of())).isEmpty();
+		verify(em, never()).createQuery(anyString(), any());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testFindExistingIdsReturnsOnlyPersistedIds() {
+		TypedQuery<Long> idQuery = Mockito.mock(TypedQuery.class);
+		List<Long> ids = List.of(1L, 2L, 3L);
+		String jpql = "SELECT t.id FROM Topic t WHERE t.id IN :ids";
+		when(em.createQuery(jpql, Long.class)).thenReturn(idQuery);
+		when(idQuery.setParameter("ids", ids)).thenReturn(idQuery);
+		when(idQuery.getResultList()).thenReturn(List.of(1L, 3L));
+		Set<Long> result = topicRepository.findExistingIds(ids);
+		assertThat(result).containsExactlyInAnyOrder(1L, 3L);
+	}
+	
+	@Test
+	public void testAwardMasteryBindsPointsForEveryDifficulty() {
+		Query query = Mockito.mock(Query.class);
+		when(em.createQuery(anyString())).thenReturn(query);
+		when(query.setParameter(anyString(), any())).thenReturn(query);
+		when(query.executeUpdate()).thenReturn(2);
+		int result = topicRepository.awardMastery(7L, 90);
+		assertThat(result).isEqualTo(2);
+		verify(query).setParameter("sessionId", 7L);
+		verify(query).setParameter("points1", 15);
+		verify(query).setParameter("points3", 15);
+		verify(query).setParameter("points5", 20);
+	}
+	
+	@Test
+	public void testAwardMasteryShortSessionPenalizesHardTopics() {
+		Query query = Mockito.mock(Query.class);
+		when(em.createQuery(anyString())).thenReturn(query);
+		when(query.setParameter(anyString(), any())).thenReturn(query);
+		topicRepository.awardMastery(7L, 60);
+		verify(query).setParameter("points2", 10);
+		verify(query).setParameter("points4", 8);
+		verify(query).setParameter("points5", 13);
+	}
+	
+	@Test
+	public void testAwardMasteryGroupsTopicsByPointsInOneBulkUpdate() {
+		Query query = Mockito.mock(Query.class);
+		ArgumentCaptor<String> hql = ArgumentCaptor.forClass(String.class);
+		when(em.createQuery(hql.capture())).thenReturn(query);
+		when(query.setParameter(anyString(), any())).thenReturn(query);
+		Map<Long, Integer> points = Map.of(4L, 8, 3L, 33, 5L, 8);
+		topicRepository.awardMastery(points);
+		assertThat(hql.getValue()).isEqualTo("UPDATE Topic t SET t.masteryLevel = t.masteryLevel + CASE"
+			+ " WHEN t.id IN :ids0 THEN :points0 WHEN t.id IN :ids1 THEN :points1 ELSE 0 END,"
+			+ " t.version = t.version + 1 WHERE t.id IN :ids");
+		verify(query).setParameter("ids", points.keySet());
+		verify(query).setParameter("ids0", List.of(4L, 5L));
+		verify(query).setParameter("points0", 8);
+		verify(query).setParameter("ids1", List.of(3L));
+		verify(query).setParameter("points1", 33);
+		verify(query).executeUpdate();
+		verify(em, never()).unwrap(Session.class);
+	}
+	
+	@Test
+	public void testAwardMasteryWithNoTopicsSkipsUpdate() {
+		topicRepository.awardMastery(Map.of());
+		verify(em, never()).createQuery(anyString());
+	}
+	
+	@Test
+	public void testDeleteByIdsUsesSingleBulkDelete() {
+		Query query = Mockito.mock(Query.class);
+		List<Long> ids = List.of(1L, 2L);
+		when(em.createQuery("DELETE FROM Topic t WHERE t.id IN :ids")).thenReturn(query);
+		when(query.setParameter("ids", ids)).thenReturn(query);
+		when(query.executeUpdate()).thenReturn(2);
+		assertThat(topicRepository.deleteByIds(ids)).isEqualTo(2);
+		verify(em, never()).find(any(), any());
+		verify(em, never()).remove(any());
+	}
+	
+	@Test
+	public void testDeleteByIdsWithEmptyIdsSkipsQuery() {
+		assertThat(topicRepository.deleteByIds(List.of())).isZero();
+		verify(em, never()).createQuery(anyString());
+	}
 }
@@ -12,6 +12,9 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -24,6 +27,8 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import jakarta.persistence.EntityManager;
+
 
 @RunWith(MockitoJUnitRunner.class)
 public class TopicServiceTest {
@@ -37,6 +42,9 @@ public class TopicServiceTest {
 	@Mock
 	private TransactionManager tm;
 	
+	@Mock
+	private EntityManager em;
+	
 	@InjectMocks
 	private TopicService service;
 	
@@ -61,6 +69,10 @@ public class TopicServiceTest {
 			TopicTransactionCode<?> code = answer.getArgument(0);
 			return code.apply(topicRepository);
 		});
+		when(tm.doInReadOnlyTopicTransaction(any())).thenAnswer(answer -> {
+			TopicTransactionCode<?> code = answer.getArgument(0);
+			return code.apply(topicRepository);
+		});
 		when(tm.doInMultiRepositoryTransaction(any())).thenAnswer(answer -> {
 			MultiRepositoryTransactionCode<?> code = answer.getArgument(0);
 			RepositoryContext context = new RepositoryContext() {
@@ -99,6 +111,8 @@ public class TopicServiceTest {
 		when(topicRepository.findById(idt1)).thenReturn(topic);
 		Topic result = service.getTopicById(idt1);
 		assertThat(result).isEqualTo(topic);
+		verify(tm).doInReadOnlyTopicTransaction(any());
+		verify(tm, never()).doInTopicTransaction(any());
 	}
 	
 	@Test
@@ -111,22 +125,73 @@ public class TopicServiceTest {
 	@Test
 	public void testGetAllTopicsSuccess() {
 		List<Topic> allTopics = new ArrayList<>(List.of(topic,topic2));
-		when(topicRepository.findAll()).thenReturn(allTopics);
+		when(topicRepository.findAll(FetchPlan.WITH_ASSOCIATIONS)).thenReturn(allTopics);
 		List<Topic> result = service.getAllTopics();
 		assertThat(result).isEqualTo(allTopics);
 	}
 	
+	@Test
+	public void testGetAllTopicsWithSummaryPlanSuccess() {
+		List<Topic> allTopics = new ArrayList<>(List.of(topic,topic2));
+		when(topicRepository.findAll(FetchPlan.SUMMARY)).thenReturn(allTopics);
+		List<Topic> result = service.getAllTopics(FetchPlan.SUMMARY);
+		assertThat(result).isEqualTo(allTopics);
+		verify(topicRepository, never()).findAll(FetchPlan.WITH_ASSOCIATIONS);
+	}
+	
 	@Test
 	public void testGetAllTopicsFailure() {
-		when(topicRepository.findAll()).thenThrow(new IllegalArgumentException());
+		when(topicRepository.findAll(FetchPlan.WITH_ASSOCIATIONS)).thenThrow(new IllegalArgumentException());
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.getAllTopics());
 		assertThat(e.getMessage()).isEqualTo("Errore durante il caricamento dei topic");
 	}
 	
+	@Test
+	public void testGetTopicsPageRequestsOneExtraRowToDetectNextPage() {
+		when(topicRepository.findPageAfter(0L, 3, FetchPlan.SUMMARY)).thenReturn(List.of(topic, topic2, new Topic()));
+		Page<Topic> page = service.getTopicsPage(0L, 2, FetchPlan.SUMMARY);
+		assertThat(page.content()).containsExactly(topic, topic2);
+		assertThat(page.hasNext()).isTrue();
+		assertThat(page.last()).isEqualTo(topic2);
+	}
+	
+	@Test
+	public void testGetTopicsPageLastPage() {
+		when(topicRepository.findPageAfter(idt1, 3, FetchPlan.WITH_ASSOCIATIONS)).thenReturn(List.of(topic2));
+		Page<Topic> page = service.getTopicsPage(idt1, 2, FetchPlan.WITH_ASSOCIATIONS);
+		assertThat(page.content()).containsExactly(topic2);
+		assertThat(page.hasNext()).isFalse();
+	}
+	
+	@Test
+	public void testGetTopicsPageWithNonPositiveSizeFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.getTopicsPage(0L, 0, FetchPlan.SUMMARY));
+		assertThat(e.getMessage()).isEqualTo("la dimensione della pagina deve essere positiva");
+		verify(tm, never()).doInReadOnlyTopicTransaction(any());
+	}
+	
+	@Test
+	public void testStreamAllTopicsClosesCursorAfterReader() {
+		boolean[] closed = {false};
+		when(topicRepository.streamAll(TopicService.DEFAULT_FETCH_SIZE)).thenReturn(Stream.of(topic, topic2).onClose(() -> closed[0] = true));
+		long count = service.streamAllTopics(Stream::count);
+		assertThat(count).isEqualTo(2);
+		assertThat(closed[0]).isTrue();
+		verify(tm).doInReadOnlyTopicTransaction(any());
+	}
+	
+	@Test
+	public void testStreamAllTopicsWithNonPositiveFetchSizeFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.streamAllTopics(0, Stream::count));
+		assertThat(e.getMessage()).isEqualTo("la fetch size deve essere positiva");
+	}
+	
 	@Test
 	public void testCreateTopicSuccess() {
 		Topic topic1 = service.createTopic(name, description, difficulty, new ArrayList<>());
-		verify(topicRepository,times(1)).save(topic1);
+		InOrder inOrder = Mockito.inOrder(topicRepository);
+		inOrder.verify(topicRepository).save(topic1);
+		inOrder.verify(topicRepository).flush();
 		assertThat(topic1).isNotNull();
 		assertThat(topic1.getName()).isEqualTo(name);
 		assertThat(topic1.getDescription()).isEqualTo(description);
@@ -173,9 +238,10 @@ public class TopicServiceTest {
 	
 	@Test
 	public void testDeleteTopicSuccess() {
-		when(topicRepository.findById(idt1)).thenReturn(topic);
+		when(topicRepository.deleteByIds(List.of(idt1))).thenReturn(1);
 		service.deleteTopic(idt1);
-		verify(topicRepository).delete(idt1);
+		verify(topicRepository, never()).findById(idt1);
+		verify(topicRepository, never()).delete(idt1);
 	}
 	
 	@Test
@@ -184,6 +250,33 @@ public class TopicServiceTest {
 		assertThat(e.getMessage()).isEqualTo("il topic passato è null");
 	}
 	
+	@Test
+	public void testDeleteTopicsSuccess() {
+		when(topicRepository.deleteByIds(Set.of(idt1, idt2))).thenReturn(2);
+		int result = service.deleteTopics(List.of(idt1, idt2, idt1));
+		assertThat(result).isEqualTo(2);
+		verify(tm, times(1)).doInTopicTransaction(any());
+	}
+	
+	@Test
+	public void testDeleteTopicsWithMissingTopicFailure() {
+		when(topicRepository.deleteByIds(Set.of(idt1, 10L))).thenReturn(1);
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.deleteTopics(List.of(idt1, 10L)));
+		assertThat(e.getMessage()).isEqualTo("alcuni topic da rimuovere non esistono");
+	}
+	
+	@Test
+	public void testDeleteTopicsWithEmptyIdsSkipsTransaction() {
+		assertThat(service.deleteTopics(List.of())).isZero();
+		verify(tm, never()).doInTopicTransaction(any());
+	}
+	
+	@Test
+	public void testDeleteTopicsWithNullIdsFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.deleteTopics(null));
+		assertThat(e.getMessage()).isEqualTo("la lista dei topic è null");
+	}
+	
 	@Test
 	public void testAddSessionSuccess() {
 		when(topicRepository.findById(idt2)).thenReturn(topic2);
@@ -249,43 +342,124 @@ public class TopicServiceTest {
 	
 	@Test
 	public void testTotalTimeWithSessionSuccess() {
-		when(topicRepository.findById(idt1)).thenReturn(topic);
-		StudySession session1 = new StudySession(LocalDate.now().plusDays(1), 60, "una nota", new ArrayList<>(List.of(topic)));
-		session1.setId(3L);
-		topic.setSessions(new ArrayList<>(List.of(session,session1)));
+		when(topicRepository.findStats(idt1)).thenReturn(new TopicStats(idt1, 150, 0, 2, 0));
 		Integer result = service.calculateTotalTime(idt1);
 		assertThat(result).isEqualTo(150);
-		assertThat(topic.totalTime()).isEqualTo(150);
+		verify(topicRepository, never()).findById(idt1);
 	}
 	
 	@Test
 	public void testTotalTimeFailure() {
-		when(topicRepository.findById(idt1)).thenReturn(null);
+		when(topicRepository.findStats(idt1)).thenReturn(null);
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.calculateTotalTime(idt1));
 		assertThat(e.getMessage()).isEqualTo("il topic passato è null");
 	}
 	
 	@Test
 	public void testPercentageOfCompletionSuccess() {
-		when(topicRepository.findById(idt1)).thenReturn(topic);
-		StudySession session1 = new StudySession(LocalDate.now().plusDays(1), 60, "una nota", new ArrayList<>(List.of(topic)));
-		session1.setId(3L);
-		session1.setIsComplete(true);
-		topic.setSessions(new ArrayList<>(List.of(session,session1)));
+		when(topicRepository.findStats(idt1)).thenReturn(new TopicStats(idt1, 150, 1, 2, 0));
 		Integer result = service.calculatePercentageOfCompletion(idt1);
 		assertThat(result).isEqualTo(50);
-		assertThat(topic.percentageOfCompletion()).isEqualTo(50);
+		verify(topicRepository, never()).findById(idt1);
 	}
 	
 	@Test
 	public void testPercentageOfCompletionFailure() {
-		when(topicRepository.findById(idt1)).thenReturn(null);
+		when(topicRepository.findStats(idt1)).thenReturn(null);
 		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()-> service.calculatePercentageOfCompletion(idt1));
 		assertThat(e.getMessage()).isEqualTo("il topic passato è null");
 	}
 	
+	@Test
+	public void testGetTopicStatsForAllTopicsInOneTransaction() {
+		TopicStats stats1 = new TopicStats(idt1, 90, 1, 1, 2);
+		TopicStats stats2 = new TopicStats(idt2, 100, 0, 1, 0);
+		when(topicRepository.findAllStats()).thenReturn(List.of(stats1, stats2));
+		Map<Long, TopicStats> result = service.getTopicStats();
+		assertThat(result).containsExactly(Map.entry(idt1, stats1), Map.entry(idt2, stats2));
+		verify(tm, times(1)).doInReadOnlyTopicTransaction(any());
+	}
 	
+	@Test
+	public void testGetTopicStatsForSelectedTopics() {
+		TopicStats stats2 = new TopicStats(idt2, 100, 0, 1, 0);
+		when(topicRepository.findStats(List.of(idt2))).thenReturn(List.of(stats2));
+		Map<Long, TopicStats> result = service.getTopicStats(List.of(idt2));
+		assertThat(result).containsExactly(Map.entry(idt2, stats2));
+	}
 	
+	@Test
+	public void testGetTopicStatsWithNullIdsFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.getTopicStats(null));
+		assertThat(e.getMessage()).isEqualTo("la lista degli id dei topic è null");
+	}
 	
+	@Test
+	public void testBulkCreateTopicsCommitsOneTransactionPerChunk() {
+		when(tm.getCurrentEntityManager()).thenReturn(em);
+		Stream<TopicSpec> specs = Stream.of(
+			new TopicSpec("Cucina", "Pasticceria", 3),
+			new TopicSpec("Enologia", "Chianti", 2),
+			new TopicSpec("Tennis", "Rovescio", 4));
+		int created = service.bulkCreateTopics(specs, 2);
+		assertThat(created).isEqualTo(3);
+		verify(tm, times(2)).doInTopicTransaction(any());
+		verify(topicRepository).findByNames(Set.of("Cucina", "Enologia"));
+		verify(topicRepository).findByNames(Set.of("Tennis"));
+		verify(topicRepository, times(3)).save(any(Topic.class));
+		verify(topicRepository, times(2)).flush();
+		verify(em, never()).flush();
+		verify(em, times(2)).clear();
+	}
 	
+	@Test
+	public void testBulkCreateTopicsKeepsNullDescriptionsDistinct() {
+		when(tm.getCurrentEntityManager()).thenReturn(em);
+		Topic withoutDescription = new Topic(name, null, difficulty, new ArrayList<>());
+		when(topicRepository.findByNames(any())).thenReturn(List.of(withoutDescription));
+		Stream<TopicSpec> specs = Stream.of(
+			new TopicSpec(name, null, difficulty),
+			new TopicSpec(name, null, difficulty));
+		int created = service.bulkCreateTopics(specs);
+		assertThat(created).isEqualTo(2);
+		verify(topicRepository, times(2)).save(any(Topic.class));
+	}
+	
+	@Test
+	public void testBulkCreateTopicsTranslatesUniqueViolationOnFlush() {
+		Mockito.doThrow(new IllegalArgumentException("Esiste già un topic con questi valori")).when(topicRepository).flush();
+		Stream<TopicSpec> specs = Stream.of(new TopicSpec(name, description, difficulty));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.bulkCreateTopics(specs));
+		assertThat(e.getMessage()).isEqualTo("Esiste già un topic con questi valori");
+		verify(em, never()).clear();
+	}
+	
+	@Test
+	public void testBulkCreateTopicsSkipsDuplicates() {
+		when(tm.getCurrentEntityManager()).thenReturn(em);
+		when(topicRepository.findByNames(any())).thenReturn(List.of(topic));
+		Stream<TopicSpec> specs = Stream.of(
+			new TopicSpec(name, description, difficulty),
+			new TopicSpec(name, "Panificazione", difficulty),
+			new TopicSpec(name, "Panificazione", difficulty));
+		int created = service.bulkCreateTopics(specs);
+		assertThat(created).isEqualTo(1);
+		verify(topicRepository, times(1)).findByNames(Set.of(name));
+		verify(topicRepository, times(1)).save(any(Topic.class));
+	}
+	
+	@Test
+	public void testBulkCreateTopicsWithInvalidSpecFailure() {
+		Stream<TopicSpec> specs = Stream.of(new TopicSpec(name, description, 7));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.bulkCreateTopics(specs));
+		assertThat(e.getMessage()).isEqualTo("la difficulty deve essere positiva e minore di 5");
+		verify(topicRepository, never()).save(any(Topic.class));
+	}
+	
+	@Test
+	public void testBulkCreateTopicsWithNonPositiveChunkSizeFailure() {
+		Stream<TopicSpec> specs = Stream.empty();
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.bulkCreateTopics(specs, -1));
+		assertThat(e.getMessage()).isEqualTo("la dimensione del chunk deve essere positiva");
+	}
 }
@@ -0,0 +1,21 @@
+package com.sessionbuilder.core.backend;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class TopicStatsTest {
+	
+	@Test
+	public void testPercentageOfCompletionWithoutSessionsIsZero() {
+		TopicStats stats = new TopicStats(1L, 0, 0, 0, 0);
+		assertThat(stats.percentageOfCompletion()).isZero();
+	}
+	
+	@Test
+	public void testPercentageOfCompletionRoundsLikeTopic() {
+		assertThat(new TopicStats(1L, 90, 1, 3, 0).percentageOfCompletion()).isEqualTo(33);
+		assertThat(new TopicStats(1L, 90, 2, 3, 0).percentageOfCompletion()).isEqualTo(67);
+		assertThat(new TopicStats(1L, 90, 3, 3, 0).percentageOfCompletion()).isEqualTo(100);
+	}
+}
@@ -2,10 +2,12 @@ package com.sessionbuilder.core.backend;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
+import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.collection.spi.PersistentSet;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -85,6 +87,19 @@ public class TopicTest {
 		assertThat(session.getTopicList()).contains(topic);
 	}
 	
+	@Test
+	public void testAddSameSessionTwiceKeepsSingleLink() {
+		Topic topic = new Topic("arte", "rinascimento", 3, new ArrayList<>());
+		topic.setId(5L);
+		StudySession session = new StudySession(LocalDate.now().plusDays(1), 60, "una nota", new ArrayList<>());
+		session.setId(7L);
+		topic.addSession(session);
+		topic.addSession(session);
+		session.addTopic(topic);
+		assertThat(topic.getSessionList()).containsExactly(session);
+		assertThat(session.getTopicList()).containsExactly(topic);
+	}
+	
 	@Test(expected = IllegalArgumentException.class)
 	public void testAddNullSessionToTopicFailure() {
 		Topic topic = new Topic("arte","rinascimento",3, new ArrayList<>());
@@ -216,12 +231,14 @@ public class TopicTest {
 	}
 
 	@Test
-	public void testEqualsWithSameId() {
+	public void testEqualsIsKeptWhenIdIsAssigned() {
 		Topic topic1 = new Topic("A", "B", 1, new ArrayList<>());
+		Topic before = topic1;
 		topic1.setId(1L);
+		assertThat(topic1.equals(before)).isTrue();
 		Topic other = new Topic("C", "D", 2, new ArrayList<>());
 		other.setId(1L);
-		assertThat(topic1.equals(other)).isTrue();
+		assertThat(topic1.equals(other)).isFalse();
 	}
 
 	@Test
@@ -241,14 +258,48 @@ public class TopicTest {
 	}
 
 	@Test
-	public void testHashCodeForEqualObjects() {
+	public void testEmptyConstructorLeavesKeyToPersist() {
+		Topic loaded1 = new Topic();
+		Topic loaded2 = new Topic();
+		assertThat(loaded1.equals(loaded2)).isFalse();
+		assertThat(loaded1.equals(loaded1)).isTrue();
+		loaded1.assignUuid();
+		int persistedHashCode = loaded1.hashCode();
+		loaded1.assignUuid();
+		assertThat(loaded1.hashCode()).isEqualTo(persistedHashCode);
+		assertThat(loaded1.equals(loaded2)).isFalse();
+	}
+	
+	@Test
+	public void testHashCodeDoesNotChangeWhenIdIsAssigned() {
 		Topic topic1 = new Topic("A", "B", 1, new ArrayList<>());
+		int transientHashCode = topic1.hashCode();
 		topic1.setId(1L);
-		Topic other = new Topic("C", "D", 2, new ArrayList<>());
-		other.setId(1L);
-		assertThat(topic1).hasSameHashCodeAs(other);
+		assertThat(topic1.hashCode()).isEqualTo(transientHashCode);
 	}
 	
+	@Test
+	public void testSessionLinkedBeforePersistCanBeRemoved() {
+		Topic topic1 = new Topic("A", "B", 1, new ArrayList<>());
+		Topic topic2 = new Topic("C", "D", 2, new ArrayList<>());
+		StudySession session = new StudySession(LocalDate.now().plusDays(1), 60, "nota", new ArrayList<>(List.of(topic1, topic2)));
+		topic1.setId(1L);
+		session.setId(1L);
+		assertThat(topic1.getSessionList()).contains(session);
+		topic1.removeSession(session);
+		assertThat(topic1.getSessionList()).isEmpty();
+		assertThat(session.getTopicList()).containsExactly(topic2);
+	}
+	
+	@Test
+	public void testToStringOfDetachedTopicWithUnloadedSessions() throws Exception {
+		Topic topic = new Topic("Java", "Programming language", 3, new ArrayList<>());
+		Field sessionList = Topic.class.getDeclaredField("sessionList");
+		sessionList.setAccessible(true);
+		sessionList.set(topic, new PersistentSet<StudySession>());
+		assertThat(topic).hasToString("Topic( name: Java, description: Programming language, difficulty: 3, numSessions: non caricate)");
+	}
+
 	@Test
 	public void testToStringWithNonNullSessionList() {
 		Topic topic = new Topic("Java", "Programming language", 3, new ArrayList<>());
@@ -4,10 +4,21 @@ import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.*;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -15,6 +26,9 @@ import org.mockito.junit.MockitoJUnitRunner;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.RollbackException;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TransactionManagerImplTest {
@@ -458,4 +472,196 @@ public class TransactionManagerImplTest {
 		});
 		assertThat(transactionManager.getEmHolder().get()).isNull();
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testDoInReadOnlyTopicTransactionMarksSessionReadOnly() {
+		Session session = mock(Session.class);
+		when(em.unwrap(Session.class)).thenReturn(session);
+		@SuppressWarnings("unchecked")
+		TopicTransactionCode<String> code = mock(TopicTransactionCode.class);
+		when(code.apply(topicRepository)).thenReturn("topic result");
+		String result = transactionManager.doInReadOnlyTopicTransaction(code);
+		
+		InOrder inOrder = inOrder(transaction, session, code);
+		inOrder.verify(transaction).begin();
+		inOrder.verify(session).setDefaultReadOnly(true);
+		inOrder.verify(session).setHibernateFlushMode(FlushMode.MANUAL);
+		inOrder.verify(session).doWork(any());
+		inOrder.verify(code).apply(topicRepository);
+		inOrder.verify(transaction).commit();
+		verify(em).close();
+		assertThat(result).isEqualTo("topic result");
+	}
+	
+	@Test
+	public void testDoInReadOnlySessionTransactionSuccess() {
+		when(em.unwrap(Session.class)).thenReturn(mock(Session.class));
+		@SuppressWarnings("unchecked")
+		StudySessionTransactionCode<String> code = mock(StudySessionTransactionCode.class);
+		when(code.apply(sessionRepository)).thenReturn("session result");
+		assertThat(transactionManager.doInReadOnlySessionTransaction(code)).isEqualTo("session result");
+		verify(transaction).commit();
+	}
+	
+	@Test
+	public void testDoInReadOnlyTransactionSuccess() {
+		when(em.unwrap(Session.class)).thenReturn(mock(Session.class));
+		@SuppressWarnings("unchecked")
+		TransactionCode<String> code = mock(TransactionCode.class);
+		when(code.apply(em)).thenReturn("result");
+		assertThat(transactionManager.doInReadOnlyTransaction(code)).isEqualTo("result");
+		verify(transaction).commit();
+	}
+	
+	@Test
+	public void testDoInReadOnlyMultiRepositoryTransactionSuccess() {
+		when(em.unwrap(Session.class)).thenReturn(mock(Session.class));
+		@SuppressWarnings("unchecked")
+		MultiRepositoryTransactionCode<String> code = mock(MultiRepositoryTransactionCode.class);
+		when(code.apply(any(RepositoryContext.class))).thenAnswer(invocation -> {
+			RepositoryContext context = invocation.getArgument(0);
+			assertThat(context.getTopicRepository()).isSameAs(topicRepository);
+			assertThat(context.getSessionRepository()).isSameAs(sessionRepository);
+			return "multi result";
+		});
+		assertThat(transactionManager.doInReadOnlyMultiRepositoryTransaction(code)).isEqualTo("multi result");
+		verify(transaction).commit();
+	}
+	
+	@Test
+	public void testDoInReadOnlyTransactionWithExceptionRollsBack() {
+		when(em.unwrap(Session.class)).thenReturn(mock(Session.class));
+		RuntimeException exception = new RuntimeException("Test exception");
+		RuntimeException thrown = assertThrows(RuntimeException.class, () -> transactionManager.doInReadOnlyTopicTransaction(repository -> {
+			throw exception;
+		}));
+		verify(transaction).rollback();
+		verify(em).close();
+		assertThat(thrown).isEqualTo(exception);
+	}
+	
+	@Test
+	public void testDoInReadOnlyTransactionJoinsExistingTransactionWithoutChangingItsMode() {
+		transactionManager.getEmHolder().set(em);
+		String result = transactionManager.doInReadOnlyTopicTransaction(repository -> "joined");
+		assertThat(result).isEqualTo("joined");
+		verify(emf, never()).createEntityManager();
+		verify(em, never()).unwrap(Session.class);
+	}
+	
+	@Test
+	public void testReadOnlyWorkSetsTransactionReadOnlyOnPostgres() throws Exception {
+		Statement statement = mock(Statement.class);
+		doWorkOn(TransactionManagerImpl.POSTGRESQL_PRODUCT_NAME, statement);
+		verify(statement).execute("SET TRANSACTION READ ONLY");
+		verify(statement).close();
+	}
+	
+	@Test
+	public void testReadOnlyWorkSkipsStatementOnOtherDatabases() throws Exception {
+		Statement statement = mock(Statement.class);
+		Connection connection = doWorkOn("H2", statement);
+		verify(connection, never()).createStatement();
+	}
+	
+	@Test
+	public void testRetryableFailureIsRetriedInAFreshTransaction() {
+		TransactionManagerImpl retrying = new TransactionManagerImpl(emf, topicRepository, sessionRepository,
+			new RetryPolicy(3, 0, 0, Set.of(RetryPolicy.SERIALIZATION_FAILURE)));
+		int[] calls = {0};
+		String result = retrying.doInTopicTransaction(repository -> {
+			if (++calls[0] < 3) throw new PersistenceException(new SQLException("could not serialize access", RetryPolicy.SERIALIZATION_FAILURE));
+			return "committed";
+		});
+		assertThat(result).isEqualTo("committed");
+		verify(emf, times(3)).createEntityManager();
+		verify(transaction, times(2)).rollback();
+		verify(transaction).commit();
+		verify(em, times(3)).close();
+		assertThat(retrying.getRetryCount()).isEqualTo(2);
+		assertThat(retrying.getExhaustedRetryCount()).isZero();
+	}
+	
+	@Test
+	public void testRetryableFailureIsRethrownWhenAttemptsAreExhausted() {
+		TransactionManagerImpl retrying = new TransactionManagerImpl(emf, topicRepository, sessionRepository,
+			new RetryPolicy(2, 0, 0, Set.of(RetryPolicy.DEADLOCK_DETECTED)));
+		PersistenceException deadlock = new PersistenceException(new SQLException("deadlock detected", RetryPolicy.DEADLOCK_DETECTED));
+		PersistenceException thrown = assertThrows(PersistenceException.class, () -> retrying.doInSessionTransaction(repository -> {
+			throw deadlock;
+		}));
+		assertThat(thrown).isSameAs(deadlock);
+		verify(emf, times(2)).createEntityManager();
+		assertThat(retrying.getRetryCount()).isEqualTo(1);
+		assertThat(retrying.getExhaustedRetryCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testOptimisticLockConflictIsRetriedAndReportedWhenAttemptsAreExhausted() {
+		TransactionManagerImpl retrying = new TransactionManagerImpl(emf, topicRepository, sessionRepository,
+			new RetryPolicy(2, 0, 0, Set.of()));
+		RollbackException conflict = new RollbackException(new OptimisticLockException("stale session"));
+		doThrow(conflict).when(transaction).commit();
+		IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> retrying.doInSessionTransaction(repository -> null));
+		assertThat(thrown.getMessage()).isEqualTo(TransactionManagerImpl.CONCURRENT_UPDATE_MESSAGE);
+		assertThat(thrown.getCause()).isSameAs(conflict);
+		verify(transaction, times(2)).commit();
+		assertThat(retrying.getRetryCount()).isEqualTo(1);
+		assertThat(retrying.getExhaustedRetryCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testNonRetryableFailureIsNotRetried() {
+		IllegalArgumentException failure = new IllegalArgumentException("il topic passato è null");
+		assertThrows(IllegalArgumentException.class, () -> transactionManager.doInTopicTransaction(repository -> {
+			throw failure;
+		}));
+		verify(emf, times(1)).createEntityManager();
+		assertThat(transactionManager.getRetryCount()).isZero();
+	}
+	
+	@Test
+	public void testJoinedTransactionIsNotRetriedOnItsOwn() {
+		transactionManager.getEmHolder().set(em);
+		PersistenceException failure = new PersistenceException(new SQLException("could not serialize access", RetryPolicy.SERIALIZATION_FAILURE));
+		int[] calls = {0};
+		assertThrows(PersistenceException.class, () -> transactionManager.doInTopicTransaction(repository -> {
+			calls[0]++;
+			throw failure;
+		}));
+		assertThat(calls[0]).isEqualTo(1);
+		assertThat(transactionManager.getRetryCount()).isZero();
+	}
+	
+	@Test
+	public void testInterruptedBackoffRethrowsTheFailure() {
+		TransactionManagerImpl retrying = new TransactionManagerImpl(emf, topicRepository, sessionRepository,
+			new RetryPolicy(3, 1000, 1000, Set.of(RetryPolicy.SERIALIZATION_FAILURE)));
+		PersistenceException failure = new PersistenceException(new SQLException("could not serialize access", RetryPolicy.SERIALIZATION_FAILURE));
+		Thread.currentThread().interrupt();
+		try {
+			PersistenceException thrown = assertThrows(PersistenceException.class, () -> retrying.doInTopicTransaction(repository -> {
+				throw failure;
+			}));
+			assertThat(thrown).isSameAs(failure);
+			assertThat(Thread.currentThread().isInterrupted()).isTrue();
+		} finally {
+			Thread.interrupted();
+		}
+	}
+	
+	private Connection doWorkOn(String productName, Statement statement) throws Exception {
+		Session session = mock(Session.class);
+		Connection connection = mock(Connection.class);
+		DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+		when(em.unwrap(Session.class)).thenReturn(session);
+		when(connection.getMetaData()).thenReturn(metaData);
+		when(metaData.getDatabaseProductName()).thenReturn(productName);
+		lenient().when(connection.createStatement()).thenReturn(statement);
+		transactionManager.doInReadOnlyTopicTransaction(repository -> null);
+		ArgumentCaptor<Work> work = ArgumentCaptor.forClass(Work.class);
+		verify(session).doWork(work.capture());
+		work.getValue().execute(connection);
+		return connection;
+	}
+}
@@ -26,6 +26,8 @@ import org.assertj.swing.fixture.FrameFixture;
 import org.assertj.swing.junit.runner.GUITestRunner;
 import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
 import org.assertj.swing.launcher.ApplicationLauncher;
+import org.assertj.swing.timing.Condition;
+import org.assertj.swing.timing.Pause;
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
@@ -35,6 +37,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.containers.wait.strategy.Wait;
 
 import com.sessionbuilder.core.utils.EmfFactory;
+import com.sessionbuilder.swing.TopicAndSessionManager;
 import com.toedter.calendar.JDateChooser;
 
 import jakarta.persistence.EntityManagerFactory;
@@ -124,6 +127,12 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 				}).withTimeout(20000).using(robot());
 
 				window.show();
+				Pause.pause(new Condition("caricamento dei dati iniziali") {
+					@Override
+					public boolean test() {
+						return GuiActionRunner.execute(() -> !((TopicAndSessionManager) window.target()).getLoadingProgressBar().isVisible());
+					}
+				}, 20000);
 				robot().waitForIdle();
 				
 			} finally {
@@ -137,6 +146,16 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		}
 	}
 
+	private void waitForControllerCalls() {
+		Pause.pause(new Condition("chiamate ai controller completate") {
+			@Override
+			public boolean test() {
+				return !GuiActionRunner.execute(() -> ((TopicAndSessionManager) window.target()).hasPendingControllerCalls());
+			}
+		}, 10000);
+		robot().waitForIdle();
+	}
+
 	private void cleanDatabase() {
 		try (Connection conn = DriverManager.getConnection(jdbcUrl, postgres.getUsername(), postgres.getPassword())) {
 			try (Statement stmt = conn.createStatement()) {
@@ -146,8 +165,8 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 				stmt.executeUpdate("TRUNCATE TABLE studysession CASCADE");
 				stmt.executeUpdate("TRUNCATE TABLE topic CASCADE");
 				
-				stmt.executeUpdate("ALTER SEQUENCE topic_id_seq RESTART WITH 1");
-				stmt.executeUpdate("ALTER SEQUENCE studysession_id_seq RESTART WITH 1");
+				stmt.executeUpdate("ALTER SEQUENCE topic_seq RESTART WITH 1");
+				stmt.executeUpdate("ALTER SEQUENCE studysession_seq RESTART WITH 1");
 				
 				stmt.execute("SET session_replication_role = 'origin'");
 			}
@@ -197,6 +216,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.textBox("descriptionField").enterText("Meccanica");
 		window.textBox("difficultyField").enterText("4");
 		window.button(JButtonMatcher.withName("addTopicButton")).click();
+		waitForControllerCalls();
 		window.button(JButtonMatcher.withName("backButton")).click();
 		
 		assertThat(window.list("topicList").contents()).anySatisfy(e -> 
@@ -210,6 +230,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.textBox("descriptionField").enterText(TOPIC_FIXTURE_1_DESCRIPTION);
 		window.textBox("difficultyField").enterText(String.valueOf(TOPIC_FIXTURE_1_DIFFICULTY));
 		window.button(JButtonMatcher.withName("addTopicButton")).click();
+		waitForControllerCalls();
 		
 		String errorText = window.label(JLabelMatcher.withName("errorTopicPanelLbl")).text();
 		assertThat(errorText).contains("Errore nel salvare il topic:");
@@ -236,6 +257,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.textBox("noteField").enterText("Nuova sessione");
 		window.list("sessionPanelTopicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		window.button(JButtonMatcher.withName("addSessionButton")).click();
+		waitForControllerCalls();
 		window.button(JButtonMatcher.withName("backSessionButton")).click();
 		
 		assertThat(window.list("sessionList").contents()).anySatisfy(e -> 
@@ -262,6 +284,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.textBox("noteField").enterText("Sessione passata");
 		window.list("sessionPanelTopicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		window.button(JButtonMatcher.withName("addSessionButton")).click();
+		waitForControllerCalls();
 		
 		String errorText = window.label(JLabelMatcher.withName("sessionErrorMessage")).text();
 		assertThat(errorText).contains("Errore nel salvare la sessione:");
@@ -287,6 +310,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.textBox("noteField").enterText(SESSION_FIXTURE_1_NOTE);
 		window.list("sessionPanelTopicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		window.button(JButtonMatcher.withName("addSessionButton")).click();
+		waitForControllerCalls();
 		
 		String errorText = window.label(JLabelMatcher.withName("sessionErrorMessage")).text();
 		assertThat(errorText).contains("Errore nel salvare la sessione:");
@@ -297,6 +321,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.list("sessionList").selectItem(Pattern.compile(".*" + SESSION_FIXTURE_1_NOTE + ".*"));
 		
 		window.button(JButtonMatcher.withName("deleteSessionButton")).click();
+		waitForControllerCalls();
 		
 		assertThat(window.list("sessionList").contents()).hasSize(1);
 		assertThat(window.list("sessionList").contents()).doesNotContain(
@@ -308,6 +333,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.list("sessionList").selectItem(Pattern.compile(".*" + SESSION_FIXTURE_1_NOTE + ".*"));
 		removeTestSessionFromDatabase(SESSION_FIXTURE_1_NOTE);
 		window.button(JButtonMatcher.withName("deleteSessionButton")).click();
+		waitForControllerCalls();
 		
 		String errorText = window.label(JLabelMatcher.withName("errorMessageLabel")).text();
 		assertThat(errorText).contains("Error");
@@ -317,6 +343,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 	public void testDeleteTopicButtonSuccess() {
 		window.list("topicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		window.button(JButtonMatcher.withName("deleteTopicButton")).click();
+		waitForControllerCalls();
 		assertThat(window.list("topicList").contents()).hasSize(1);
 		assertThat(window.list("topicList").contents()).doesNotContain(
 			TOPIC_FIXTURE_1_NAME, TOPIC_FIXTURE_1_DESCRIPTION, String.valueOf(TOPIC_FIXTURE_1_DIFFICULTY));
@@ -327,6 +354,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.list("topicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		removeTestTopicFromDatabase(TOPIC_FIXTURE_1_NAME);
 		window.button(JButtonMatcher.withName("deleteTopicButton")).click();
+		waitForControllerCalls();
 		
 		String errorText = window.label(JLabelMatcher.withName("errorMessageLabel")).text();
 		assertThat(errorText).contains("Topic non trovato");
@@ -336,6 +364,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 	public void testCompleteSessionButtonSuccess() {
 		window.list("sessionList").selectItem(Pattern.compile(".*" + SESSION_FIXTURE_1_NOTE + ".*"));
 		window.button(JButtonMatcher.withName("completeSessionButton")).click();
+		waitForControllerCalls();
 		assertThat(window.list("sessionList").contents()[0]).contains("Completed: true");
 	}
 
@@ -350,6 +379,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 	public void testTotalTimeButtonSuccess() {
 		window.list("topicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		window.button(JButtonMatcher.withText("totalTime")).click();
+		waitForControllerCalls();
 		window.label(JLabelMatcher.withName("errorMessageLabel")).requireText("Tempo totale: 60 minuti");
 		assertThat(window.button(JButtonMatcher.withText("totalTime")).isEnabled()).isTrue();
 		assertThat(window.label(JLabelMatcher.withName("errorMessageLabel")).text()).isEqualTo("Tempo totale: 60 minuti");
@@ -368,6 +398,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 	public void testPercentageButtonSuccess() {
 		window.list("topicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		window.button(JButtonMatcher.withText("%Completion")).click();
+		waitForControllerCalls();
 		window.label(JLabelMatcher.withName("errorMessageLabel")).requireText("Percentuale di completamento: 0%");
 		assertThat(window.button(JButtonMatcher.withText("%Completion")).isEnabled()).isTrue();
 		assertThat(window.label(JLabelMatcher.withName("errorMessageLabel")).text()).isEqualTo("Percentuale di completamento: 0%");
@@ -390,6 +421,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.textBox("descriptionField").enterText("Capitali europee");
 		window.textBox("difficultyField").enterText("2");
 		window.button(JButtonMatcher.withName("addTopicButton")).click();
+		waitForControllerCalls();
 		window.button(JButtonMatcher.withName("backButton")).click();
 		
 		assertThat(window.list("topicList").contents()).anySatisfy(e -> 
@@ -417,6 +449,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.textBox("noteField").enterText("Sessione di prova");
 		window.list("sessionPanelTopicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		window.button(JButtonMatcher.withName("addSessionButton")).click();
+		waitForControllerCalls();
 		window.button(JButtonMatcher.withName("backSessionButton")).click();
 		
 		assertThat(window.list("sessionList").contents()).anySatisfy(e -> 
@@ -442,6 +475,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 		window.textBox("noteField").enterText("Sessione passata");
 		window.list("sessionPanelTopicList").selectItem(Pattern.compile(".*" + TOPIC_FIXTURE_1_NAME + ".*"));
 		window.button(JButtonMatcher.withName("addSessionButton")).click();
+		waitForControllerCalls();
 		String errorText = window.label(JLabelMatcher.withName("sessionErrorMessage")).text();
 		assertThat(errorText).contains("Errore nel salvare la sessione:");
 	}
@@ -476,7 +510,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 	}
 
 	private Long insertTopic(Connection conn, String name, String description, int difficulty) throws SQLException {
-		String sql = "INSERT INTO topic (name, description, difficulty, masterylevel) VALUES (?, ?, ?, 0)";
+		String sql = "INSERT INTO topic (id, name, description, difficulty, masterylevel) VALUES (nextval('topic_seq'), ?, ?, ?, 0)";
 		try (PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"id"})) {
 			stmt.setString(1, name);
 			stmt.setString(2, description);
@@ -491,7 +525,7 @@ public class SessionBuilderApplicatione2eIT extends AssertJSwingJUnitTestCase {
 	}
 
 	private Long insertSession(Connection conn, LocalDate date, int duration, String note) throws SQLException {
-		String sql = "INSERT INTO studysession (date, duration, note, iscomplete) VALUES (?, ?, ?, false)";
+		String sql = "INSERT INTO studysession (id, date, duration, note, iscomplete) VALUES (nextval('studysession_seq'), ?, ?, ?, false)";
 		try (PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"id"})) {
 			stmt.setDate(1, java.sql.Date.valueOf(date));
 			stmt.setInt(2, duration);
@@ -15,6 +15,8 @@ import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.fixture.FrameFixture;
 import org.assertj.swing.junit.runner.GUITestRunner;
 import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.assertj.swing.timing.Condition;
+import org.assertj.swing.timing.Pause;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.runner.RunWith;
@@ -97,6 +99,16 @@ public abstract class BaseFrontendIntegrationTest extends AssertJSwingJUnitTestC
 	protected void onSetupFrontend() {
 	}
 
+	protected void waitForControllerCalls() {
+		Pause.pause(new Condition("chiamate ai controller completate") {
+			@Override
+			public boolean test() {
+				return !GuiActionRunner.execute(() -> managerView.hasPendingControllerCalls());
+			}
+		}, 10000);
+		robot().waitForIdle();
+	}
+
 	@Override
 	protected void onTearDown() throws Exception {
 		if (window != null) {
@@ -9,7 +9,6 @@ import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.swing.DefaultListModel;
 
 import org.assertj.swing.core.ComponentMatcher;
 import org.assertj.swing.core.GenericTypeMatcher;
@@ -35,6 +34,7 @@ import com.sessionbuilder.core.backend.TopicService;
 import com.sessionbuilder.core.backend.TopicServiceInterface;
 import com.sessionbuilder.core.backend.TransactionManager;
 import com.sessionbuilder.core.backend.TransactionManagerImpl;
+import com.sessionbuilder.swing.SessionListModel;
 import com.sessionbuilder.swing.SessionPanel;
 import com.toedter.calendar.JDateChooser;
 
@@ -130,10 +130,11 @@ public class SessionPanelIT extends BaseFrontendIntegrationTest {
 		JButtonFixture addButton = window.button(JButtonMatcher.withName("addSessionButton"));
 		addButton.requireEnabled();
 		addButton.click();
+		waitForControllerCalls();
 		window.label(JLabelMatcher.withName("sessionErrorMessage")).requireText("");
 
 		StudySession createdSession = GuiActionRunner.execute(() -> {
-			DefaultListModel<StudySession> studySessionModel = managerView.getStudySessionModel();
+			SessionListModel studySessionModel = managerView.getStudySessionModel();
 			List<StudySession> sessions = new ArrayList<>();
 			for (int i = 0; i < studySessionModel.getSize(); i++) {
 				sessions.add(studySessionModel.getElementAt(i));
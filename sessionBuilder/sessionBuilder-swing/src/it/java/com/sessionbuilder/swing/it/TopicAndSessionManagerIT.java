@@ -7,7 +7,6 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.swing.DefaultListModel;
 
 import org.assertj.swing.core.matcher.JButtonMatcher;
 import org.assertj.swing.core.matcher.JLabelMatcher;
@@ -31,6 +30,8 @@ import com.sessionbuilder.core.backend.TopicService;
 import com.sessionbuilder.core.backend.TopicServiceInterface;
 import com.sessionbuilder.core.backend.TransactionManager;
 import com.sessionbuilder.core.backend.TransactionManagerImpl;
+import com.sessionbuilder.swing.SessionListModel;
+import com.sessionbuilder.swing.TopicListModel;
 
 public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 	
@@ -74,7 +75,7 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 			assertThat(t.getId()).isPositive();
 			return t;
 		});
-		DefaultListModel<Topic> topicModel = managerView.getTopicModel();
+		TopicListModel topicModel = managerView.getTopicModel();
 		assertThat(topicModel.getSize()).isEqualTo(1);
 		assertThat(topicModel.getElementAt(0).getName()).isEqualTo("Matematica");
 		String[] topicContents = window.list("topicList").contents();
@@ -99,7 +100,7 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 			assertThat(s.getId()).isPositive();
 			return s;
 		});
-		DefaultListModel<StudySession> sessionModel = managerView.getStudySessionModel();
+		SessionListModel sessionModel = managerView.getStudySessionModel();
 		assertThat(sessionModel.getSize()).isEqualTo(1);
 		assertThat(sessionModel.getElementAt(0).getNote()).isEqualTo("Sessione fisica");
 		String[] sessionContents = window.list("sessionList").contents();
@@ -125,6 +126,7 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 		JButtonFixture deleteButton = window.button(JButtonMatcher.withName("deleteTopicButton"));
 		deleteButton.requireEnabled();
 		deleteButton.click();
+		waitForControllerCalls();
 		assertThat(managerView.getTopicModel().getSize()).isZero();
 		window.list("topicList").requireItemCount(0);
 		window.label(JLabelMatcher.withName("errorMessageLabel")).requireText(" ");
@@ -149,6 +151,7 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 		JButtonFixture deleteButton = window.button(JButtonMatcher.withName("deleteSessionButton"));
 		deleteButton.requireEnabled();
 		deleteButton.click();
+		waitForControllerCalls();
 		assertThat(managerView.getStudySessionModel().getSize()).isZero();
 		window.list("sessionList").requireItemCount(0);
 		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -172,6 +175,7 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 		JButtonFixture completeButton = window.button(JButtonMatcher.withName("completeSessionButton"));
 		completeButton.requireEnabled();
 		completeButton.click();
+		waitForControllerCalls();
 		StudySession updatedSession = GuiActionRunner.execute(() -> {
 			return sessionController.handleGetSession(session.getId());
 		});
@@ -198,6 +202,7 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 		JButtonFixture totalTimeButton = window.button(JButtonMatcher.withText("totalTime"));
 		totalTimeButton.requireEnabled();
 		totalTimeButton.click();
+		waitForControllerCalls();
 		window.label(JLabelMatcher.withName("errorMessageLabel"))
 			.requireText("Tempo totale: 150 minuti");
 	}
@@ -223,6 +228,7 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 		JButtonFixture percentageButton = window.button(JButtonMatcher.withText("%Completion"));
 		percentageButton.requireEnabled();
 		percentageButton.click();
+		waitForControllerCalls();
 		window.label(JLabelMatcher.withName("errorMessageLabel"))
 			.requireText("Percentuale di completamento: 50%");
 	}
@@ -285,14 +291,18 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 		
 		window.list("sessionList").selectItem(0);
 		window.button(JButtonMatcher.withName("completeSessionButton")).click();
+		waitForControllerCalls();
 		assertThat(managerView.getStudySessionModel().getElementAt(0).isComplete()).isTrue();
 		window.list("topicList").selectItem(0);
 		window.button(JButtonMatcher.withText("totalTime")).click();
+		waitForControllerCalls();
 		window.label(JLabelMatcher.withName("errorMessageLabel")).requireText("Tempo totale: 120 minuti");
 		window.button(JButtonMatcher.withText("%Completion")).click();
+		waitForControllerCalls();
 		window.label(JLabelMatcher.withName("errorMessageLabel")).requireText("Percentuale di completamento: 100%");
 		window.list("topicList").selectItem(1);
 		window.button(JButtonMatcher.withName("deleteTopicButton")).click();
+		waitForControllerCalls();
 		assertThat(managerView.getTopicModel().getSize()).isEqualTo(1);
 		assertThat(managerView.getTopicModel().getElementAt(0).getName()).isEqualTo("Informatica");
 		assertThat(managerView.getStudySessionModel().getSize()).isEqualTo(2);
@@ -300,10 +310,12 @@ public class TopicAndSessionManagerIT extends BaseFrontendIntegrationTest {
 		assertThat(managerView.getStudySessionModel().getElementAt(1)).isEqualTo(session2);
 		window.list("sessionList").selectItem(0);
 		window.button(JButtonMatcher.withName("deleteSessionButton")).click();
+		waitForControllerCalls();
 		assertThat(managerView.getStudySessionModel().getSize()).isEqualTo(1);
 		assertThat(managerView.getStudySessionModel().getElementAt(0)).isEqualTo(session2);
 		window.list("sessionList").selectItem(0);
 		window.button(JButtonMatcher.withName("deleteSessionButton")).click();
+		waitForControllerCalls();
 		assertThat(managerView.getStudySessionModel().getSize()).isZero();
 	}
 
@@ -79,6 +79,7 @@ public class TopicPanelIT extends BaseFrontendIntegrationTest {
 		JButtonFixture addButton = window.button(JButtonMatcher.withName("addTopicButton"));
 		addButton.requireEnabled();
 		addButton.click();
+		waitForControllerCalls();
 		window.label(JLabelMatcher.withName("errorTopicPanelLbl")).requireText(" ");
 		Topic createdTopic = GuiActionRunner.execute(() -> {
 			List<Topic> topics = new ArrayList<>();
@@ -114,6 +115,7 @@ public class TopicPanelIT extends BaseFrontendIntegrationTest {
 		JButtonFixture addButton = window.button(JButtonMatcher.withName("addTopicButton"));
 		addButton.requireEnabled();
 		addButton.click();
+		waitForControllerCalls();
 		
 		robot().waitForIdle();
 		window.label(JLabelMatcher.withName("errorTopicPanelLbl")).requireText(" ");
@@ -138,6 +140,7 @@ public class TopicPanelIT extends BaseFrontendIntegrationTest {
 		JButtonFixture addButton = window.button(JButtonMatcher.withName("addTopicButton"));
 		addButton.requireEnabled();
 		addButton.click();
+		waitForControllerCalls();
 		robot().waitForIdle();
 		String errorText = window.label(JLabelMatcher.withName("errorTopicPanelLbl")).text();
 		assertThat(errorText).contains("Errore nel salvare il topic:");
@@ -0,0 +1,79 @@
+package com.sessionbuilder.swing;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class ControllerDispatcher {
+	
+	private static final Logger logger = LogManager.getLogger(ControllerDispatcher.class);
+	
+	private final Executor executor;
+	private final Set<String> inFlight = new HashSet<>();
+	
+	public ControllerDispatcher() {
+		this(worker -> ((SwingWorker<?, ?>) worker).execute());
+	}
+	
+	ControllerDispatcher(Executor executor) {
+		this.executor = executor;
+	}
+	
+	public boolean dispatch(String key, Runnable call) {
+		return dispatch(key, () -> {
+			call.run();
+			return null;
+		}, result -> {}, error -> logger.debug("chiamata {} fallita: {}", key, error.getMessage()));
+	}
+	
+	public <T> boolean dispatch(String key, Callable<T> call, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+		if (!inFlight.add(key)) {
+			logger.debug("chiamata {} già in corso, richiesta ignorata", key);
+			return false;
+		}
+		executor.execute(new SwingWorker<T, Void>() {
+			@Override
+			protected T doInBackground() throws Exception {
+				return call.call();
+			}
+			
+			@Override
+			protected void done() {
+				inFlight.remove(key);
+				try {
+					onSuccess.accept(get());
+				} catch (ExecutionException e) {
+					onFailure.accept(e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		return true;
+	}
+	
+	public boolean isInFlight(String key) {
+		return inFlight.contains(key);
+	}
+	
+	public boolean isIdle() {
+		return inFlight.isEmpty();
+	}
+	
+	public static void onEdt(Runnable update) {
+		if (SwingUtilities.isEventDispatchThread()) {
+			update.run();
+		} else {
+			SwingUtilities.invokeLater(update);
+		}
+	}
+}
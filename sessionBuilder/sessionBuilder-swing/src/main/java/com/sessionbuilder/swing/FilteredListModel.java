@@ -0,0 +1,191 @@
+package com.sessionbuilder.swing;
+
+import java.awt.EventQueue;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import javax.swing.AbstractListModel;
+import javax.swing.Timer;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+public class FilteredListModel<T, K> extends AbstractListModel<T> {
+
+	private static final long serialVersionUID = 8L;
+
+	public static final int DEFAULT_DEBOUNCE_MILLIS = 150;
+	public static final int DEFAULT_MAX_SCANNED_ROWS = PagedListModel.DEFAULT_MAX_CACHED_ROWS;
+
+	private final PagedListModel<T, K> source;
+	private final transient TextIndex<T, K> index;
+	private final Timer debounce;
+	private final int maxScannedRows;
+	private transient Executor executor = ForkJoinPool.commonPool();
+	private String pendingQuery = "";
+	private String query = "";
+	private int[] visible;
+	private int generation;
+	private int scanLimit;
+
+	public FilteredListModel(PagedListModel<T, K> source, Function<T, String> textOf) {
+		this(source, textOf, DEFAULT_DEBOUNCE_MILLIS);
+	}
+
+	public FilteredListModel(PagedListModel<T, K> source, Function<T, String> textOf, int debounceMillis) {
+		this(source, textOf, debounceMillis, DEFAULT_MAX_SCANNED_ROWS);
+	}
+
+	public FilteredListModel(PagedListModel<T, K> source, Function<T, String> textOf, int debounceMillis, int maxScannedRows) {
+		if (maxScannedRows < 0) throw new IllegalArgumentException("il numero di righe da scorrere non può essere negativo");
+		this.source = source;
+		this.maxScannedRows = maxScannedRows;
+		this.index = new TextIndex<>(textOf);
+		this.debounce = new Timer(debounceMillis, e -> applyQuery(pendingQuery));
+		this.debounce.setRepeats(false);
+		source.setRowObserver(index);
+		source.addListDataListener(new SourceListener());
+	}
+
+	void setExecutor(Executor searchExecutor) {
+		this.executor = searchExecutor;
+	}
+
+	public void setQuery(String text) {
+		pendingQuery = text;
+		debounce.restart();
+	}
+
+	// le ricerche più corte di un trigramma lasciano la lista senza filtro
+	public CompletableFuture<Void> applyQuery(String text) {
+		debounce.stop();
+		pendingQuery = text;
+		String needle = TextIndex.normalize(text);
+		int requested = ++generation;
+		if (needle.length() < TextIndex.GRAM_LENGTH) {
+			query = "";
+			show(null);
+			return CompletableFuture.completedFuture(null);
+		}
+		if (!needle.equals(query)) scanLimit = source.getSize() + maxScannedRows;
+		return CompletableFuture.supplyAsync(() -> index.search(needle), executor).thenAcceptAsync(keys -> {
+			if (requested != generation) return;
+			query = needle;
+			show(positionsOf(keys));
+		}, EventQueue::invokeLater);
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public boolean isFiltering() {
+		return visible != null;
+	}
+
+	public boolean isPending() {
+		return debounce.isRunning();
+	}
+
+	public TextIndex<T, K> getIndex() {
+		return index;
+	}
+
+	public PagedListModel<T, K> getSource() {
+		return source;
+	}
+
+	@Override
+	public int getSize() {
+		return visible == null ? source.getSize() : visible.length;
+	}
+
+	@Override
+	public T getElementAt(int row) {
+		return source.getElementAt(sourceIndex(row));
+	}
+
+	public K keyAt(int row) {
+		return source.keyAt(sourceIndex(row));
+	}
+
+	public int sourceIndex(int row) {
+		return visible == null ? row : visible[row];
+	}
+
+	private int[] positionsOf(List<K> keys) {
+		int[] positions = new int[keys.size()];
+		int count = 0;
+		for (K key : keys) {
+			int position = source.indexOfKey(key);
+			if (position >= 0) positions[count++] = position;
+		}
+		positions = Arrays.copyOf(positions, count);
+		Arrays.sort(positions);
+		return positions;
+	}
+
+	// l'indice copre solo le righe già caricate: con un filtro attivo si legge la coda fino a maxScannedRows righe in più
+	private void show(int[] rows) {
+		int[] previous = visible;
+		int oldSize = getSize();
+		visible = rows;
+		if (previous != null && rows != null && extendsRows(rows, previous)) {
+			if (rows.length > previous.length) fireIntervalAdded(this, previous.length, rows.length - 1);
+		}
+		else {
+			if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+			if (getSize() > 0) fireIntervalAdded(this, 0, getSize() - 1);
+		}
+		if (visible != null && source.hasMore() && source.getSize() < scanLimit) source.loadMore();
+	}
+
+	private void dropRows(int first, int last) {
+		int start = lowerBound(first);
+		int end = lowerBound(last + 1);
+		int removed = last - first + 1;
+		int[] rows = new int[visible.length - (end - start)];
+		System.arraycopy(visible, 0, rows, 0, start);
+		for (int i = end; i < visible.length; i++) rows[i - end + start] = visible[i] - removed;
+		visible = rows;
+		if (end > start) fireIntervalRemoved(this, start, end - 1);
+	}
+
+	private int lowerBound(int position) {
+		int found = Arrays.binarySearch(visible, position);
+		return found >= 0 ? found : -found - 1;
+	}
+
+	private static boolean extendsRows(int[] rows, int[] previous) {
+		return rows.length >= previous.length && Arrays.equals(rows, 0, previous.length, previous, 0, previous.length);
+	}
+
+	private final class SourceListener implements ListDataListener {
+
+		// righe nuove o modificate passano dalla ricerca in background; le rimozioni si applicano subito alle posizioni
+		@Override
+		public void intervalAdded(ListDataEvent e) {
+			if (visible == null) fireIntervalAdded(FilteredListModel.this, e.getIndex0(), e.getIndex1());
+			else debounce.restart();
+		}
+
+		@Override
+		public void intervalRemoved(ListDataEvent e) {
+			if (visible == null) fireIntervalRemoved(FilteredListModel.this, e.getIndex0(), e.getIndex1());
+			else dropRows(e.getIndex0(), e.getIndex1());
+		}
+
+		@Override
+		public void contentsChanged(ListDataEvent e) {
+			if (visible == null) {
+				fireContentsChanged(FilteredListModel.this, e.getIndex0(), e.getIndex1());
+				return;
+			}
+			if (getSize() > 0) fireContentsChanged(FilteredListModel.this, 0, getSize() - 1);
+			debounce.restart();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.sessionbuilder.swing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// ogni chiave occupa uno slot fisso; le rimozioni lasciano uno slot vuoto e un albero di Fenwick
+// conta gli slot vivi, così posizione e chiave si ricavano l'una dall'altra in O(log n)
+class KeyPositions<K> {
+
+	private static final int MIN_COMPACTION = 1024;
+
+	private final List<K> slots = new ArrayList<>();
+	private final Map<K, Integer> slotOf = new HashMap<>();
+	private int[] tree = new int[16];
+	private int live;
+
+	int size() {
+		return live;
+	}
+
+	boolean contains(K key) {
+		return slotOf.containsKey(key);
+	}
+
+	int indexOf(K key) {
+		Integer slot = slotOf.get(key);
+		return slot == null ? -1 : prefix(slot + 1) - 1;
+	}
+
+	K keyAt(int index) {
+		return slots.get(slotAt(index));
+	}
+
+	void add(K key) {
+		int slot = slots.size();
+		slotOf.put(key, slot);
+		slots.add(key);
+		int node = slot + 1;
+		if (node >= tree.length) tree = Arrays.copyOf(tree, tree.length * 2);
+		tree[node] = 1 + prefix(node - 1) - prefix(node - (node & -node));
+		live++;
+	}
+
+	K remove(int index) {
+		int slot = slotAt(index);
+		K key = slots.set(slot, null);
+		slotOf.remove(key);
+		for (int node = slot + 1; node <= slots.size(); node += node & -node) tree[node]--;
+		live--;
+		compactIfNeeded();
+		return key;
+	}
+
+	void replace(int index, K key) {
+		int slot = slotAt(index);
+		slotOf.remove(slots.set(slot, key));
+		slotOf.put(key, slot);
+	}
+
+	void clear() {
+		slots.clear();
+		slotOf.clear();
+		tree = new int[16];
+		live = 0;
+	}
+
+	private int prefix(int node) {
+		int sum = 0;
+		for (; node > 0; node -= node & -node) sum += tree[node];
+		return sum;
+	}
+
+	private int slotAt(int index) {
+		if (index < 0 || index >= live) throw new IndexOutOfBoundsException("posizione " + index + " fuori dalla lista di " + live + " righe");
+		int node = 0;
+		int remaining = index + 1;
+		for (int step = Integer.highestOneBit(slots.size()); step > 0; step >>= 1) {
+			int next = node + step;
+			if (next <= slots.size() && tree[next] < remaining) {
+				node = next;
+				remaining -= tree[next];
+			}
+		}
+		return node;
+	}
+
+	private void compactIfNeeded() {
+		int dead = slots.size() - live;
+		if (dead < Math.max(live, MIN_COMPACTION)) return;
+		List<K> keys = new ArrayList<>(live);
+		for (K key : slots) {
+			if (key != null) keys.add(key);
+		}
+		clear();
+		for (K key : keys) add(key);
+	}
+}
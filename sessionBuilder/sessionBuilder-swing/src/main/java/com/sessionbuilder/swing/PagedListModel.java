@@ -0,0 +1,322 @@
+package com.sessionbuilder.swing;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import javax.swing.AbstractListModel;
+
+import com.sessionbuilder.core.backend.Page;
+
+public class PagedListModel<T, K> extends AbstractListModel<T> {
+
+	private static final long serialVersionUID = 5L;
+
+	public static final int DEFAULT_PAGE_SIZE = 200;
+	public static final int DEFAULT_MAX_CACHED_ROWS = 5000;
+
+	@FunctionalInterface
+	public interface PageLoader<T, K> {
+		Page<T> load(K after, int pageSize);
+	}
+
+	public interface RowObserver<T, K> {
+		void rowStored(K key, T row);
+		void rowRemoved(K key);
+		void rowsCleared();
+	}
+
+	private final transient Function<T, K> keyOf;
+	private final transient K origin;
+	private final int pageSize;
+	private final int maxCachedRows;
+
+	private final transient KeyPositions<K> positions = new KeyPositions<>();
+	private final transient Map<K, T> resident = new HashMap<>();
+	private final transient Map<K, T> cache;
+	private final transient Map<K, K> pageOf = new HashMap<>();
+	private final transient Map<K, List<K>> pages = new HashMap<>();
+	private final transient Set<K> loadingPages = new HashSet<>();
+	private final transient Set<K> unavailable = new HashSet<>();
+
+	private transient PageLoader<T, K> loader;
+	private transient Executor executor;
+	private transient RowObserver<T, K> observer;
+	private transient K cursor;
+	private boolean hasMore;
+	private boolean loadingTail;
+	private int generation;
+
+	public PagedListModel(Function<T, K> keyOf, K origin) {
+		this(keyOf, origin, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_ROWS);
+	}
+
+	public PagedListModel(Function<T, K> keyOf, K origin, int pageSize, int maxCachedRows) {
+		if (pageSize <= 0) throw new IllegalArgumentException("la dimensione della pagina deve essere positiva");
+		if (maxCachedRows < pageSize) throw new IllegalArgumentException("la cache deve contenere almeno una pagina");
+		this.keyOf = keyOf;
+		this.origin = origin;
+		this.pageSize = pageSize;
+		this.maxCachedRows = maxCachedRows;
+		this.cursor = origin;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, T> eldest) {
+				return size() > PagedListModel.this.maxCachedRows;
+			}
+		};
+	}
+
+	public CompletableFuture<Void> load(PageLoader<T, K> pageLoader, Executor pageExecutor) {
+		clear();
+		this.loader = pageLoader;
+		this.executor = pageExecutor;
+		this.hasMore = true;
+		return loadTail();
+	}
+
+	public void setRowObserver(RowObserver<T, K> rowObserver) {
+		this.observer = rowObserver;
+	}
+
+	public void loadMore() {
+		loadTail();
+	}
+
+	@Override
+	public int getSize() {
+		return positions.size();
+	}
+
+	@Override
+	public T getElementAt(int index) {
+		K key = positions.keyAt(index);
+		T row = resident.get(key);
+		if (row == null) row = cache.get(key);
+		if (row == null && !unavailable.contains(key)) loadPage(pageOf.get(key));
+		if (hasMore && index >= positions.size() - pageSize / 2) loadTail();
+		return row;
+	}
+
+	public K keyAt(int index) {
+		return positions.keyAt(index);
+	}
+
+	public T elementAt(int index) {
+		return getElementAt(index);
+	}
+
+	public int size() {
+		return getSize();
+	}
+
+	public boolean isEmpty() {
+		return positions.size() == 0;
+	}
+
+	public boolean hasMore() {
+		return hasMore;
+	}
+
+	public int indexOf(Object element) {
+		K key = keyOfElement(element);
+		return key == null ? -1 : indexOfKey(key);
+	}
+
+	public int indexOfKey(K key) {
+		return positions.indexOf(key);
+	}
+
+	public boolean contains(Object element) {
+		return indexOf(element) >= 0;
+	}
+
+	public Object[] toArray() {
+		Object[] rows = new Object[positions.size()];
+		for (int i = 0; i < rows.length; i++) rows[i] = getElementAt(i);
+		return rows;
+	}
+
+	public Enumeration<T> elements() {
+		List<T> rows = new ArrayList<>(positions.size());
+		for (int i = 0; i < positions.size(); i++) rows.add(getElementAt(i));
+		return Collections.enumeration(rows);
+	}
+
+	public void addElement(T element) {
+		if (!replaceElement(element)) {
+			append(element);
+			fireIntervalAdded(this, positions.size() - 1, positions.size() - 1);
+		}
+	}
+
+	public void addAll(Collection<? extends T> elements) {
+		int first = positions.size();
+		for (T element : elements) {
+			if (!replaceElement(element)) append(element);
+		}
+		if (positions.size() > first) fireIntervalAdded(this, first, positions.size() - 1);
+	}
+
+	public boolean replaceElement(T element) {
+		int index = indexOfKey(keyOf.apply(element));
+		if (index < 0) return false;
+		K key = positions.keyAt(index);
+		resident.put(key, element);
+		stored(key, element);
+		fireContentsChanged(this, index, index);
+		return true;
+	}
+
+	public void setElementAt(T element, int index) {
+		K key = positions.keyAt(index);
+		K newKey = keyOf.apply(element);
+		if (!newKey.equals(key)) {
+			if (positions.contains(newKey)) throw new IllegalArgumentException("la riga è già presente nella lista");
+			forget(key);
+			positions.replace(index, newKey);
+		}
+		resident.put(newKey, element);
+		stored(newKey, element);
+		fireContentsChanged(this, index, index);
+	}
+
+	public boolean removeElement(Object element) {
+		int index = indexOf(element);
+		if (index < 0) return false;
+		forget(positions.remove(index));
+		fireIntervalRemoved(this, index, index);
+		return true;
+	}
+
+	public void clear() {
+		int size = positions.size();
+		generation++;
+		positions.clear();
+		resident.clear();
+		cache.clear();
+		pageOf.clear();
+		pages.clear();
+		cursor = origin;
+		loadingPages.clear();
+		unavailable.clear();
+		hasMore = false;
+		loadingTail = false;
+		if (observer != null) observer.rowsCleared();
+		if (size > 0) fireIntervalRemoved(this, 0, size - 1);
+	}
+
+	private void append(T element) {
+		K key = keyOf.apply(element);
+		positions.add(key);
+		resident.put(key, element);
+		stored(key, element);
+	}
+
+	private void forget(K key) {
+		resident.remove(key);
+		cache.remove(key);
+		pageOf.remove(key);
+		unavailable.remove(key);
+		if (observer != null) observer.rowRemoved(key);
+	}
+
+	private void stored(K key, T row) {
+		if (observer != null) observer.rowStored(key, row);
+	}
+
+	@SuppressWarnings("unchecked")
+	private K keyOfElement(Object element) {
+		if (element == null) return null;
+		try {
+			return keyOf.apply((T) element);
+		} catch (ClassCastException e) {
+			return null;
+		}
+	}
+
+	// il cursore avanza solo con le pagine del server: le righe aggiunte in locale non spostano la coda da caricare
+	private CompletableFuture<Void> loadTail() {
+		if (!hasMore || loadingTail) return CompletableFuture.completedFuture(null);
+		loadingTail = true;
+		K after = cursor;
+		int requested = generation;
+		return fetch(after).handleAsync((page, error) -> {
+			if (requested == generation) {
+				loadingTail = false;
+				if (page != null) appendPage(after, page);
+				else hasMore = false;
+			}
+			if (error != null) throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+			return null;
+		}, EventQueue::invokeLater);
+	}
+
+	private void appendPage(K after, Page<T> page) {
+		int first = positions.size();
+		List<K> pageKeys = new ArrayList<>(page.content().size());
+		for (T row : page.content()) {
+			K key = keyOf.apply(row);
+			cursor = key;
+			if (!positions.contains(key)) {
+				positions.add(key);
+				cache.put(key, row);
+				pageOf.put(key, after);
+				pageKeys.add(key);
+				stored(key, row);
+			}
+		}
+		pages.put(after, pageKeys);
+		hasMore = page.hasNext();
+		if (positions.size() > first) fireIntervalAdded(this, first, positions.size() - 1);
+	}
+
+	// le righe uscite dalla cache si ricaricano ripartendo dallo stesso cursore con cui era stata letta la loro pagina
+	private void loadPage(K after) {
+		if (loader == null || after == null || !loadingPages.add(after)) return;
+		int requested = generation;
+		fetch(after).whenCompleteAsync((page, error) -> {
+			if (requested != generation) return;
+			loadingPages.remove(after);
+			refreshPage(after, page != null ? page.content() : List.of());
+		}, EventQueue::invokeLater);
+	}
+
+	private void refreshPage(K after, List<T> rows) {
+		for (T row : rows) {
+			K key = keyOf.apply(row);
+			if (positions.contains(key) && !resident.containsKey(key)) {
+				cache.put(key, row);
+				stored(key, row);
+			}
+		}
+		int first = Integer.MAX_VALUE;
+		int last = -1;
+		for (K key : pages.getOrDefault(after, List.of())) {
+			int index = indexOfKey(key);
+			if (index < 0) continue;
+			if (!resident.containsKey(key) && !cache.containsKey(key)) unavailable.add(key);
+			first = Math.min(first, index);
+			last = Math.max(last, index);
+		}
+		if (last >= 0) fireContentsChanged(this, first, last);
+	}
+
+	private CompletableFuture<Page<T>> fetch(K after) {
+		PageLoader<T, K> pageLoader = loader;
+		return CompletableFuture.supplyAsync(() -> pageLoader.load(after, pageSize), executor);
+	}
+}
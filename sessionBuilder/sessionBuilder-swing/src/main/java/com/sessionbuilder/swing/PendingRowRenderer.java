@@ -0,0 +1,22 @@
+package com.sessionbuilder.swing;
+
+import java.awt.Color;
+import java.awt.Component;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+
+public class PendingRowRenderer extends DefaultListCellRenderer {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String PENDING_TEXT = "Caricamento...";
+
+	// le righe uscite dalla cache arrivano null finché la loro pagina non è stata ricaricata
+	@Override
+	public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+		Component cell = super.getListCellRendererComponent(list, value == null ? PENDING_TEXT : value, index, isSelected, cellHasFocus);
+		if (value == null && !isSelected) setForeground(Color.GRAY);
+		return cell;
+	}
+}
@@ -4,6 +4,11 @@ import java.awt.EventQueue;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,11 +16,15 @@ import org.apache.logging.log4j.Logger;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.sessionbuilder.core.backend.RetryPolicy;
 import com.sessionbuilder.core.backend.SessionViewCallback;
 import com.sessionbuilder.core.backend.StudySessionController;
+import com.sessionbuilder.core.backend.StudySessionInterface;
 import com.sessionbuilder.core.backend.TopicController;
+import com.sessionbuilder.core.backend.TopicServiceInterface;
 import com.sessionbuilder.core.backend.TopicViewCallback;
 import com.sessionbuilder.core.utils.AppModule;
+import com.sessionbuilder.core.utils.ConnectionPoolSettings;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -49,6 +58,33 @@ public class SessionBuilderApplication implements Callable<Integer> {
 	@Option(names = {"--persistence-unit"}, description = "JPA persistence unit name (default: ${DEFAULT-VALUE})", defaultValue = "sessionbuilder-prod")
 	private String persistenceUnit;
 
+	@Option(names = {"--db-migrate"}, negatable = true, description = "Apply Flyway migrations before starting; turn off for units generating their own schema (default: ${DEFAULT-VALUE})", defaultValue = "true", fallbackValue = "true")
+	private boolean migrateSchema;
+
+	@Option(names = {"--db-pool-size"}, description = "Maximum number of pooled connections (default: ${DEFAULT-VALUE})", defaultValue = "10")
+	private int poolSize;
+
+	@Option(names = {"--db-pool-min-idle"}, description = "Minimum number of idle pooled connections (default: ${DEFAULT-VALUE})", defaultValue = "2")
+	private int poolMinIdle;
+
+	@Option(names = {"--db-pool-idle-timeout"}, description = "Idle connection timeout in milliseconds (default: ${DEFAULT-VALUE})", defaultValue = "600000")
+	private long poolIdleTimeout;
+
+	@Option(names = {"--db-pool-leak-detection"}, description = "Connection leak detection threshold in milliseconds, 0 disables it (default: ${DEFAULT-VALUE})", defaultValue = "0")
+	private long poolLeakDetectionThreshold;
+
+	@Option(names = {"--db-statement-cache-size"}, description = "Prepared statement cache size per connection (default: ${DEFAULT-VALUE})", defaultValue = "256")
+	private int statementCacheSize;
+
+	@Option(names = {"--tx-max-attempts"}, description = "Attempts for transactions failing on serialization errors or deadlocks (default: ${DEFAULT-VALUE})", defaultValue = "3")
+	private int txMaxAttempts;
+
+	@Option(names = {"--tx-retry-backoff"}, description = "Initial retry backoff in milliseconds (default: ${DEFAULT-VALUE})", defaultValue = "50")
+	private long txRetryBackoff;
+
+	@Option(names = {"--tx-retry-max-backoff"}, description = "Maximum retry backoff in milliseconds (default: ${DEFAULT-VALUE})", defaultValue = "1000")
+	private long txRetryMaxBackoff;
+
 	public static void main(String[] args) {
 		int exitCode = new CommandLine(new SessionBuilderApplication()).execute(args);
 		if (exitCode != 0) {
@@ -58,63 +94,102 @@ public class SessionBuilderApplication implements Callable<Integer> {
 
 	@Override
 	public Integer call() throws Exception {
-		EventQueue.invokeLater(() -> {
-			try {
-				String finalHost = getEnvOrDefault("DB_HOST", postgresHost);
-				int finalPort = Integer.parseInt(getEnvOrDefault("DB_PORT", String.valueOf(postgresPort)));
-				String finalDbName = getEnvOrDefault("POSTGRES_DB", databaseName);
-				String finalUsername = getEnvOrDefault("POSTGRES_USER", username);
-				String finalPassword = getEnvOrDefault("POSTGRES_PASSWORD", password);
-				
-				Map<String, String> properties = new HashMap<>();
-				String jdbcUrl = String.format("jdbc:postgresql://%s:%d/%s", finalHost, finalPort, finalDbName);
-				
-				properties.put("jakarta.persistence.jdbc.driver", "org.postgresql.Driver");
-				properties.put("jakarta.persistence.jdbc.url", jdbcUrl);
-				properties.put("jakarta.persistence.jdbc.user", finalUsername);
-				properties.put("jakarta.persistence.jdbc.password", finalPassword);
-				
-				logger.info("Database: {}", jdbcUrl);
-				logger.info("Using persistence unit: {}", persistenceUnit);
-				logger.info("Using host: {}, port: {}, db: {}, user: {}", finalHost, finalPort, finalDbName, finalUsername);
-				
-				TopicAndSessionManager mainFrame = new TopicAndSessionManager();
-
-				Injector injector = Guice.createInjector(
-					new AppModule(persistenceUnit, properties),
-					new AbstractModule() {
-						@Override
-						protected void configure() {
-							bind(TopicAndSessionManager.class).toInstance(mainFrame);
-							bind(TopicViewCallback.class).toInstance(mainFrame);
-							bind(SessionViewCallback.class).toInstance(mainFrame);
-						}
-					}
-				);
-				
-				TopicController topicController = injector.getInstance(TopicController.class);
-				StudySessionController sessionController = injector.getInstance(StudySessionController.class);
-				
-				mainFrame.setTopicController(topicController);
-				mainFrame.setSessionController(sessionController);
-				
-				mainFrame.getTopicPanel().setTopicController(topicController);
-				mainFrame.getTopicPanel().setManagerView(mainFrame);
-				mainFrame.getSessionPanel().setSessionController(sessionController);
-				mainFrame.getSessionPanel().setManagerView(mainFrame);
-				
-				mainFrame.loadInitialData();
-				
+		String finalHost = getEnvOrDefault("DB_HOST", postgresHost);
+		int finalPort = Integer.parseInt(getEnvOrDefault("DB_PORT", String.valueOf(postgresPort)));
+		String finalDbName = getEnvOrDefault("POSTGRES_DB", databaseName);
+		String finalUsername = getEnvOrDefault("POSTGRES_USER", username);
+		String finalPassword = getEnvOrDefault("POSTGRES_PASSWORD", password);
+		
+		Map<String, String> properties = new HashMap<>();
+		String jdbcUrl = String.format("jdbc:postgresql://%s:%d/%s", finalHost, finalPort, finalDbName);
+		
+		properties.put("jakarta.persistence.jdbc.driver", "org.postgresql.Driver");
+		properties.put("jakarta.persistence.jdbc.url", jdbcUrl);
+		properties.put("jakarta.persistence.jdbc.user", finalUsername);
+		properties.put("jakarta.persistence.jdbc.password", finalPassword);
+		
+		logger.info("Database: {}", jdbcUrl);
+		logger.info("Using persistence unit: {}", persistenceUnit);
+		logger.info("Using host: {}, port: {}, db: {}, user: {}", finalHost, finalPort, finalDbName, finalUsername);
+		
+		ConnectionPoolSettings poolSettings = new ConnectionPoolSettings(
+			poolSize, poolMinIdle, poolIdleTimeout, poolLeakDetectionThreshold, statementCacheSize);
+		logger.info("Using connection pool size: {}, min idle: {}", poolSize, poolMinIdle);
+		RetryPolicy retryPolicy = new RetryPolicy(txMaxAttempts, txRetryBackoff, txRetryMaxBackoff,
+			RetryPolicy.defaults().retryableSqlStates());
+		
+		ExecutorService bootstrapExecutor = Executors.newFixedThreadPool(2, runnable -> {
+			Thread thread = new Thread(runnable, "sessionbuilder-bootstrap");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Executor edt = EventQueue::invokeLater;
+		
+		CompletableFuture<StartupSplash> splash = CompletableFuture.supplyAsync(() -> {
+			StartupSplash startupSplash = new StartupSplash();
+			startupSplash.setVisible(true);
+			return startupSplash;
+		}, edt);
+		Consumer<StartupSplash.Stage> progress = stage -> splash.thenAcceptAsync(startupSplash -> startupSplash.advance(stage), edt);
+		AppModule appModule = new AppModule(persistenceUnit, properties, poolSettings, retryPolicy)
+			.migrateSchema(migrateSchema)
+			.onStage(stage -> progress.accept(switch (stage) {
+				case MIGRATIONS -> StartupSplash.Stage.MIGRATIONS;
+				case PERSISTENCE -> StartupSplash.Stage.PERSISTENCE;
+			}));
+		// la factory di Hibernate (migrazioni comprese) si costruisce mentre l'EDT prepara le finestre
+		CompletableFuture<Injector> backend = CompletableFuture.supplyAsync(() -> {
+			Injector injector = Guice.createInjector(appModule);
+			injector.getInstance(TopicServiceInterface.class);
+			injector.getInstance(StudySessionInterface.class);
+			progress.accept(StartupSplash.Stage.WIRING);
+			return injector;
+		}, bootstrapExecutor);
+		CompletableFuture<TopicAndSessionManager> frame = splash.thenApplyAsync(startupSplash -> new TopicAndSessionManager(), edt);
+		
+		backend.thenCombineAsync(frame, this::wire, edt)
+			.thenApplyAsync(mainFrame -> {
+				splash.join().advance(StartupSplash.Stage.UI);
+				return mainFrame;
+			}, edt)
+			.thenComposeAsync(mainFrame -> {
+				splash.join().dispose();
 				mainFrame.setVisible(true);
-				
 				logger.info("SessionBuilder avviato con successo!");
-				
-			} catch (Exception e) {
-				logger.error("Errore durante l'avvio dell'applicazione: {}", e.getMessage(), e);
-				System.exit(1);
+				return mainFrame.loadInitialDataAsync(bootstrapExecutor);
+			}, edt)
+			// l'executor resta attivo: i modelli paginati lo usano per le pagine successive alla prima
+			.whenComplete((result, error) -> {
+				if (error != null) {
+					bootstrapExecutor.shutdown();
+					logger.error("Errore durante l'avvio dell'applicazione: {}", error.getMessage(), error);
+					System.exit(1);
+				}
+			});
+		return 0;
+	}
+	
+	private TopicAndSessionManager wire(Injector backend, TopicAndSessionManager mainFrame) {
+		Injector injector = backend.createChildInjector(new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(TopicAndSessionManager.class).toInstance(mainFrame);
+				bind(TopicViewCallback.class).toInstance(mainFrame);
+				bind(SessionViewCallback.class).toInstance(mainFrame);
 			}
 		});
-		return 0;
+		
+		TopicController topicController = injector.getInstance(TopicController.class);
+		StudySessionController sessionController = injector.getInstance(StudySessionController.class);
+		
+		mainFrame.setTopicController(topicController);
+		mainFrame.setSessionController(sessionController);
+		
+		mainFrame.getTopicPanel().setTopicController(topicController);
+		mainFrame.getTopicPanel().setManagerView(mainFrame);
+		mainFrame.getSessionPanel().setSessionController(sessionController);
+		mainFrame.getSessionPanel().setManagerView(mainFrame);
+		return mainFrame;
 	}
 	
 	private String getEnvOrDefault(String envVar, String defaultValue) {
@@ -0,0 +1,34 @@
+package com.sessionbuilder.swing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import com.sessionbuilder.core.backend.StudySession;
+
+public class SessionListModel extends PagedListModel<StudySession, SessionListModel.SessionKey> {
+
+	private static final long serialVersionUID = 7L;
+
+	public record SessionKey(LocalDate date, long id) {
+		
+		static SessionKey of(StudySession session) {
+			return new SessionKey(session.getDate(), session.getId());
+		}
+	}
+
+	public SessionListModel() {
+		super(SessionKey::of, new SessionKey(null, 0L));
+	}
+
+	public SessionListModel(int pageSize, int maxCachedRows) {
+		super(SessionKey::of, new SessionKey(null, 0L), pageSize, maxCachedRows);
+	}
+
+	public static StudySession prototype() {
+		return new StudySession(LocalDate.now(), 120, "Prototipo di riga", new ArrayList<>());
+	}
+
+	public static String searchText(StudySession session) {
+		return session.getNote();
+	}
+}
@@ -12,11 +12,11 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JList;
@@ -34,17 +34,19 @@ import com.toedter.calendar.JDateChooser;
 public class SessionPanel extends JPanel {
 
 	private static final long serialVersionUID = 3L;
-	private DefaultListModel<Topic> topicModel;
+	private TopicListModel topicModel;
 	private JLabel errorLbl;
 	private JDateChooser dateChooser;
 	private JList<Topic> sessionPaneltopicList;
 	private transient StudySessionController sessionController;
+	private transient ControllerDispatcher dispatcher;
 	private TopicAndSessionManager managerView;
 	
 	private static final String FONT = "Dialog";
 	
-	public SessionPanel (DefaultListModel<Topic> sharedTopicModel) {
+	public SessionPanel (TopicListModel sharedTopicModel) {
 		
+		dispatcher = new ControllerDispatcher();
 		setBorder(new EmptyBorder(5,5,5,5));
 		setLayout(new BorderLayout());
 		
@@ -98,6 +100,8 @@ public class SessionPanel extends JPanel {
 		
 		this.topicModel = sharedTopicModel;
 		sessionPaneltopicList = new JList<>(topicModel);
+		sessionPaneltopicList.setPrototypeCellValue(TopicListModel.prototype());
+		sessionPaneltopicList.setCellRenderer(new PendingRowRenderer());
 		sessionPaneltopicList.setName("sessionPanelTopicList");
 		
 		JScrollPane topics = new JScrollPane(sessionPaneltopicList);
@@ -175,12 +179,15 @@ public class SessionPanel extends JPanel {
 		        Instant instant = date.toInstant();
 		        ZoneId zoneId = ZoneId.systemDefault();
 		        LocalDate localDate = instant.atZone(zoneId).toLocalDate();
-		        List<Long> selectedTopicIds = sessionPaneltopicList.getSelectedValuesList().stream().map(Topic::getId).toList();
+		        List<Long> selectedTopicIds = Arrays.stream(sessionPaneltopicList.getSelectedIndices()).mapToObj(topicModel::keyAt).toList();
 		        
 		        try {
-			        sessionController.handleCreateSession(localDate, Integer.parseInt(durationField.getText()), 
-			                noteField.getText(), new ArrayList<>(selectedTopicIds));
-			        errorLbl.setText("");
+			        int duration = Integer.parseInt(durationField.getText());
+			        String note = noteField.getText();
+			        dispatcher.dispatch("createSession",
+			        	() -> sessionController.handleCreateSession(localDate, duration, note, new ArrayList<>(selectedTopicIds)),
+			        	session -> errorLbl.setText(""),
+			        	error -> showGeneralError("Errore nel salvare la sessione: " + error.getMessage()));
 		        } catch (Exception ex) {
 		        	showGeneralError("Errore nel salvare la sessione: " + ex.getMessage());
 		        }
@@ -189,13 +196,21 @@ public class SessionPanel extends JPanel {
 		
 	}
 	
-	public DefaultListModel<Topic> getTopicModel() {
+	public TopicListModel getTopicModel() {
 		return topicModel;
 	}
 	
 	public void setSessionController(StudySessionController sessionController) {
 		this.sessionController = sessionController;
 	}
+	
+	void setDispatcher(ControllerDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+	
+	ControllerDispatcher getDispatcher() {
+		return dispatcher;
+	}
 
 	public void showSessionError(String message, StudySession session) {
 		errorLbl.setText(message + ": " + session);
@@ -0,0 +1,72 @@
+package com.sessionbuilder.swing;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JWindow;
+import javax.swing.SwingConstants;
+import javax.swing.border.EmptyBorder;
+
+public class StartupSplash extends JWindow {
+
+	private static final long serialVersionUID = 4L;
+	private JLabel statusLabel;
+	private Stage stage = Stage.STARTING;
+	
+	public enum Stage {
+		STARTING("Avvio in corso..."),
+		MIGRATIONS("Migrazione dello schema del database..."),
+		PERSISTENCE("Avvio di Hibernate..."),
+		WIRING("Collegamento dei controller..."),
+		UI("Apertura della finestra principale...");
+		
+		private final String status;
+		
+		Stage(String status) {
+			this.status = status;
+		}
+		
+		public String getStatus() {
+			return status;
+		}
+	}
+	
+	private static final String FONT = "Dialog";
+
+	public StartupSplash() {
+		JPanel contentPane = new JPanel(new BorderLayout(0, 10));
+		contentPane.setBorder(new EmptyBorder(20, 20, 20, 20));
+		
+		JLabel titleLabel = new JLabel("SessionBuilder", SwingConstants.CENTER);
+		titleLabel.setName("splashTitleLabel");
+		titleLabel.setFont(new Font(FONT, Font.BOLD, 23));
+		
+		statusLabel = new JLabel(stage.getStatus(), SwingConstants.CENTER);
+		statusLabel.setName("splashStatusLabel");
+		
+		JProgressBar progressBar = new JProgressBar();
+		progressBar.setName("splashProgressBar");
+		progressBar.setIndeterminate(true);
+		
+		contentPane.add(titleLabel, BorderLayout.NORTH);
+		contentPane.add(statusLabel, BorderLayout.CENTER);
+		contentPane.add(progressBar, BorderLayout.SOUTH);
+		setContentPane(contentPane);
+		setSize(320, 140);
+		setLocationRelativeTo(null);
+	}
+
+	// le fasi arrivano da thread diversi: una notifica in ritardo non riporta indietro l'etichetta
+	public void advance(Stage next) {
+		if (next.ordinal() <= stage.ordinal()) return;
+		stage = next;
+		statusLabel.setText(next.getStatus());
+	}
+	
+	public Stage getStage() {
+		return stage;
+	}
+}
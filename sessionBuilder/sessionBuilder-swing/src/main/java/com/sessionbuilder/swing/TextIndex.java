@@ -0,0 +1,129 @@
+package com.sessionbuilder.swing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+public class TextIndex<T, K> implements PagedListModel.RowObserver<T, K> {
+
+	static final int GRAM_LENGTH = 3;
+	private static final int MIN_COMPACTION = 1024;
+
+	private final Function<T, String> textOf;
+	private final Map<K, Integer> ordinals = new HashMap<>();
+	private final List<K> keys = new ArrayList<>();
+	private final List<String> texts = new ArrayList<>();
+	private final Map<String, Postings> grams = new HashMap<>();
+	private int live;
+
+	public TextIndex(Function<T, String> textOf) {
+		this.textOf = textOf;
+	}
+
+	public static String normalize(String text) {
+		return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+	}
+
+	@Override
+	public synchronized void rowStored(K key, T row) {
+		String text = normalize(textOf.apply(row));
+		Integer ordinal = ordinals.get(key);
+		if (ordinal != null) {
+			if (text.equals(texts.get(ordinal))) return;
+			texts.set(ordinal, null);
+			live--;
+		}
+		append(key, text);
+		compactIfNeeded();
+	}
+
+	@Override
+	public synchronized void rowRemoved(K key) {
+		Integer ordinal = ordinals.remove(key);
+		if (ordinal == null) return;
+		texts.set(ordinal, null);
+		live--;
+		compactIfNeeded();
+	}
+
+	@Override
+	public synchronized void rowsCleared() {
+		ordinals.clear();
+		keys.clear();
+		texts.clear();
+		grams.clear();
+		live = 0;
+	}
+
+	public synchronized int size() {
+		return live;
+	}
+
+	// il trigramma meno frequente della ricerca restringe i candidati, contains conferma la corrispondenza;
+	// una ricerca più corta di un trigramma non ha candidati e non trova nulla
+	public synchronized List<K> search(String query) {
+		String needle = normalize(query);
+		List<K> result = new ArrayList<>();
+		if (needle.length() < GRAM_LENGTH) return result;
+		List<Postings> candidates = new ArrayList<>();
+		for (String gram : gramsOf(needle)) {
+			Postings postings = grams.get(gram);
+			if (postings == null) return result;
+			candidates.add(postings);
+		}
+		Postings rarest = candidates.stream().min(Comparator.comparingInt(postings -> postings.size)).orElseThrow();
+		for (int i = 0; i < rarest.size; i++) {
+			int ordinal = rarest.ordinals[i];
+			if (matches(ordinal, needle)) result.add(keys.get(ordinal));
+		}
+		return result;
+	}
+
+	private boolean matches(int ordinal, String needle) {
+		String text = texts.get(ordinal);
+		return text != null && text.contains(needle);
+	}
+
+	private void append(K key, String text) {
+		int ordinal = keys.size();
+		ordinals.put(key, ordinal);
+		keys.add(key);
+		texts.add(text);
+		live++;
+		for (String gram : gramsOf(text)) grams.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+	}
+
+	private void compactIfNeeded() {
+		int dead = keys.size() - live;
+		if (dead < Math.max(live, MIN_COMPACTION)) return;
+		List<K> oldKeys = new ArrayList<>(keys);
+		List<String> oldTexts = new ArrayList<>(texts);
+		rowsCleared();
+		for (int ordinal = 0; ordinal < oldKeys.size(); ordinal++) {
+			if (oldTexts.get(ordinal) != null) append(oldKeys.get(ordinal), oldTexts.get(ordinal));
+		}
+	}
+
+	private static Set<String> gramsOf(String text) {
+		Set<String> result = new HashSet<>();
+		for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) result.add(text.substring(i, i + GRAM_LENGTH));
+		return result;
+	}
+
+	private static final class Postings {
+		private int[] ordinals = new int[4];
+		private int size;
+
+		private void add(int ordinal) {
+			if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+			ordinals[size++] = ordinal;
+		}
+	}
+}
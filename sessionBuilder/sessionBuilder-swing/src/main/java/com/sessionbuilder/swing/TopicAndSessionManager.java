@@ -4,14 +4,16 @@ package com.sessionbuilder.swing;
 import java.awt.BorderLayout;
 import java.awt.CardLayout;
 import java.awt.Color;
+import java.awt.EventQueue;
 import java.awt.FlowLayout;
 
 import javax.swing.WindowConstants;
-import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
+import javax.swing.JTextField;
 import javax.swing.border.EmptyBorder;
 
 import com.sessionbuilder.core.backend.SessionViewCallback;
@@ -23,9 +25,12 @@ import com.sessionbuilder.core.backend.TopicViewCallback;
 
 import javax.swing.JSplitPane;
 import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import java.awt.GridLayout;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import javax.swing.JLabel;
 import javax.swing.JList;
@@ -38,11 +43,16 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 
 	private JList<Topic> topicList;
 	private JList<StudySession> sessionList;
-	private DefaultListModel<Topic> topicModel;
-	private DefaultListModel<StudySession> studySessionModel;
+	private TopicListModel topicModel;
+	private SessionListModel studySessionModel;
+	private FilteredListModel<Topic, Long> topicFilterModel;
+	private FilteredListModel<StudySession, SessionListModel.SessionKey> sessionFilterModel;
+	private JTextField topicFilterField;
+	private JTextField sessionFilterField;
 	private CardLayout cardLayout;
 	private JPanel mainPanel;
 	private JLabel lblErrorMessage;
+	private JProgressBar loadingProgressBar;
 	private static final String MAIN_VIEW = "MAIN";
 	private static final String CREATE_TOPIC_VIEW = "CREATE_TOPIC";
 	private static final String CREATE_SESSION_VIEW = "CREATE_SESSION";
@@ -57,13 +67,17 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 	
 	private transient TopicController topicController;
 	private transient StudySessionController sessionController;
+	private transient ControllerDispatcher dispatcher;
 	
 	private static final String FONT = "Dialog";
 
 
 	public TopicAndSessionManager() {
-		topicModel = new DefaultListModel<>();
-		studySessionModel = new DefaultListModel<>();
+		topicModel = new TopicListModel();
+		studySessionModel = new SessionListModel();
+		topicFilterModel = new FilteredListModel<>(topicModel, TopicListModel::searchText);
+		sessionFilterModel = new FilteredListModel<>(studySessionModel, SessionListModel::searchText);
+		dispatcher = new ControllerDispatcher();
 		setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
 		setBounds(100, 100, 800, 600);
 		setupCardLayout();
@@ -81,21 +95,20 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 		setContentPane(mainPanel);
 	}
 	
-	public void loadInitialData() {
-		if (topicController != null && sessionController != null) {
-			topicModel.clear();
-			studySessionModel.clear();
-			List<Topic> topics = topicController.handleGetAllTopics();
-			List<StudySession> sessions = sessionController.handleGetAllSessions();
-			topics.forEach(topicModel::addElement);
-			sessions.forEach(studySessionModel::addElement);
-		} 
-		else {
+	public CompletableFuture<Void> loadInitialDataAsync(Executor executor) {
+		if (topicController == null || sessionController == null) {
 			throw new IllegalStateException("i record del db non sono stati caricati correttamente");
 		}
+		loadingProgressBar.setVisible(true);
+		TopicController topics = topicController;
+		StudySessionController sessions = sessionController;
+		CompletableFuture<Void> firstTopics = topicModel.load(topics::handleGetTopicsPage, executor);
+		CompletableFuture<Void> firstSessions = studySessionModel.load(
+			(after, pageSize) -> sessions.handleGetSessionsPage(after.date(), after.id(), pageSize), executor);
+		return CompletableFuture.allOf(firstTopics, firstSessions)
+			.whenCompleteAsync((result, error) -> loadingProgressBar.setVisible(false), EventQueue::invokeLater);
 	}
-
-
+	
 	private JPanel createMainView() {
 		JPanel mainViewPane = new JPanel(new BorderLayout());
 		mainViewPane.setBorder(new EmptyBorder(5, 5, 5, 5));
@@ -115,7 +128,16 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 		lblErrorMessage.setForeground(Color.RED);
 		lblErrorMessage.setVisible(true);
 		lblErrorMessage.setName("errorMessageLabel");
-		parent.add(lblErrorMessage, BorderLayout.NORTH);
+		
+		loadingProgressBar = new JProgressBar();
+		loadingProgressBar.setName("loadingProgressBar");
+		loadingProgressBar.setIndeterminate(true);
+		loadingProgressBar.setVisible(false);
+		
+		JPanel statusPanel = new JPanel(new BorderLayout(10, 0));
+		statusPanel.add(lblErrorMessage, BorderLayout.CENTER);
+		statusPanel.add(loadingProgressBar, BorderLayout.EAST);
+		parent.add(statusPanel, BorderLayout.NORTH);
 	}
 
 	private void setupMainContent(JPanel parent) {
@@ -141,10 +163,13 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 		label.setBorder(new EmptyBorder(0, 5, 0, 0));
 		label.setName("topicLabel");
 		label.setFont(new Font(FONT, Font.BOLD, 23));
-		panel.add(label, BorderLayout.NORTH);
+		topicFilterField = createFilterField("topicFilterField", topicFilterModel);
+		panel.add(createListHeader(label, topicFilterField), BorderLayout.NORTH);
 
-		topicList = new JList<>(topicModel);
+		topicList = new JList<>(topicFilterModel);
 		topicList.setName("topicList");
+		topicList.setPrototypeCellValue(TopicListModel.prototype());
+		topicList.setCellRenderer(new PendingRowRenderer());
 		topicList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 		panel.add(new JScrollPane(topicList), BorderLayout.CENTER);
 
@@ -176,10 +201,13 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 		label.setBorder(new EmptyBorder(0, 5, 0, 0));
 		label.setName("sessionLabel");
 		label.setFont(new Font(FONT, Font.BOLD, 23));
-		panel.add(label, BorderLayout.NORTH);
+		sessionFilterField = createFilterField("sessionFilterField", sessionFilterModel);
+		panel.add(createListHeader(label, sessionFilterField), BorderLayout.NORTH);
 
-		sessionList = new JList<>(studySessionModel);
+		sessionList = new JList<>(sessionFilterModel);
 		sessionList.setName("sessionList");
+		sessionList.setPrototypeCellValue(SessionListModel.prototype());
+		sessionList.setCellRenderer(new PendingRowRenderer());
 		sessionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 		panel.add(new JScrollPane(sessionList), BorderLayout.CENTER);
 
@@ -201,6 +229,33 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 		return panel;
 	}
 
+	private JPanel createListHeader(JLabel label, JTextField filterField) {
+		JPanel header = new JPanel(new BorderLayout(0, 5));
+		header.add(label, BorderLayout.NORTH);
+		header.add(filterField, BorderLayout.SOUTH);
+		return header;
+	}
+
+	private JTextField createFilterField(String name, FilteredListModel<?, ?> filterModel) {
+		JTextField field = new JTextField();
+		field.setName(name);
+		field.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				filterModel.setQuery(field.getText());
+			}
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				filterModel.setQuery(field.getText());
+			}
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				filterModel.setQuery(field.getText());
+			}
+		});
+		return field;
+	}
+
 	private void setupNavigationButtons(JPanel parent) {
 		JPanel changeViewPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
 		JButton toSessionPanel = new JButton("sessionPanel");
@@ -245,7 +300,8 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 			if (!e.getValueIsAdjusting()) {
 				boolean selected = sessionList.getSelectedIndex() != -1;
 				deleteSessionButton.setEnabled(selected);
-				boolean completable = selected && !sessionList.getSelectedValue().isComplete();
+				StudySession selectedSession = selected ? sessionList.getSelectedValue() : null;
+				boolean completable = selectedSession != null && !selectedSession.isComplete();
 				completeSessionButton.setEnabled(completable);
 			}
 		});
@@ -254,42 +310,42 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 	private void handleDeleteTopicAction() {
 		int selectedIndex = topicList.getSelectedIndex();
 		if (selectedIndex != -1 && topicController != null) {
-			Topic selectedTopic = topicModel.getElementAt(selectedIndex);
-			topicController.handleDeleteTopic(selectedTopic.getId());
+			long topicId = topicFilterModel.keyAt(selectedIndex);
+			dispatcher.dispatch("deleteTopic:" + topicId, () -> topicController.handleDeleteTopic(topicId));
 		}
 	}
 
 	private void handleDeleteSessionAction() {
 		int selectedIndex = sessionList.getSelectedIndex();
 		if (selectedIndex != -1 && sessionController != null) {
-			StudySession selectedSession = studySessionModel.getElementAt(selectedIndex);
-			sessionController.handleDeleteSession(selectedSession.getId());
+			long sessionId = sessionFilterModel.keyAt(selectedIndex).id();
+			dispatcher.dispatch("deleteSession:" + sessionId, () -> sessionController.handleDeleteSession(sessionId));
 		}
 	}
 
 	private void handleCompleteSessionAction() {
 		int selectedIndex = sessionList.getSelectedIndex();
 		if (selectedIndex != -1 && sessionController != null) {
-			StudySession selectedSession = studySessionModel.getElementAt(selectedIndex);
-			sessionController.handleCompleteSession(selectedSession.getId());
+			long sessionId = sessionFilterModel.keyAt(selectedIndex).id();
+			dispatcher.dispatch("completeSession:" + sessionId, () -> sessionController.handleCompleteSession(sessionId));
 		}
 	}
 
 	private void handleTotalTimeAction() {
 		int selectedIndex = topicList.getSelectedIndex();
 		if (selectedIndex != -1 && topicController != null) {
-			Topic selectedTopic = topicModel.getElementAt(selectedIndex);
+			long topicId = topicFilterModel.keyAt(selectedIndex);
 			resetErrorLabels();
-			topicController.handleTotalTime(selectedTopic.getId());
+			dispatcher.dispatch("totalTime:" + topicId, () -> topicController.handleTotalTime(topicId));
 		}
 	}
 
 	private void handlePercentageAction() {
 		int selectedIndex = topicList.getSelectedIndex();
 		if (selectedIndex != -1 && topicController != null) {
-			Topic selectedTopic = topicModel.getElementAt(selectedIndex);
+			long topicId = topicFilterModel.keyAt(selectedIndex);
 			resetErrorLabels();
-			topicController.handlePercentageOfCompletion(selectedTopic.getId());
+			dispatcher.dispatch("percentage:" + topicId, () -> topicController.handlePercentageOfCompletion(topicId));
 		}
 	}
 	
@@ -316,6 +372,9 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 	public JButton getPercentageButton() {
 		return percentageButton;
 	}
+	public JProgressBar getLoadingProgressBar() {
+		return loadingProgressBar;
+	}
 	
 	public TopicController getTopicController() {
 		return topicController;
@@ -355,13 +414,21 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 		cardLayout.show(mainPanel, MAIN_VIEW);
 	}
 
-	public DefaultListModel<Topic> getTopicModel(){
+	public TopicListModel getTopicModel(){
 		return this.topicModel;
 	}
 	
-	public DefaultListModel<StudySession> getStudySessionModel(){
+	public SessionListModel getStudySessionModel(){
 		return this.studySessionModel;
 	}
+	
+	public FilteredListModel<Topic, Long> getTopicFilterModel() {
+		return topicFilterModel;
+	}
+	
+	public FilteredListModel<StudySession, SessionListModel.SessionKey> getSessionFilterModel() {
+		return sessionFilterModel;
+	}
 
 	public void showSessionError(String message, StudySession session) {
 		lblErrorMessage.setText(message + ": " + session);
@@ -382,71 +449,75 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 
 	@Override
 	public void onTopicAdded(Topic topic) {
-		topicModel.addElement(topic);
-		resetErrorLabels();
+		ControllerDispatcher.onEdt(() -> {
+			topicModel.addElement(topic);
+			resetErrorLabels();
+		});
 	}
 
 	@Override
 	public void onTopicRemoved(Topic topic) {
-		topicModel.removeElement(topic);
-		resetErrorLabels();
+		ControllerDispatcher.onEdt(() -> {
+			topicModel.removeElement(topic);
+			resetErrorLabels();
+		});
 	}
 
 	@Override
 	public void onTopicError(String message) {
-		lblErrorMessage.setText(message);
+		ControllerDispatcher.onEdt(() -> lblErrorMessage.setText(message));
 	}
 
 	@Override
 	public void onTotalTimeCalculated(Integer totalTime) {
-		lblErrorMessage.setText("Tempo totale: " + totalTime + " minuti");
-		lblErrorMessage.setForeground(Color.GREEN);
+		ControllerDispatcher.onEdt(() -> {
+			lblErrorMessage.setText("Tempo totale: " + totalTime + " minuti");
+			lblErrorMessage.setForeground(Color.GREEN);
+		});
 	}
 
 	@Override
 	public void onPercentageCalculated(Integer percentage) {
-		lblErrorMessage.setText("Percentuale di completamento: " + percentage + "%");
-		lblErrorMessage.setForeground(Color.GREEN);
+		ControllerDispatcher.onEdt(() -> {
+			lblErrorMessage.setText("Percentuale di completamento: " + percentage + "%");
+			lblErrorMessage.setForeground(Color.GREEN);
+		});
 	}
 
 	@Override
 	public void onSessionAdded(StudySession session) {
-		studySessionModel.addElement(session);
-		resetErrorLabels();
+		ControllerDispatcher.onEdt(() -> {
+			studySessionModel.addElement(session);
+			resetErrorLabels();
+		});
 	}
 	
+	// la riga restituita dal controller sostituisce quella in lista: porta versione e topic aggiornati,
+	// e i topic collegati hanno appena ricevuto i punti di mastery
 	@Override
 	public void onSessionUpdated(StudySession updatedSession) {
-		for (int i = 0; i < studySessionModel.getSize(); i++) {
-		StudySession session = studySessionModel.getElementAt(i);
-		if (session.getId() == updatedSession.getId()) {
-			session.setIsComplete(updatedSession.isComplete());
-			studySessionModel.setElementAt(session, i);
-			break;
-		}
-		}
-		if (topicPanel != null && topicPanel.getSessionModel() != null) {
-			DefaultListModel<StudySession> topicSessionModel = topicPanel.getSessionModel();
-			for (int i = 0; i < topicSessionModel.getSize(); i++) {
-				StudySession session = topicSessionModel.getElementAt(i);
-				if (session.getId() == updatedSession.getId()) {
-					session.setIsComplete(updatedSession.isComplete());
-					topicSessionModel.setElementAt(session, i);
-					break;
-				}
+		ControllerDispatcher.onEdt(() -> {
+			studySessionModel.replaceElement(updatedSession);
+			if (topicPanel != null && topicPanel.getSessionModel() != null && topicPanel.getSessionModel() != studySessionModel) {
+				topicPanel.getSessionModel().replaceElement(updatedSession);
 			}
-		}
+			for (Topic topic : updatedSession.getTopicList()) {
+				topicModel.replaceElement(topic);
+			}
+		});
 	}
 
 	@Override
 	public void onSessionRemoved(StudySession session) {
-		studySessionModel.removeElement(session);
-		resetErrorLabels();
+		ControllerDispatcher.onEdt(() -> {
+			studySessionModel.removeElement(session);
+			resetErrorLabels();
+		});
 	}
 
 	@Override
 	public void onSessionError(String message) {
-		lblErrorMessage.setText(message);	
+		ControllerDispatcher.onEdt(() -> lblErrorMessage.setText(message));
 	}
 
 	public StudySessionController getSessionController() {
@@ -460,6 +531,14 @@ public class TopicAndSessionManager extends JFrame implements TopicViewCallback,
 	void setSessionPanel(SessionPanel sessionPanel) {
 		this.sessionPanel = sessionPanel;
 	}
+	
+	void setDispatcher(ControllerDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+	
+	public boolean hasPendingControllerCalls() {
+		return !dispatcher.isIdle() || !topicPanel.getDispatcher().isIdle() || !sessionPanel.getDispatcher().isIdle();
+	}
 
 	
 	
@@ -0,0 +1,28 @@
+package com.sessionbuilder.swing;
+
+import java.util.ArrayList;
+
+import com.sessionbuilder.core.backend.Topic;
+
+public class TopicListModel extends PagedListModel<Topic, Long> {
+
+	private static final long serialVersionUID = 6L;
+
+	public TopicListModel() {
+		super(Topic::getId, 0L);
+	}
+
+	public TopicListModel(int pageSize, int maxCachedRows) {
+		super(Topic::getId, 0L, pageSize, maxCachedRows);
+	}
+
+	// con una cella prototipo la JList non interroga ogni riga del modello per calcolare le dimensioni
+	public static Topic prototype() {
+		return new Topic("Prototipo di riga", "Prototipo di riga", 5, new ArrayList<>());
+	}
+
+	public static String searchText(Topic topic) {
+		String description = topic.getDescription();
+		return description == null ? topic.getName() : topic.getName() + "\n" + description;
+	}
+}
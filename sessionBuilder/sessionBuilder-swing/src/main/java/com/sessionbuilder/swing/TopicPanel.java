@@ -7,6 +7,7 @@ import java.awt.FlowLayout;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.awt.Font;
 import javax.swing.Box;
@@ -14,7 +15,6 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.BoxLayout;
-import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JList;
@@ -28,14 +28,16 @@ import com.sessionbuilder.core.backend.TopicController;
 public class TopicPanel extends JPanel {
 	
 	private static final long serialVersionUID = 2L;
-	private DefaultListModel<StudySession> sessionModel;
+	private SessionListModel sessionModel;
 	private JLabel errorLbl;
 	private transient TopicController topicController;
+	private transient ControllerDispatcher dispatcher;
 	private TopicAndSessionManager managerView;
 	
 	private static final String FONT = "Dialog";
 	
-	public TopicPanel(DefaultListModel<StudySession> sharedSessionModel) {
+	public TopicPanel(SessionListModel sharedSessionModel) {
+		dispatcher = new ControllerDispatcher();
 		setBorder(new EmptyBorder(5,5,5,5));
 		setLayout(new BorderLayout());
 		
@@ -93,6 +95,8 @@ public class TopicPanel extends JPanel {
 		
 		this.sessionModel = sharedSessionModel;
 		JList<StudySession> sessionList = new JList<>(sessionModel);
+		sessionList.setPrototypeCellValue(SessionListModel.prototype());
+		sessionList.setCellRenderer(new PendingRowRenderer());
 		sessionList.setName("topicPanelSessionList");
 		JScrollPane sessions = new JScrollPane(sessionList);
 		
@@ -143,11 +147,15 @@ public class TopicPanel extends JPanel {
 		
 		addTopicButton.addActionListener( e -> {
 			if (topicController != null) {
-				List<StudySession> selectedSessions = sessionList.getSelectedValuesList();
+				List<Long> selectedSessionIds = Arrays.stream(sessionList.getSelectedIndices()).mapToObj(i -> sessionModel.keyAt(i).id()).toList();
 				try {
-					topicController.handleCreateTopic(nameField.getText(), descriptionField.getText() , 
-							Integer.parseInt(difficultyField.getText()), new ArrayList<>(selectedSessions));
-					errorLbl.setText(" ");
+					String name = nameField.getText();
+					String description = descriptionField.getText();
+					int difficulty = Integer.parseInt(difficultyField.getText());
+					dispatcher.dispatch("createTopic",
+						() -> topicController.handleCreateTopic(name, description, difficulty, new ArrayList<>(selectedSessionIds)),
+						topic -> errorLbl.setText(" "),
+						error -> showGeneralError("Errore nel salvare il topic: " + error.getMessage()));
 				} catch (Exception ex) {
 					showGeneralError("Errore nel salvare il topic: " + ex.getMessage());
 				}
@@ -160,7 +168,7 @@ public class TopicPanel extends JPanel {
 		this.managerView = managerView;
 	}
 	
-	public DefaultListModel<StudySession> getSessionModel(){
+	public SessionListModel getSessionModel(){
 		return sessionModel;
 	}
 	
@@ -176,6 +184,14 @@ public class TopicPanel extends JPanel {
 		this.topicController = controller;
 	}
 	
+	void setDispatcher(ControllerDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+	
+	ControllerDispatcher getDispatcher() {
+		return dispatcher;
+	}
+	
 	
 	
 	
@@ -0,0 +1,106 @@
+package com.sessionbuilder.swing;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ControllerDispatcherTest {
+	
+	private List<Runnable> pending;
+	private ControllerDispatcher dispatcher;
+	
+	@Before
+	public void setup() {
+		pending = new ArrayList<>();
+		dispatcher = new ControllerDispatcher(pending::add);
+	}
+	
+	@Test
+	public void testDispatchRunsCallAndHandsResultToEdt() throws Exception {
+		AtomicReference<String> result = new AtomicReference<>();
+		AtomicBoolean resultOnEdt = new AtomicBoolean();
+		onEdt(() -> dispatcher.dispatch("key", () -> "valore", value -> {
+			result.set(value);
+			resultOnEdt.set(SwingUtilities.isEventDispatchThread());
+		}, error -> fail("nessun errore atteso")));
+		onEdt(() -> pending.forEach(Runnable::run));
+		assertThat(result.get()).isEqualTo("valore");
+		assertThat(resultOnEdt.get()).isTrue();
+		assertThat(dispatcher.isIdle()).isTrue();
+	}
+	
+	@Test
+	public void testDispatchSameKeyWhileInFlightIsCoalesced() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		AtomicBoolean first = new AtomicBoolean();
+		AtomicBoolean second = new AtomicBoolean();
+		AtomicBoolean other = new AtomicBoolean();
+		onEdt(() -> {
+			first.set(dispatcher.dispatch("deleteTopic:1", calls::incrementAndGet));
+			second.set(dispatcher.dispatch("deleteTopic:1", calls::incrementAndGet));
+			other.set(dispatcher.dispatch("deleteTopic:2", calls::incrementAndGet));
+		});
+		assertThat(first.get()).isTrue();
+		assertThat(second.get()).isFalse();
+		assertThat(other.get()).isTrue();
+		assertThat(dispatcher.isInFlight("deleteTopic:1")).isTrue();
+		assertThat(pending).hasSize(2);
+		onEdt(() -> pending.forEach(Runnable::run));
+		assertThat(calls.get()).isEqualTo(2);
+		assertThat(dispatcher.isInFlight("deleteTopic:1")).isFalse();
+		assertThat(dispatcher.isIdle()).isTrue();
+	}
+	
+	@Test
+	public void testDispatchAgainAfterCompletion() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		dispatcher = new ControllerDispatcher(Runnable::run);
+		onEdt(() -> {
+			dispatcher.dispatch("completeSession:1", calls::incrementAndGet);
+			dispatcher.dispatch("completeSession:1", calls::incrementAndGet);
+		});
+		assertThat(calls.get()).isEqualTo(2);
+	}
+	
+	@Test
+	public void testDispatchFailureIsHandedToEdtAndReleasesKey() throws Exception {
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		onEdt(() -> dispatcher.dispatch("key", () -> {
+			throw new IllegalArgumentException("errore");
+		}, value -> fail("nessun risultato atteso"), failure::set));
+		onEdt(() -> pending.forEach(Runnable::run));
+		assertThat(failure.get()).isInstanceOf(IllegalArgumentException.class).hasMessage("errore");
+		assertThat(dispatcher.isIdle()).isTrue();
+	}
+	
+	@Test
+	public void testOnEdtFromBackgroundThreadRunsOnEdt() throws Exception {
+		AtomicBoolean ranOnEdt = new AtomicBoolean();
+		ControllerDispatcher.onEdt(() -> ranOnEdt.set(SwingUtilities.isEventDispatchThread()));
+		SwingUtilities.invokeAndWait(() -> {});
+		assertThat(ranOnEdt.get()).isTrue();
+	}
+	
+	@Test
+	public void testOnEdtFromEdtRunsImmediately() throws Exception {
+		List<String> order = new ArrayList<>();
+		onEdt(() -> {
+			ControllerDispatcher.onEdt(() -> order.add("update"));
+			order.add("after");
+		});
+		assertThat(order).containsExactly("update", "after");
+	}
+	
+	private void onEdt(Runnable action) throws Exception {
+		SwingUtilities.invokeAndWait(action);
+	}
+}
@@ -0,0 +1,281 @@
+package com.sessionbuilder.swing;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sessionbuilder.core.backend.Page;
+import com.sessionbuilder.core.backend.Topic;
+
+public class FilteredListModelTest {
+	
+	private List<Topic> table;
+	private List<String> events;
+	private TopicListModel source;
+	private FilteredListModel<Topic, Long> model;
+	
+	@Before
+	public void setup() throws Exception {
+		table = new ArrayList<>();
+		table.add(topic(1L, "geografia", "capitali asiatiche"));
+		table.add(topic(2L, "storia", "rivoluzione francese"));
+		table.add(topic(3L, "geometria", "solidi"));
+		table.add(topic(4L, "francese", "verbi irregolari"));
+		events = new ArrayList<>();
+		onEdt(() -> {
+			source = new TopicListModel(2, 2);
+			model = new FilteredListModel<>(source, TopicListModel::searchText, 10_000, 2);
+			model.setExecutor(Runnable::run);
+			model.addListDataListener(new ListDataListener() {
+				@Override
+				public void intervalAdded(ListDataEvent e) {
+					events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+				}
+				@Override
+				public void intervalRemoved(ListDataEvent e) {
+					events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+				}
+				@Override
+				public void contentsChanged(ListDataEvent e) {
+					events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+				}
+			});
+			return null;
+		});
+	}
+	
+	@Test
+	public void testWithoutQueryForwardsSourceRowsAndEvents() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			source.removeElement(table.get(0));
+			return null;
+		});
+		assertThat(model.isFiltering()).isFalse();
+		assertThat(model.getSize()).isEqualTo(3);
+		assertThat(model.getElementAt(0)).isEqualTo(table.get(1));
+		assertThat(events).containsExactly("added 0-3", "removed 0-0");
+	}
+	
+	@Test
+	public void testQueryShowsMatchingRowsInSourceOrder() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		applyQuery("Franc");
+		assertThat(model.getQuery()).isEqualTo("franc");
+		assertThat(model.getSize()).isEqualTo(2);
+		assertThat(model.keyAt(0)).isEqualTo(2L);
+		assertThat(model.keyAt(1)).isEqualTo(4L);
+		assertThat(model.sourceIndex(1)).isEqualTo(3);
+		assertThat(model.getElementAt(1)).isEqualTo(table.get(3));
+	}
+	
+	@Test
+	public void testTopicsWithoutDescriptionDoNotMatchNull() throws Exception {
+		table.add(topic(5L, "nulla", null));
+		table.add(topic(6L, "latino", null));
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		applyQuery("nul");
+		assertThat(model.getSize()).isEqualTo(1);
+		assertThat(model.keyAt(0)).isEqualTo(5L);
+		assertThat(TopicListModel.searchText(table.get(5))).isEqualTo("latino");
+	}
+	
+	@Test
+	public void testBlankQueryRemovesFilter() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		applyQuery("geo");
+		applyQuery("  ");
+		assertThat(model.isFiltering()).isFalse();
+		assertThat(model.getSize()).isEqualTo(4);
+	}
+	
+	@Test
+	public void testOnlyLatestQueryIsApplied() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		List<Runnable> pending = new ArrayList<>();
+		onEdt(() -> {
+			model.setExecutor(pending::add);
+			model.applyQuery("geo");
+			model.applyQuery("storia");
+			return null;
+		});
+		pending.get(1).run();
+		pending.get(0).run();
+		flushEdt();
+		assertThat(model.getQuery()).isEqualTo("storia");
+		assertThat(model.getSize()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testSetQueryIsDebounced() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		onEdt(() -> {
+			model.setQuery("g");
+			model.setQuery("ge");
+			model.setQuery("geo");
+			return null;
+		});
+		assertThat(onEdt(model::isPending)).isTrue();
+		assertThat(model.isFiltering()).isFalse();
+	}
+	
+	@Test
+	public void testSourceChangesAreFilteredWhileQueryIsActive() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		applyQuery("geo");
+		events.clear();
+		Topic geology = topic(5L, "geologia", "rocce");
+		onEdt(() -> {
+			source.addElement(geology);
+			source.addElement(topic(6L, "chimica", "reazioni"));
+			return null;
+		});
+		assertThat(onEdt(model::isPending)).isTrue();
+		assertThat(model.getSize()).isEqualTo(2);
+		assertThat(events).isEmpty();
+		applyQuery("geo");
+		assertThat(model.getSize()).isEqualTo(3);
+		assertThat(model.getElementAt(2)).isEqualTo(geology);
+		assertThat(events).containsExactly("added 2-2");
+		onEdt(() -> source.removeElement(table.get(0)));
+		assertThat(model.getSize()).isEqualTo(2);
+		assertThat(model.keyAt(0)).isEqualTo(3L);
+		assertThat(model.keyAt(1)).isEqualTo(5L);
+		assertThat(model.sourceIndex(1)).isEqualTo(3);
+		assertThat(events).containsExactly("added 2-2", "removed 0-0");
+	}
+	
+	@Test
+	public void testRemovingUnmatchedRowsShiftsVisiblePositions() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		applyQuery("francese");
+		events.clear();
+		onEdt(() -> source.removeElement(table.get(0)));
+		assertThat(events).isEmpty();
+		assertThat(model.getSize()).isEqualTo(2);
+		assertThat(model.sourceIndex(0)).isZero();
+		assertThat(model.sourceIndex(1)).isEqualTo(2);
+		assertThat(model.getElementAt(1)).isEqualTo(table.get(3));
+	}
+	
+	@Test
+	public void testQueriesShorterThanAGramDoNotFilter() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		applyQuery("ge");
+		assertThat(model.isFiltering()).isFalse();
+		assertThat(model.getQuery()).isEmpty();
+		assertThat(model.getSize()).isEqualTo(4);
+	}
+	
+	@Test
+	public void testRenamedRowIsReindexed() throws Exception {
+		onEdt(() -> {
+			source.addAll(table);
+			return null;
+		});
+		onEdt(() -> {
+			source.addElement(topic(2L, "storia", "medioevo"));
+			return null;
+		});
+		applyQuery("rivoluzione");
+		assertThat(model.getSize()).isZero();
+		applyQuery("medioevo");
+		assertThat(model.keyAt(0)).isEqualTo(2L);
+	}
+	
+	@Test
+	public void testActiveQueryLoadsPagesOnlyWithinScanBudget() throws Exception {
+		table.add(topic(5L, "lingue", "francese antico"));
+		table.add(topic(6L, "letteratura", "romanzo francese"));
+		onEdt(() -> source.load(this::loadPage, Runnable::run));
+		flushEdt();
+		assertThat(source.getSize()).isEqualTo(2);
+		applyQuery("francese");
+		flushEdt();
+		assertThat(source.getSize()).isEqualTo(4);
+		assertThat(onEdt(model::isPending)).isTrue();
+		applyQuery("francese");
+		flushEdt();
+		assertThat(source.getSize()).isEqualTo(4);
+		assertThat(source.hasMore()).isTrue();
+		assertThat(model.getSize()).isEqualTo(2);
+		assertThat(model.getIndex().size()).isEqualTo(4);
+	}
+	
+	@Test
+	public void testNegativeScanBudgetFailure() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+			() -> new FilteredListModel<>(new TopicListModel(), TopicListModel::searchText, 10, -1));
+		assertThat(e.getMessage()).isEqualTo("il numero di righe da scorrere non può essere negativo");
+	}
+	
+	private void applyQuery(String query) throws Exception {
+		onEdt(() -> model.applyQuery(query));
+		flushEdt();
+	}
+	
+	private Page<Topic> loadPage(long afterId, int pageSize) {
+		List<Topic> rows = table.stream().filter(topic -> topic.getId() > afterId).limit(pageSize + 1L).toList();
+		boolean hasNext = rows.size() > pageSize;
+		return new Page<>(hasNext ? rows.subList(0, pageSize) : rows, hasNext);
+	}
+	
+	private Topic topic(long id, String name, String description) {
+		Topic topic = new Topic(name, description, 1, new ArrayList<>());
+		topic.setId(id);
+		return topic;
+	}
+	
+	private <R> R onEdt(Callable<R> action) throws Exception {
+		AtomicReference<R> result = new AtomicReference<>();
+		AtomicReference<Exception> failure = new AtomicReference<>();
+		SwingUtilities.invokeAndWait(() -> {
+			try {
+				result.set(action.call());
+			} catch (Exception e) {
+				failure.set(e);
+			}
+		});
+		if (failure.get() != null) throw failure.get();
+		return result.get();
+	}
+	
+	private void flushEdt() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {});
+	}
+}
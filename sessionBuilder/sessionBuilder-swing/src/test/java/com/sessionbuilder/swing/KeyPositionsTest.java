@@ -0,0 +1,94 @@
+package com.sessionbuilder.swing;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class KeyPositionsTest {
+
+	private KeyPositions<Long> positions;
+
+	@Before
+	public void setup() {
+		positions = new KeyPositions<>();
+	}
+
+	@Test
+	public void testAppendedKeysKeepInsertionOrder() {
+		for (long key = 1; key <= 5; key++) positions.add(key);
+		assertThat(positions.size()).isEqualTo(5);
+		assertThat(positions.indexOf(1L)).isZero();
+		assertThat(positions.indexOf(5L)).isEqualTo(4);
+		assertThat(positions.keyAt(2)).isEqualTo(3L);
+		assertThat(positions.indexOf(9L)).isEqualTo(-1);
+	}
+
+	@Test
+	public void testRemovalShiftsFollowingPositions() {
+		for (long key = 1; key <= 5; key++) positions.add(key);
+		assertThat(positions.remove(1)).isEqualTo(2L);
+		assertThat(positions.remove(2)).isEqualTo(4L);
+		assertThat(positions.size()).isEqualTo(3);
+		assertThat(positions.contains(2L)).isFalse();
+		assertThat(positions.indexOf(2L)).isEqualTo(-1);
+		assertThat(positions.indexOf(3L)).isEqualTo(1);
+		assertThat(positions.indexOf(5L)).isEqualTo(2);
+		assertThat(positions.keyAt(2)).isEqualTo(5L);
+		positions.add(6L);
+		assertThat(positions.indexOf(6L)).isEqualTo(3);
+	}
+
+	@Test
+	public void testReplaceKeepsThePosition() {
+		for (long key = 1; key <= 3; key++) positions.add(key);
+		positions.replace(1, 20L);
+		assertThat(positions.contains(2L)).isFalse();
+		assertThat(positions.indexOf(20L)).isEqualTo(1);
+		assertThat(positions.keyAt(1)).isEqualTo(20L);
+	}
+
+	@Test
+	public void testClearForgetsEveryKey() {
+		positions.add(1L);
+		positions.clear();
+		assertThat(positions.size()).isZero();
+		assertThat(positions.contains(1L)).isFalse();
+		positions.add(2L);
+		assertThat(positions.keyAt(0)).isEqualTo(2L);
+	}
+
+	@Test
+	public void testPositionOutsideTheListFailure() {
+		positions.add(1L);
+		IndexOutOfBoundsException e = assertThrows(IndexOutOfBoundsException.class, () -> positions.keyAt(1));
+		assertThat(e.getMessage()).isEqualTo("posizione 1 fuori dalla lista di 1 righe");
+	}
+
+	@Test
+	public void testMatchesAListThroughRemovalsAndCompactions() {
+		List<Long> expected = new ArrayList<>();
+		Random random = new Random(24);
+		long next = 0;
+		for (int step = 0; step < 20_000; step++) {
+			int addOdds = step < 10_000 ? 3 : 1;
+			if (expected.isEmpty() || random.nextInt(4) < addOdds) {
+				positions.add(next);
+				expected.add(next++);
+			} else {
+				int index = random.nextInt(expected.size());
+				assertThat(positions.remove(index)).isEqualTo(expected.remove(index));
+			}
+		}
+		assertThat(positions.size()).isEqualTo(expected.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(positions.keyAt(i)).isEqualTo(expected.get(i));
+			assertThat(positions.indexOf(expected.get(i))).isEqualTo(i);
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package com.sessionbuilder.swing;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sessionbuilder.core.backend.Page;
+import com.sessionbuilder.core.backend.Topic;
+
+public class PagedListModelTest {
+	
+	private List<Topic> table;
+	private List<Long> requestedCursors;
+	private List<String> events;
+	private TopicListModel model;
+	
+	@Before
+	public void setup() throws Exception {
+		table = new ArrayList<>();
+		for (long id = 1; id <= 6; id++) table.add(topic(id));
+		requestedCursors = new ArrayList<>();
+		events = new ArrayList<>();
+		model = new TopicListModel(2, 2);
+		model.addListDataListener(new ListDataListener() {
+			@Override
+			public void intervalAdded(ListDataEvent e) {
+				events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+			}
+			@Override
+			public void intervalRemoved(ListDataEvent e) {
+				events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+			}
+			@Override
+			public void contentsChanged(ListDataEvent e) {
+				events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+			}
+		});
+	}
+	
+	@Test
+	public void testLoadFetchesOnlyFirstPageWithSingleEvent() throws Exception {
+		onEdt(() -> model.load(this::loadPage, Runnable::run));
+		flushEdt();
+		assertThat(requestedCursors).containsExactly(0L);
+		assertThat(model.getSize()).isEqualTo(2);
+		assertThat(model.hasMore()).isTrue();
+		assertThat(events).containsExactly("added 0-1");
+	}
+	
+	@Test
+	public void testReadingNearTheTailLoadsNextPageFromLastKey() throws Exception {
+		onEdt(() -> model.load(this::loadPage, Runnable::run));
+		flushEdt();
+		Topic first = onEdt(() -> model.getElementAt(1));
+		flushEdt();
+		assertThat(first).isEqualTo(table.get(1));
+		assertThat(requestedCursors).containsExactly(0L, 2L);
+		assertThat(model.getSize()).isEqualTo(4);
+		assertThat(events).containsExactly("added 0-1", "added 2-3");
+	}
+	
+	@Test
+	public void testEvictedRowsAreReloadedFromThePrecedingKey() throws Exception {
+		loadEverything();
+		assertThat(model.getSize()).isEqualTo(6);
+		requestedCursors.clear();
+		events.clear();
+		assertThat(onEdt(() -> model.getElementAt(2))).isNull();
+		flushEdt();
+		assertThat(requestedCursors).containsExactly(2L);
+		assertThat(events).containsExactly("changed 2-3");
+		assertThat(onEdt(() -> model.getElementAt(2))).isEqualTo(table.get(2));
+		assertThat(model.keyAt(2)).isEqualTo(3L);
+	}
+	
+	@Test
+	public void testRowsMissingFromReloadedPageAreNotRequestedAgain() throws Exception {
+		loadEverything();
+		table.remove(2);
+		requestedCursors.clear();
+		onEdt(() -> model.getElementAt(2));
+		flushEdt();
+		assertThat(onEdt(() -> model.getElementAt(2))).isNull();
+		flushEdt();
+		assertThat(requestedCursors).containsExactly(2L);
+	}
+	
+	@Test
+	public void testLocallyAddedRowIsNotDuplicatedByLaterPage() throws Exception {
+		onEdt(() -> model.load(this::loadPage, Runnable::run));
+		flushEdt();
+		onEdt(() -> {
+			model.addElement(table.get(2));
+			return null;
+		});
+		loadEverything();
+		assertThat(model.getSize()).isEqualTo(6);
+		assertThat(model.indexOf(table.get(2))).isEqualTo(2);
+	}
+	
+	@Test
+	public void testLocallyAddedNewestRowDoesNotMoveTheServerCursor() throws Exception {
+		Topic newest = topic(7L);
+		table.add(newest);
+		onEdt(() -> model.load(this::loadPage, Runnable::run));
+		flushEdt();
+		onEdt(() -> {
+			model.addElement(newest);
+			return null;
+		});
+		loadEverything();
+		assertThat(requestedCursors).containsExactly(0L, 2L, 4L, 6L);
+		assertThat(model.getSize()).isEqualTo(7);
+		assertThat(model.indexOf(newest)).isEqualTo(2);
+		for (long id = 1; id <= 6; id++) assertThat(model.indexOfKey(id)).isNotNegative();
+		requestedCursors.clear();
+		onEdt(() -> model.getElementAt(3));
+		flushEdt();
+		assertThat(requestedCursors).containsExactly(2L);
+		assertThat(onEdt(() -> model.getElementAt(3))).isEqualTo(table.get(2));
+	}
+	
+	@Test
+	public void testMutationsKeepKeysAndFireEvents() throws Exception {
+		Topic topic = topic(10L);
+		Topic updated = topic(10L);
+		updated.setName("aggiornato");
+		onEdt(() -> {
+			model.addAll(List.of(table.get(0), table.get(1)));
+			model.addElement(topic);
+			model.setElementAt(updated, 2);
+			model.removeElement(table.get(0));
+			return null;
+		});
+		assertThat(events).containsExactly("added 0-1", "added 2-2", "changed 2-2", "removed 0-0");
+		assertThat(model.toArray()).containsExactly(table.get(1), updated);
+		assertThat(model.contains(topic)).isTrue();
+		assertThat(model.removeElement(table.get(0))).isFalse();
+	}
+	
+	@Test
+	public void testIndexOfKeyFollowsRemovals() throws Exception {
+		onEdt(() -> {
+			model.addAll(table);
+			model.removeElement(table.get(1));
+			model.removeElement(table.get(3));
+			return null;
+		});
+		assertThat(model.indexOfKey(1L)).isZero();
+		assertThat(model.indexOfKey(2L)).isEqualTo(-1);
+		assertThat(model.indexOfKey(3L)).isEqualTo(1);
+		assertThat(model.indexOfKey(5L)).isEqualTo(2);
+		assertThat(model.indexOfKey(6L)).isEqualTo(3);
+		assertThat(model.indexOf(table.get(5))).isEqualTo(3);
+	}
+	
+	@Test
+	public void testIndexOfKeyCoversLoadedPagesAndRenamedRows() throws Exception {
+		loadEverything();
+		onEdt(() -> {
+			model.setElementAt(topic(20L), 4);
+			return null;
+		});
+		assertThat(model.indexOfKey(4L)).isEqualTo(3);
+		assertThat(model.indexOfKey(5L)).isEqualTo(-1);
+		assertThat(model.indexOfKey(20L)).isEqualTo(4);
+	}
+	
+	@Test
+	public void testAddingExistingKeyReplacesRow() throws Exception {
+		Topic updated = topic(2L);
+		updated.setName("aggiornato");
+		onEdt(() -> {
+			model.addAll(List.of(table.get(0), table.get(1)));
+			model.addElement(updated);
+			return null;
+		});
+		assertThat(model.getSize()).isEqualTo(2);
+		assertThat(model.toArray()).containsExactly(table.get(0), updated);
+		assertThat(events).containsExactly("added 0-1", "changed 1-1");
+	}
+	
+	@Test
+	public void testReplaceElementIgnoresUnknownKey() throws Exception {
+		onEdt(() -> {
+			model.addElement(table.get(0));
+			return null;
+		});
+		assertThat(onEdt(() -> model.replaceElement(table.get(1)))).isFalse();
+		assertThat(model.getSize()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testSetElementAtRejectsKeyOfAnotherRow() throws Exception {
+		onEdt(() -> {
+			model.addAll(List.of(table.get(0), table.get(1)));
+			return null;
+		});
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> model.setElementAt(table.get(1), 0));
+		assertThat(e.getMessage()).isEqualTo("la riga è già presente nella lista");
+	}
+	
+	@Test
+	public void testResultsOfPreviousLoadAreIgnoredAfterClear() throws Exception {
+		List<Runnable> pending = new ArrayList<>();
+		onEdt(() -> model.load(this::loadPage, pending::add));
+		onEdt(() -> {
+			model.clear();
+			return null;
+		});
+		pending.forEach(Runnable::run);
+		flushEdt();
+		assertThat(model.getSize()).isZero();
+		assertThat(model.hasMore()).isFalse();
+	}
+	
+	@Test
+	public void testLoadFailureStopsLoadingAndFailsFuture() throws Exception {
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		onEdt(() -> model.load((after, size) -> {
+			throw new IllegalStateException("errore");
+		}, Runnable::run).whenComplete((result, error) -> failure.set(error)));
+		flushEdt();
+		assertThat(failure.get()).hasRootCauseMessage("errore");
+		assertThat(model.hasMore()).isFalse();
+		assertThat(model.isEmpty()).isTrue();
+	}
+	
+	@Test
+	public void testPageSizeMustBePositive() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new TopicListModel(0, 10));
+		assertThat(e.getMessage()).isEqualTo("la dimensione della pagina deve essere positiva");
+	}
+	
+	@Test
+	public void testCacheMustHoldAPage() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new TopicListModel(10, 5));
+		assertThat(e.getMessage()).isEqualTo("la cache deve contenere almeno una pagina");
+	}
+	
+	private void loadEverything() throws Exception {
+		if (!model.hasMore() && model.isEmpty()) onEdt(() -> model.load(this::loadPage, Runnable::run));
+		flushEdt();
+		while (model.hasMore()) {
+			onEdt(() -> model.getElementAt(model.getSize() - 1));
+			flushEdt();
+		}
+	}
+	
+	private Page<Topic> loadPage(long afterId, int pageSize) {
+		requestedCursors.add(afterId);
+		List<Topic> rows = table.stream().filter(topic -> topic.getId() > afterId).limit(pageSize + 1L).toList();
+		boolean hasNext = rows.size() > pageSize;
+		return new Page<>(hasNext ? rows.subList(0, pageSize) : rows, hasNext);
+	}
+	
+	private Topic topic(long id) {
+		Topic topic = new Topic("topic " + id, "descrizione", 1, new ArrayList<>());
+		topic.setId(id);
+		return topic;
+	}
+	
+	private <R> R onEdt(Callable<R> action) throws Exception {
+		AtomicReference<R> result = new AtomicReference<>();
+		AtomicReference<Exception> failure = new AtomicReference<>();
+		SwingUtilities.invokeAndWait(() -> {
+			try {
+				result.set(action.call());
+			} catch (Exception e) {
+				failure.set(e);
+			}
+		});
+		if (failure.get() != null) throw failure.get();
+		return result.get();
+	}
+	
+	private void flushEdt() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {});
+	}
+}
@@ -0,0 +1,41 @@
+package com.sessionbuilder.swing;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.awt.Color;
+import java.util.ArrayList;
+
+import javax.swing.JLabel;
+import javax.swing.JList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sessionbuilder.core.backend.Topic;
+
+public class PendingRowRendererTest {
+	
+	private JList<Topic> list;
+	private PendingRowRenderer renderer;
+	
+	@Before
+	public void setup() {
+		list = new JList<>();
+		renderer = new PendingRowRenderer();
+	}
+	
+	@Test
+	public void testUnloadedRowShowsPlaceholder() {
+		JLabel cell = (JLabel) renderer.getListCellRendererComponent(list, null, 0, false, false);
+		assertThat(cell.getText()).isEqualTo(PendingRowRenderer.PENDING_TEXT);
+		assertThat(cell.getForeground()).isEqualTo(Color.GRAY);
+	}
+	
+	@Test
+	public void testLoadedRowIsRenderedAsUsual() {
+		Topic topic = new Topic("Cucina", "Pasticceria", 3, new ArrayList<>());
+		JLabel cell = (JLabel) renderer.getListCellRendererComponent(list, topic, 0, false, false);
+		assertThat(cell.getText()).isEqualTo(topic.toString());
+		assertThat(cell.getForeground()).isEqualTo(list.getForeground());
+	}
+}
@@ -55,6 +55,9 @@ public class SessionPanelTest extends AssertJSwingJUnitTestCase {
 		closeable = MockitoAnnotations.openMocks(this);
 		GuiActionRunner.execute(() -> {
 			managerView = new TopicAndSessionManager();
+			managerView.setDispatcher(new ControllerDispatcher(Runnable::run));
+			managerView.getTopicPanel().setDispatcher(new ControllerDispatcher(Runnable::run));
+			managerView.getSessionPanel().setDispatcher(new ControllerDispatcher(Runnable::run));
 		});
 		window = new FrameFixture(robot(), managerView);
 		window.show();
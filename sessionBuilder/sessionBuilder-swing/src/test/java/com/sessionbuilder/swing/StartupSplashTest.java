@@ -0,0 +1,58 @@
+package com.sessionbuilder.swing;
+
+import static org.assertj.core.api.Assertions.*;
+
+import javax.swing.JLabel;
+
+import org.assertj.swing.edt.GuiActionRunner;
+import org.assertj.swing.junit.runner.GUITestRunner;
+import org.assertj.swing.junit.testcase.AssertJSwingJUnitTestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GUITestRunner.class)
+public class StartupSplashTest extends AssertJSwingJUnitTestCase {
+
+	private StartupSplash splash;
+
+	@Override
+	protected void onSetUp() {
+		splash = GuiActionRunner.execute(() -> {
+			StartupSplash startupSplash = new StartupSplash();
+			startupSplash.setVisible(true);
+			return startupSplash;
+		});
+	}
+
+	@Override
+	protected void onTearDown() {
+		GuiActionRunner.execute(() -> splash.dispose());
+	}
+
+	@Test
+	public void testSplashStartsWithStartingStage() {
+		assertThat(splash.getStage()).isEqualTo(StartupSplash.Stage.STARTING);
+		assertThat(statusText()).isEqualTo("Avvio in corso...");
+	}
+
+	@Test
+	public void testAdvanceShowsStageStatus() {
+		GuiActionRunner.execute(() -> splash.advance(StartupSplash.Stage.MIGRATIONS));
+		assertThat(splash.getStage()).isEqualTo(StartupSplash.Stage.MIGRATIONS);
+		assertThat(statusText()).isEqualTo("Migrazione dello schema del database...");
+	}
+
+	@Test
+	public void testLateStageDoesNotMoveSplashBack() {
+		GuiActionRunner.execute(() -> {
+			splash.advance(StartupSplash.Stage.WIRING);
+			splash.advance(StartupSplash.Stage.PERSISTENCE);
+		});
+		assertThat(splash.getStage()).isEqualTo(StartupSplash.Stage.WIRING);
+		assertThat(statusText()).isEqualTo("Collegamento dei controller...");
+	}
+
+	private String statusText() {
+		return robot().finder().findByName(splash, "splashStatusLabel", JLabel.class).getText();
+	}
+}
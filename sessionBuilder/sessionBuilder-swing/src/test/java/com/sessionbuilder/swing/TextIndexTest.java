@@ -0,0 +1,87 @@
+package com.sessionbuilder.swing;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TextIndexTest {
+	
+	private TextIndex<String, Long> index;
+	
+	@Before
+	public void setup() {
+		index = new TextIndex<>(text -> text);
+	}
+	
+	@Test
+	public void testSearchFindsSubstringsIgnoringCase() {
+		index.rowStored(1L, "Geografia dell'Asia");
+		index.rowStored(2L, "Storia moderna");
+		index.rowStored(3L, "Geometria");
+		assertThat(index.search("GEO")).containsExactly(1L, 3L);
+		assertThat(index.search("asia")).containsExactly(1L);
+		assertThat(index.search("  moderna ")).containsExactly(2L);
+		assertThat(index.search("chimica")).isEmpty();
+	}
+	
+	@Test
+	public void testQueriesShorterThanAGramFindNothing() {
+		index.rowStored(1L, "ab");
+		index.rowStored(2L, "cd");
+		assertThat(index.search("b")).isEmpty();
+		assertThat(index.search("cd")).isEmpty();
+		assertThat(index.search("")).isEmpty();
+	}
+	
+	@Test
+	public void testCandidatesAreConfirmedOnTheWholeQuery() {
+		index.rowStored(1L, "abcd xbcdy");
+		index.rowStored(2L, "abcdy");
+		assertThat(index.search("bcdy")).containsExactly(1L, 2L);
+		assertThat(index.search("abcdy")).containsExactly(2L);
+	}
+	
+	@Test
+	public void testStoringAgainReplacesText() {
+		index.rowStored(1L, "vecchia nota");
+		index.rowStored(1L, "nuova nota");
+		assertThat(index.search("vecchia")).isEmpty();
+		assertThat(index.search("nuova")).containsExactly(1L);
+		assertThat(index.size()).isEqualTo(1);
+	}
+	
+	@Test
+	public void testRemovedAndClearedRowsAreNotFound() {
+		index.rowStored(1L, "nota");
+		index.rowStored(2L, "nota");
+		index.rowRemoved(1L);
+		index.rowRemoved(3L);
+		assertThat(index.search("nota")).containsExactly(2L);
+		index.rowsCleared();
+		assertThat(index.search("nota")).isEmpty();
+		assertThat(index.size()).isZero();
+	}
+	
+	@Test
+	public void testCompactionKeepsLiveRows() {
+		IntStream.range(0, 3000).forEach(i -> index.rowStored((long) i, "riga " + i));
+		IntStream.range(0, 2500).forEach(i -> index.rowRemoved((long) i));
+		assertThat(index.size()).isEqualTo(500);
+		assertThat(index.search("riga 2999")).containsExactly(2999L);
+		assertThat(index.search("riga 10")).isEmpty();
+		index.rowStored(10L, "riga 10");
+		assertThat(index.search("riga 10")).containsExactly(10L);
+	}
+	
+	@Test
+	public void testSearchOnManyRows() {
+		IntStream.range(0, 100_000).forEach(i -> index.rowStored((long) i, "sessione di studio numero " + i + " capitolo " + (i % 97)));
+		List<Long> result = index.search("numero 4242 capitolo");
+		assertThat(result).containsExactly(4242L);
+		assertThat(index.search("capitolo 96")).hasSize(1030);
+	}
+}
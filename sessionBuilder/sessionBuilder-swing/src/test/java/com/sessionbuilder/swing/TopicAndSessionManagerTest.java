@@ -3,15 +3,20 @@ package com.sessionbuilder.swing;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import javax.swing.DefaultListModel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.assertj.swing.core.matcher.JButtonMatcher;
+import org.assertj.swing.timing.Condition;
+import org.assertj.swing.timing.Pause;
 import org.assertj.swing.core.matcher.JLabelMatcher;
 import org.assertj.swing.edt.GuiActionRunner;
 import org.assertj.swing.fixture.FrameFixture;
@@ -23,6 +28,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.sessionbuilder.core.backend.Page;
 import com.sessionbuilder.core.backend.StudySession;
 import com.sessionbuilder.core.backend.StudySessionController;
 import com.sessionbuilder.core.backend.Topic;
@@ -56,6 +62,11 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		closeable = MockitoAnnotations.openMocks(this);
 		GuiActionRunner.execute(() -> {
 			managerView = new TopicAndSessionManager();
+			managerView.setDispatcher(new ControllerDispatcher(Runnable::run));
+			managerView.getTopicPanel().setDispatcher(new ControllerDispatcher(Runnable::run));
+			managerView.getSessionPanel().setDispatcher(new ControllerDispatcher(Runnable::run));
+			managerView.getTopicFilterModel().setExecutor(Runnable::run);
+			managerView.getSessionFilterModel().setExecutor(Runnable::run);
 		});
 		robot().waitForIdle();
 		window = new FrameFixture(robot(), managerView);
@@ -80,50 +91,84 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	}
 
 	@Test
-	public void testLoadInitialDataSuccess() {
-		List<Topic> allTopics = new ArrayList<>(List.of(topic1, topic2));
-		List<StudySession> allSessions = new ArrayList<>(List.of(session1, session2));
-		when(topicController.handleGetAllTopics()).thenReturn(allTopics);
-		when(sessionController.handleGetAllSessions()).thenReturn(allSessions);
-		GuiActionRunner.execute(() -> {
-			managerView.loadInitialData();
-		});
-		verify(topicController).handleGetAllTopics();
-		verify(sessionController).handleGetAllSessions();
-		assertThat(managerView.getTopicModel().elementAt(0)).isEqualTo(topic1);
-		assertThat(managerView.getTopicModel().elementAt(1)).isEqualTo(topic2);
-		assertThat(managerView.getStudySessionModel().elementAt(0)).isEqualTo(session1);
-		assertThat(managerView.getStudySessionModel().elementAt(1)).isEqualTo(session2);
+	public void testLoadInitialDataAsyncNoSessionControllerFailure() {
+		managerView.setTopicController(topicController);
+		managerView.setSessionController(null);
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> managerView.loadInitialDataAsync(Runnable::run));
+		assertThat(e.getMessage()).isEqualTo("i record del db non sono stati caricati correttamente");
+		verify(topicController, never()).handleGetTopicsPage(anyLong(), anyInt());
+		assertThat(managerView.getSessionController()).isNull();
 	}
 
 	@Test
-	public void testLoadInitialDataNoTopicControllerFailure() {
-		managerView.setSessionController(sessionController);
+	public void testLoadInitialDataAsyncNoControllersFailure() {
 		managerView.setTopicController(null);
-		IllegalStateException e = assertThrows(IllegalStateException.class, () -> managerView.loadInitialData());
+		managerView.setSessionController(null);
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> managerView.loadInitialDataAsync(Runnable::run));
 		assertThat(e.getMessage()).isEqualTo("i record del db non sono stati caricati correttamente");
+		assertThat(managerView.getSessionController()).isNull();
 		assertThat(managerView.getTopicController()).isNull();
-		verify(sessionController, times(0)).handleGetAllSessions();
 	}
 
 	@Test
-	public void testLoadInitialDataNoSessionControllerFailure() {
-		managerView.setTopicController(topicController);
-		managerView.setSessionController(null);
-		IllegalStateException e = assertThrows(IllegalStateException.class, () -> managerView.loadInitialData());
-		assertThat(e.getMessage()).isEqualTo("i record del db non sono stati caricati correttamente");
-		verify(topicController, times(0)).handleGetAllTopics();
-		assertThat(managerView.getSessionController()).isNull();
+	public void testLoadInitialDataAsyncFillsModelsAndHidesProgress() {
+		when(topicController.handleGetTopicsPage(0L, PagedListModel.DEFAULT_PAGE_SIZE)).thenReturn(new Page<>(List.of(topic1, topic2), false));
+		when(sessionController.handleGetSessionsPage(null, 0L, PagedListModel.DEFAULT_PAGE_SIZE)).thenReturn(new Page<>(List.of(session1, session2), false));
+		CompletableFuture<Void> loading = GuiActionRunner.execute(() -> managerView.loadInitialDataAsync(Runnable::run));
+		loading.join();
+		robot().waitForIdle();
+		assertThat(managerView.getTopicModel().toArray()).containsExactly(topic1, topic2);
+		assertThat(managerView.getStudySessionModel().toArray()).containsExactly(session1, session2);
+		assertThat(managerView.getLoadingProgressBar().isVisible()).isFalse();
+	}
+
+	@Test
+	public void testLoadInitialDataAsyncShowsProgressWhileLoading() {
+		List<Runnable> pending = new ArrayList<>();
+		when(topicController.handleGetTopicsPage(0L, PagedListModel.DEFAULT_PAGE_SIZE)).thenReturn(new Page<>(List.of(topic1), false));
+		when(sessionController.handleGetSessionsPage(null, 0L, PagedListModel.DEFAULT_PAGE_SIZE)).thenReturn(new Page<>(List.of(session1), false));
+		CompletableFuture<Void> loading = GuiActionRunner.execute(() -> managerView.loadInitialDataAsync(pending::add));
+		robot().waitForIdle();
+		assertThat(managerView.getLoadingProgressBar().isVisible()).isTrue();
+		assertThat(managerView.getTopicModel().isEmpty()).isTrue();
+		pending.forEach(Runnable::run);
+		loading.join();
+		robot().waitForIdle();
+		assertThat(managerView.getTopicModel().toArray()).containsExactly(topic1);
+		assertThat(managerView.getLoadingProgressBar().isVisible()).isFalse();
+	}
+
+	@Test
+	public void testLoadInitialDataAsyncFailureHidesProgress() {
+		when(topicController.handleGetTopicsPage(0L, PagedListModel.DEFAULT_PAGE_SIZE)).thenThrow(new IllegalArgumentException("errore"));
+		when(sessionController.handleGetSessionsPage(null, 0L, PagedListModel.DEFAULT_PAGE_SIZE)).thenReturn(new Page<>(List.of(session1), false));
+		CompletableFuture<Void> loading = GuiActionRunner.execute(() -> managerView.loadInitialDataAsync(Runnable::run));
+		CompletionException e = assertThrows(CompletionException.class, loading::join);
+		assertThat(e.getCause()).hasMessage("errore");
+		robot().waitForIdle();
+		assertThat(managerView.getTopicModel().isEmpty()).isTrue();
+		assertThat(managerView.getStudySessionModel().toArray()).containsExactly(session1);
+		assertThat(managerView.getLoadingProgressBar().isVisible()).isFalse();
 	}
 
 	@Test
-	public void testLoadInitialDataNoControllersFailure() {
+	public void testLoadInitialDataAsyncNoTopicControllerFailure() {
 		managerView.setTopicController(null);
-		managerView.setSessionController(null);
-		IllegalStateException e = assertThrows(IllegalStateException.class, () -> managerView.loadInitialData());
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> managerView.loadInitialDataAsync(Runnable::run));
 		assertThat(e.getMessage()).isEqualTo("i record del db non sono stati caricati correttamente");
-		assertThat(managerView.getSessionController()).isNull();
-		assertThat(managerView.getTopicController()).isNull();
+		verify(sessionController, never()).handleGetSessionsPage(any(), anyLong(), anyInt());
+	}
+
+	@Test
+	public void testLoadInitialDataAsyncLoadsOnlyFirstPage() {
+		when(topicController.handleGetTopicsPage(0L, PagedListModel.DEFAULT_PAGE_SIZE)).thenReturn(new Page<>(List.of(topic1), true));
+		when(sessionController.handleGetSessionsPage(null, 0L, PagedListModel.DEFAULT_PAGE_SIZE)).thenReturn(new Page<>(List.of(session1), true));
+		GuiActionRunner.execute(() -> managerView.loadInitialDataAsync(Runnable::run)).join();
+		robot().waitForIdle();
+		verify(topicController, times(1)).handleGetTopicsPage(0L, PagedListModel.DEFAULT_PAGE_SIZE);
+		verify(topicController, never()).handleGetAllTopics();
+		verify(sessionController, never()).handleGetAllSessions();
+		assertThat(managerView.getTopicModel().toArray()).startsWith(topic1);
 	}
 
 	@Test
@@ -308,7 +353,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	@Test
 	public void testDeleteTopicButtonCallsTopicControllerDeleteTopic() {
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<Topic> listTopicModel = managerView.getTopicModel();
+			TopicListModel listTopicModel = managerView.getTopicModel();
 			listTopicModel.addElement(topic1);
 			listTopicModel.addElement(topic2);
 		});
@@ -336,7 +381,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	@Test
 	public void testDeleteSessionButtonCallsSessionControllerDeleteSession() {
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<StudySession> listSessionModel = managerView.getStudySessionModel();
+			SessionListModel listSessionModel = managerView.getStudySessionModel();
 			listSessionModel.addElement(session1);
 			listSessionModel.addElement(session2);
 		});
@@ -352,7 +397,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	public void testCompleteSessionButtonCallsSessionControllerCompleteSession() {
 		session1.setIsComplete(false);
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<StudySession> listSessionModel = managerView.getStudySessionModel();
+			SessionListModel listSessionModel = managerView.getStudySessionModel();
 			listSessionModel.addElement(session1);
 		});
 		robot().waitForIdle();
@@ -362,11 +407,39 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		robot().waitForIdle();
 	}
 
+	@Test
+	public void testDoubleClickOnCompleteSessionIsCoalesced() {
+		List<Runnable> pending = new ArrayList<>();
+		session1.setIsComplete(false);
+		GuiActionRunner.execute(() -> {
+			managerView.setDispatcher(new ControllerDispatcher(pending::add));
+			managerView.getStudySessionModel().addElement(session1);
+		});
+		robot().waitForIdle();
+		window.list("sessionList").selectItem(0);
+		window.button(JButtonMatcher.withName("completeSessionButton")).click();
+		window.button(JButtonMatcher.withName("completeSessionButton")).click();
+		assertThat(GuiActionRunner.execute(() -> managerView.hasPendingControllerCalls())).isTrue();
+		assertThat(pending).hasSize(1);
+		GuiActionRunner.execute(() -> pending.forEach(Runnable::run));
+		verify(sessionController, times(1)).handleCompleteSession(ids1);
+		assertThat(GuiActionRunner.execute(() -> managerView.hasPendingControllerCalls())).isFalse();
+	}
+
+	@Test
+	public void testCallbackFromBackgroundThreadUpdatesModelOnEdt() {
+		managerView.onTopicAdded(topic1);
+		managerView.onSessionAdded(session1);
+		robot().waitForIdle();
+		assertThat(managerView.getTopicModel().toArray()).containsExactly(topic1);
+		assertThat(managerView.getStudySessionModel().toArray()).containsExactly(session1);
+	}
+
 	@Test
 	public void testTotalTimeButtonCallsTopicControllerTotalTimeAndResetError() {
 		topic1.setSessions(new ArrayList<>(List.of(session1, session2)));
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<Topic> listTopicModel = managerView.getTopicModel();
+			TopicListModel listTopicModel = managerView.getTopicModel();
 			listTopicModel.addElement(topic1);
 		});
 		robot().waitForIdle();
@@ -381,7 +454,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	public void testTotalTimeButtonResetError() {
 		topic1.setSessions(new ArrayList<>(List.of(session1, session2)));
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<Topic> listTopicModel = managerView.getTopicModel();
+			TopicListModel listTopicModel = managerView.getTopicModel();
 			listTopicModel.addElement(topic1);
 			managerView.showGeneralError("error");
 		});
@@ -400,7 +473,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		session1.setIsComplete(true);
 		topic1.setSessions(new ArrayList<>(List.of(session1, session2)));
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<Topic> listTopicModel = managerView.getTopicModel();
+			TopicListModel listTopicModel = managerView.getTopicModel();
 			listTopicModel.addElement(topic1);
 		});
 		robot().waitForIdle();
@@ -416,7 +489,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	public void testPercentageButtonCallsTopicResetError() {
 		topic1.setSessions(new ArrayList<>(List.of(session1, session2)));
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<Topic> listTopicModel = managerView.getTopicModel();
+			TopicListModel listTopicModel = managerView.getTopicModel();
 			listTopicModel.addElement(topic1);
 			managerView.showGeneralError("error");
 		});
@@ -548,7 +621,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	public void testOnSessionUpdatedUpdatesTopicPanelSessionModel() {
 		session1.setIsComplete(false);
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<StudySession> testModel = new DefaultListModel<>();
+			SessionListModel testModel = new SessionListModel();
 			TopicPanel mockTopicPanel = new TopicPanel(testModel);
 			managerView.getStudySessionModel().addElement(session1);
 			mockTopicPanel.getSessionModel().addElement(session1);
@@ -563,6 +636,38 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		assertThat(managerView.getTopicPanel().getSessionModel().getElementAt(0).isComplete()).isTrue();
 	}
 
+	@Test
+	public void testOnSessionUpdatedMatchesRowById() {
+		StudySession copy = new StudySession(session2.getDate(), session2.getDuration(), session2.getNote(), new ArrayList<>());
+		copy.setId(session2.getId());
+		copy.setIsComplete(true);
+		GuiActionRunner.execute(() -> {
+			managerView.getStudySessionModel().addElement(session1);
+			managerView.getStudySessionModel().addElement(session2);
+			managerView.getStudySessionModel().removeElement(session1);
+			managerView.onSessionUpdated(copy);
+		});
+		assertThat(managerView.getStudySessionModel().getElementAt(0)).isSameAs(copy);
+		assertThat(managerView.getStudySessionModel().getSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void testOnSessionUpdatedRefreshesLinkedTopicRows() {
+		Topic awarded = new Topic(topic1.getName(), topic1.getDescription(), topic1.getDifficulty(), new ArrayList<>());
+		awarded.setId(topic1.getId());
+		awarded.setMasteryLevel(topic1.getMasteryLevel() + 8);
+		StudySession completed = new StudySession(session1.getDate(), session1.getDuration(), session1.getNote(), new ArrayList<>(List.of(awarded)));
+		completed.setId(session1.getId());
+		completed.setIsComplete(true);
+		GuiActionRunner.execute(() -> {
+			managerView.getTopicModel().addElement(topic1);
+			managerView.getStudySessionModel().addElement(session1);
+			managerView.onSessionUpdated(completed);
+		});
+		assertThat(managerView.getStudySessionModel().getElementAt(0)).isSameAs(completed);
+		assertThat(managerView.getTopicModel().getElementAt(0)).isSameAs(awarded);
+	}
+
 	@Test
 	public void testOnSessionUpdatedSessionNotFoundInMainModel() {
 		StudySession differentSession = new StudySession(LocalDate.now().plusDays(3), 30, "different note", new ArrayList<>());
@@ -585,7 +690,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		StudySession differentSession = new StudySession(LocalDate.now().plusDays(3), 30, "different note", new ArrayList<>());
 		differentSession.setId(999L);
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<StudySession> testModel = new DefaultListModel<>();
+			SessionListModel testModel = new SessionListModel();
 			TopicPanel mockTopicPanel = new TopicPanel(testModel);
 			managerView.getStudySessionModel().addElement(differentSession);
 			mockTopicPanel.getSessionModel().addElement(session1);
@@ -624,10 +729,10 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		session1.setIsComplete(false);
 		GuiActionRunner.execute(() -> {
 			managerView.getStudySessionModel().addElement(session1);
-			TopicPanel mockTopicPanelWithNullModel = new TopicPanel(new DefaultListModel<>()) {
+			TopicPanel mockTopicPanelWithNullModel = new TopicPanel(new SessionListModel()) {
 				private static final long serialVersionUID = 1L;
 				@Override
-				public DefaultListModel<StudySession> getSessionModel() {
+				public SessionListModel getSessionModel() {
 					return null;
 				}
 			};
@@ -648,7 +753,7 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	public void testOnSessionUpdatedUpdatesBothMainAndTopicPanelModels() {
 		session1.setIsComplete(false);
 		GuiActionRunner.execute(() -> {
-			DefaultListModel<StudySession> testModel = new DefaultListModel<>();
+			SessionListModel testModel = new SessionListModel();
 			TopicPanel mockTopicPanel = new TopicPanel(testModel);
 			managerView.getStudySessionModel().addElement(session1);
 			mockTopicPanel.getSessionModel().addElement(session1);
@@ -959,11 +1064,11 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	public void testOnTopicAddedWithNullTopicModel() {
 		Topic topic = new Topic("Test Topic", "Description", 3, new ArrayList<>());
 		GuiActionRunner.execute(() -> {
-			SessionPanel mockSessionPanel = new SessionPanel(new DefaultListModel<>()) {
+			SessionPanel mockSessionPanel = new SessionPanel(new TopicListModel()) {
 				private static final long serialVersionUID = 1L;
 
 				@Override
-				public DefaultListModel<Topic> getTopicModel() {
+				public TopicListModel getTopicModel() {
 					return null;
 				}
 			};
@@ -979,11 +1084,11 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		Topic topic = new Topic("Test Topic", "Description", 3, new ArrayList<>());
 		GuiActionRunner.execute(() -> {
 			managerView.getTopicModel().addElement(topic);
-			SessionPanel mockSessionPanel = new SessionPanel(new DefaultListModel<>()) {
+			SessionPanel mockSessionPanel = new SessionPanel(new TopicListModel()) {
 				private static final long serialVersionUID = 1L;
 
 				@Override
-				public DefaultListModel<Topic> getTopicModel() {
+				public TopicListModel getTopicModel() {
 					return null;
 				}
 			};
@@ -1021,11 +1126,11 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 	public void testOnSessionAddedWithNullSessionModel() {
 		StudySession session = new StudySession(LocalDate.now().plusDays(1), 60, "test note", new ArrayList<>());
 		GuiActionRunner.execute(() -> {
-			TopicPanel mockTopicPanel = new TopicPanel(new DefaultListModel<>()) {
+			TopicPanel mockTopicPanel = new TopicPanel(new SessionListModel()) {
 				private static final long serialVersionUID = 1L;
 
 				@Override
-				public DefaultListModel<StudySession> getSessionModel() {
+				public SessionListModel getSessionModel() {
 					return null;
 				}
 			};
@@ -1041,11 +1146,11 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		StudySession session = new StudySession(LocalDate.now().plusDays(1), 60, "test note", new ArrayList<>());
 		GuiActionRunner.execute(() -> {
 			managerView.getStudySessionModel().addElement(session);
-			TopicPanel mockTopicPanel = new TopicPanel(new DefaultListModel<>()) {
+			TopicPanel mockTopicPanel = new TopicPanel(new SessionListModel()) {
 				private static final long serialVersionUID = 2L;
 
 				@Override
-				public DefaultListModel<StudySession> getSessionModel() {
+				public SessionListModel getSessionModel() {
 					return null;
 				}
 			};
@@ -1055,4 +1160,89 @@ public class TopicAndSessionManagerTest extends AssertJSwingJUnitTestCase {
 		assertThat(managerView.getStudySessionModel().contains(session)).isFalse();
 		assertThat(managerView.getStudySessionModel().size()).isZero();
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testTopicFilterFieldShowsOnlyMatchingTopics() {
+		GuiActionRunner.execute(() -> {
+			managerView.getTopicModel().addElement(topic1);
+			managerView.getTopicModel().addElement(topic2);
+		});
+		window.textBox("topicFilterField").enterText("asiatico");
+		waitForQuery(managerView.getTopicFilterModel(), "asiatico");
+		assertThat(managerView.getTopicFilterModel().getSize()).isEqualTo(1);
+		assertThat(managerView.getTopicFilterModel().getElementAt(0)).isEqualTo(topic1);
+		assertThat(managerView.getTopicModel().getSize()).isEqualTo(2);
+	}
+	
+	@Test
+	public void testDeleteTopicUsesRowOfFilteredList() {
+		GuiActionRunner.execute(() -> {
+			managerView.getTopicModel().addElement(topic1);
+			managerView.getTopicModel().addElement(topic2);
+		});
+		window.textBox("topicFilterField").enterText("serialità");
+		waitForQuery(managerView.getTopicFilterModel(), "serialità");
+		window.list("topicList").selectItem(0);
+		window.button("deleteTopicButton").click();
+		robot().waitForIdle();
+		verify(topicController).handleDeleteTopic(idt2);
+	}
+	
+	@Test
+	public void testSessionFilterFieldIgnoresCase() {
+		GuiActionRunner.execute(() -> {
+			managerView.getStudySessionModel().addElement(session1);
+			managerView.getStudySessionModel().addElement(session2);
+		});
+		window.textBox("sessionFilterField").enterText("ALTRA");
+		waitForQuery(managerView.getSessionFilterModel(), "altra");
+		assertThat(managerView.getSessionFilterModel().getSize()).isEqualTo(1);
+		assertThat(managerView.getSessionFilterModel().getElementAt(0)).isEqualTo(session2);
+	}
+	
+	@Test
+	public void testFilteredListFollowsCallbacks() {
+		GuiActionRunner.execute(() -> {
+			managerView.getSessionFilterModel().applyQuery("nota");
+		});
+		robot().waitForIdle();
+		GuiActionRunner.execute(() -> {
+			managerView.onSessionAdded(session1);
+			managerView.onSessionAdded(session2);
+			managerView.onSessionRemoved(session1);
+		});
+		Pause.pause(new Condition("filtro aggiornato") {
+			@Override
+			public boolean test() {
+				return GuiActionRunner.execute(() -> managerView.getSessionFilterModel().getSize() == 1);
+			}
+		}, 5000);
+		robot().waitForIdle();
+		assertThat(managerView.getSessionFilterModel().getSize()).isEqualTo(1);
+		assertThat(managerView.getSessionFilterModel().getElementAt(0)).isEqualTo(session2);
+	}
+	
+	@Test
+	public void testClearingFilterFieldShowsAllRows() {
+		GuiActionRunner.execute(() -> {
+			managerView.getTopicModel().addElement(topic1);
+			managerView.getTopicModel().addElement(topic2);
+		});
+		window.textBox("topicFilterField").enterText("geo");
+		waitForQuery(managerView.getTopicFilterModel(), "geo");
+		window.textBox("topicFilterField").deleteText();
+		waitForQuery(managerView.getTopicFilterModel(), "");
+		assertThat(managerView.getTopicFilterModel().isFiltering()).isFalse();
+		assertThat(managerView.getTopicFilterModel().getSize()).isEqualTo(2);
+	}
+	
+	private void waitForQuery(FilteredListModel<?, ?> filterModel, String query) {
+		Pause.pause(new Condition("filtro applicato: " + query) {
+			@Override
+			public boolean test() {
+				return GuiActionRunner.execute(() -> !filterModel.isPending() && filterModel.getQuery().equals(query));
+			}
+		}, 5000);
+		robot().waitForIdle();
+	}
+}
@@ -64,8 +64,12 @@ public class TopicPanelTest extends AssertJSwingJUnitTestCase{
 		duration = 60;
 		note = "una nota";
 		session = new StudySession(date, duration, note, new ArrayList<>(List.of(topic)));
+		session.setId(7L);
 		GuiActionRunner.execute(() -> {
 			managerView = new TopicAndSessionManager();
+			managerView.setDispatcher(new ControllerDispatcher(Runnable::run));
+			managerView.getTopicPanel().setDispatcher(new ControllerDispatcher(Runnable::run));
+			managerView.getSessionPanel().setDispatcher(new ControllerDispatcher(Runnable::run));
 		});
 		window = new FrameFixture(robot(), managerView);
 		window.show();
@@ -202,7 +206,7 @@ public class TopicPanelTest extends AssertJSwingJUnitTestCase{
 		window.list("topicPanelSessionList").selectItem(0);
 		robot().waitForIdle();
 		window.button(JButtonMatcher.withName("addTopicButton")).click();
-		verify(topicController).handleCreateTopic(nameField.text(), descriptionField.text(), Integer.parseInt(difficultyField.text()), new ArrayList<>(List.of(session)));
+		verify(topicController).handleCreateTopic(nameField.text(), descriptionField.text(), Integer.parseInt(difficultyField.text()), new ArrayList<>(List.of(session.getId())));
 		robot().waitForIdle();
 	}
 	
@@ -218,7 +222,7 @@ public class TopicPanelTest extends AssertJSwingJUnitTestCase{
 		window.list("topicPanelSessionList").selectItem(0);
 		robot().waitForIdle();
 		window.button(JButtonMatcher.withName("addTopicButton")).click();
-		verify(topicController, times(0)).handleCreateTopic(nameField.text(), descriptionField.text(), Integer.parseInt(difficultyField.text()), new ArrayList<>(List.of(session)));
+		verify(topicController, times(0)).handleCreateTopic(nameField.text(), descriptionField.text(), Integer.parseInt(difficultyField.text()), new ArrayList<>(List.of(session.getId())));
 		List<Topic> topics = Collections.list(managerView.getTopicModel().elements());
 		assertThat(topics).isEmpty();
 	}